@@ -6,4 +6,20 @@ dependencies {
     api(libs.annotations)
     api(libs.creative.api)
     api(libs.adventure.api)
-}
\ No newline at end of file
+}
+
+tasks {
+    // runs the tests again using the fast-math mode by default,
+    // so that the error bounds are also checked in that mode
+    val fastMathTest by registering(Test::class) {
+        description = "Runs the tests using the fast-math mode."
+        group = "verification"
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        useJUnitPlatform()
+        systemProperty("hephaestus.fast-math", "true")
+    }
+    check {
+        dependsOn(fastMathTest)
+    }
+}
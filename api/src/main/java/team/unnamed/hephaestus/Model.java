@@ -30,10 +30,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Vector2Float;
 import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.CompiledAnimation;
 import team.unnamed.hephaestus.partial.ModelAsset;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
@@ -49,6 +51,7 @@ public class Model implements Examinable {
     private final Vector2Float boundingBox;
     private ModelAsset asset;
     private final Map<String, Animation> animations;
+    private final Map<Animation, CompiledAnimation> compiledAnimations = new ConcurrentHashMap<>();
 
     public Model(
             String name,
@@ -114,6 +117,42 @@ public class Model implements Examinable {
         return animations;
     }
 
+    /**
+     * Compiles the given {@code animation} for this model, so that
+     * animation controllers can play it without evaluating the bone
+     * hierarchy every tick, the compiled animation is kept in this
+     * model
+     *
+     * @param animation The animation to compile
+     * @return The compiled animation
+     * @see CompiledAnimation
+     */
+    public CompiledAnimation compileAnimation(Animation animation) {
+        return compiledAnimations.computeIfAbsent(animation, k -> CompiledAnimation.compile(this, k));
+    }
+
+    /**
+     * Compiles all the animations of this model
+     *
+     * @see Model#compileAnimation(Animation)
+     */
+    public void compileAnimations() {
+        for (Animation animation : animations.values()) {
+            compileAnimation(animation);
+        }
+    }
+
+    /**
+     * Returns the compiled form of the given {@code animation},
+     * if it was compiled using {@link Model#compileAnimation}
+     *
+     * @param animation The animation
+     * @return The compiled animation, null if not compiled
+     */
+    public @Nullable CompiledAnimation compiledAnimation(Animation animation) {
+        return compiledAnimations.get(animation);
+    }
+
     public @Nullable ModelAsset asset() {
         return asset;
     }
@@ -23,18 +23,20 @@
  */
 package team.unnamed.hephaestus;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Object holding a {@code cursor} for using unique
- * custom model data for all bones
+ * custom model data for all bones, it is thread-safe
  */
 public class ModelDataCursor {
 
     // Represents the next custom model
     // data to be returned by next()
-    private int cursor;
+    private final AtomicInteger cursor;
 
     public ModelDataCursor(int cursor) {
-        this.cursor = cursor;
+        this.cursor = new AtomicInteger(cursor);
     }
 
     /**
@@ -42,7 +44,7 @@ public class ModelDataCursor {
      * without modifying it
      */
     public int getNext() {
-        return cursor;
+        return cursor.get();
     }
 
     /**
@@ -51,7 +53,7 @@ public class ModelDataCursor {
      * model data
      */
     public int next() {
-        return cursor++;
+        return cursor.getAndIncrement();
     }
 
 }
@@ -27,9 +27,14 @@ import net.kyori.examination.Examinable;
 import net.kyori.examination.ExaminableProperty;
 import net.kyori.examination.string.StringExaminer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.Bone;
 import team.unnamed.hephaestus.view.BaseModelView;
 import team.unnamed.hephaestus.view.animation.AnimationController;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -47,17 +52,42 @@ public final class Animation implements Examinable {
     private final int length;
     private final LoopMode loopMode;
     private final Map<String, Timeline> timelines;
+    private final EventTimeline events;
+    private final @Nullable RootMotion rootMotion;
 
     public Animation(
             String name,
             int length,
             LoopMode loopMode,
-            Map<String, Timeline> timelines
+            Map<String, Timeline> timelines,
+            EventTimeline events,
+            @Nullable RootMotion rootMotion
     ) {
         this.name = Objects.requireNonNull(name, "name");
         this.length = length;
         this.loopMode = Objects.requireNonNull(loopMode, "loopMode");
         this.timelines = Objects.requireNonNull(timelines, "timelines");
+        this.events = Objects.requireNonNull(events, "events");
+        this.rootMotion = rootMotion;
+    }
+
+    public Animation(
+            String name,
+            int length,
+            LoopMode loopMode,
+            Map<String, Timeline> timelines,
+            EventTimeline events
+    ) {
+        this(name, length, loopMode, timelines, events, null);
+    }
+
+    public Animation(
+            String name,
+            int length,
+            LoopMode loopMode,
+            Map<String, Timeline> timelines
+    ) {
+        this(name, length, loopMode, timelines, EventTimeline.empty());
     }
 
     /**
@@ -110,13 +140,110 @@ public final class Animation implements Examinable {
         return timelines;
     }
 
+    /**
+     * Returns the animation event channel, it
+     * holds the events fired by the animation
+     * controllers when they reach their ticks
+     *
+     * @return The animation events
+     * @since 1.0.0
+     */
+    public EventTimeline events() {
+        return events;
+    }
+
+    /**
+     * Returns the animation root motion, applied to the
+     * model view position by the animation controllers,
+     * or null if its root motion was not extracted
+     *
+     * @return The animation root motion
+     * @since 1.0.0
+     */
+    public @Nullable RootMotion rootMotion() {
+        return rootMotion;
+    }
+
+    /**
+     * Creates a copy of this animation whose root motion is
+     * extracted from the horizontal translation of the given
+     * bone, the translation from the first tick is removed from
+     * the bone timeline, so the bone keeps its first tick offset
+     * while the model view moves
+     *
+     * <p>Should be called when loading the animation, this
+     * animation is returned if it doesn't animate the bone</p>
+     *
+     * @param boneName The root bone name
+     * @return The animation with root motion
+     * @since 1.0.0
+     */
+    public Animation withRootMotion(String boneName) {
+        Objects.requireNonNull(boneName, "boneName");
+        Timeline timeline = timelines.get(boneName);
+        if (timeline == null) {
+            return this;
+        }
+
+        Map<String, Timeline> timelines = new HashMap<>(this.timelines);
+        timelines.put(boneName, new RootMotionTimeline(timeline));
+        return new Animation(
+                name,
+                length,
+                loopMode,
+                timelines,
+                events,
+                RootMotion.extract(boneName, timeline, length)
+        );
+    }
+
+    /**
+     * Creates a copy of this animation whose timelines precompute
+     * the local rotations of the given bones (and their children)
+     * that have a rotation, see {@link Timeline#withBaseRotation},
+     * so that sampling them does not convert euler angles every tick
+     *
+     * <p>Should be called when loading the animation, this
+     * animation is returned if none of its timelines changed</p>
+     *
+     * @param bones The model bones
+     * @return The animation with precomputed bone rotations
+     * @since 1.0.0
+     */
+    public Animation withBoneRotations(Collection<Bone> bones) {
+        Objects.requireNonNull(bones, "bones");
+        Map<String, Timeline> timelines = new HashMap<>(this.timelines);
+        if (!withBoneRotations(bones, timelines)) {
+            return this;
+        }
+        return new Animation(name, length, loopMode, timelines, events, rootMotion);
+    }
+
+    private static boolean withBoneRotations(Collection<Bone> bones, Map<String, Timeline> timelines) {
+        boolean changed = false;
+        for (Bone bone : bones) {
+            Timeline timeline = timelines.get(bone.name());
+            if (timeline != null && !bone.rotation().equals(Vector3Float.ZERO)) {
+                Timeline rotated = timeline.withBaseRotation(bone.rotation());
+                if (rotated != timeline) {
+                    timelines.put(bone.name(), rotated);
+                    changed = true;
+                }
+            }
+            changed |= withBoneRotations(bone.children(), timelines);
+        }
+        return changed;
+    }
+
     @Override
     public @NotNull Stream<? extends ExaminableProperty> examinableProperties() {
         return Stream.of(
                 ExaminableProperty.of("name", name),
                 ExaminableProperty.of("length", length),
                 ExaminableProperty.of("loopMode", loopMode),
-                ExaminableProperty.of("timelines", timelines)
+                ExaminableProperty.of("timelines", timelines),
+                ExaminableProperty.of("events", events),
+                ExaminableProperty.of("rootMotion", rootMotion)
         );
     }
 
@@ -128,12 +255,14 @@ public final class Animation implements Examinable {
         return name.equals(that.name)
                 && length == that.length
                 && loopMode == that.loopMode
-                && timelines.equals(that.timelines);
+                && timelines.equals(that.timelines)
+                && events.equals(that.events)
+                && Objects.equals(rootMotion, that.rootMotion);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, length, loopMode, timelines);
+        return Objects.hash(name, length, loopMode, timelines, events, rootMotion);
     }
 
     @Override
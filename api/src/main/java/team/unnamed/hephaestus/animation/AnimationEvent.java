@@ -0,0 +1,130 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import net.kyori.examination.Examinable;
+import net.kyori.examination.ExaminableProperty;
+import net.kyori.examination.string.StringExaminer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Represents an event (marker) in an {@link Animation}, e.g.
+ * a sound or a particle effect, or a gameplay marker, fired
+ * by the animation controllers when the animation reaches
+ * its tick
+ *
+ * @see EventTimeline
+ * @since 1.0.0
+ */
+public final class AnimationEvent implements Examinable {
+
+    private final int tick;
+    private final Type type;
+    private final String value;
+
+    private AnimationEvent(int tick, Type type, String value) {
+        this.tick = tick;
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * Creates a new animation event
+     *
+     * @param tick The tick when the event is fired
+     * @param type The event type
+     * @param value The event value, the effect identifier for
+     *              sound and particle events, or the script for
+     *              timeline events
+     * @return The created event
+     * @since 1.0.0
+     */
+    public static AnimationEvent of(int tick, Type type, String value) {
+        if (tick < 0) {
+            throw new IllegalArgumentException("Tick cannot be negative: " + tick);
+        }
+        return new AnimationEvent(
+                tick,
+                Objects.requireNonNull(type, "type"),
+                Objects.requireNonNull(value, "value")
+        );
+    }
+
+    public int tick() {
+        return tick;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public @NotNull Stream<? extends ExaminableProperty> examinableProperties() {
+        return Stream.of(
+                ExaminableProperty.of("tick", tick),
+                ExaminableProperty.of("type", type),
+                ExaminableProperty.of("value", value)
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AnimationEvent that = (AnimationEvent) o;
+        return tick == that.tick
+                && type == that.type
+                && value.equals(that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tick, type, value);
+    }
+
+    @Override
+    public String toString() {
+        return examine(StringExaminer.simpleEscaping());
+    }
+
+    /**
+     * The animation event types, they match the
+     * Blockbench effect channels
+     *
+     * @since 1.0.0
+     */
+    public enum Type {
+        SOUND,
+        PARTICLE,
+        TIMELINE
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.util.Transforms;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable {@link Timeline} implementation that holds every
+ * keyframe already computed, packed in flat {@code float} arrays
+ * (three components per tick for every channel)
+ *
+ * <p>Baked timelines do not interpolate during iteration, they
+ * only index into the packed arrays</p>
+ */
+final class BakedTimeline implements Timeline {
+
+    private static final int COMPONENTS = 3;
+
+    private final int frameCount;
+
+    // packed channel values, [x0, y0, z0, x1, y1, z1, ...]
+    private final float[] positions;
+    private final float[] rotations;
+    private final float[] scales;
+
+    // packed rotation quaternions, [x0, y0, z0, w0, x1, ...]
+    private final float[] quaternions;
+
+    // packed local rotation quaternions of a bone with the
+    // base rotation, null if there is no base rotation
+    private final Vector3Float baseRotation;
+    private final float @Nullable [] baseQuaternions;
+
+    private BakedTimeline(
+            int frameCount,
+            float[] positions,
+            float[] rotations,
+            float[] scales,
+            float[] quaternions,
+            Vector3Float baseRotation,
+            float @Nullable [] baseQuaternions
+    ) {
+        this.frameCount = frameCount;
+        this.positions = positions;
+        this.rotations = rotations;
+        this.scales = scales;
+        this.quaternions = quaternions;
+        this.baseRotation = baseRotation;
+        this.baseQuaternions = baseQuaternions;
+    }
+
+    /**
+     * Creates a baked timeline from already packed values
+     */
+    static BakedTimeline of(float[] positions, float[] rotations, float[] scales, float[] quaternions) {
+        Objects.requireNonNull(positions, "positions");
+        Objects.requireNonNull(rotations, "rotations");
+        Objects.requireNonNull(scales, "scales");
+        Objects.requireNonNull(quaternions, "quaternions");
+        int frameCount = positions.length / COMPONENTS;
+        if (positions.length != frameCount * COMPONENTS
+                || rotations.length != positions.length
+                || scales.length != positions.length
+                || quaternions.length != frameCount * 4) {
+            throw new IllegalArgumentException("Packed arrays do not hold the same amount of ticks");
+        }
+        return new BakedTimeline(frameCount, positions, rotations, scales, quaternions, Vector3Float.ZERO, null);
+    }
+
+    /**
+     * Bakes the given {@code timeline} by sampling every
+     * tick of it and storing the sampled values
+     */
+    static BakedTimeline bake(Timeline timeline) {
+        int frameCount = timeline.frameCount();
+        float[] positions = new float[frameCount * COMPONENTS];
+        float[] rotations = new float[frameCount * COMPONENTS];
+        float[] scales = new float[frameCount * COMPONENTS];
+
+        // rotations are sampled from the source timeline,
+        // so that they keep its rotation interpolation
+        float[] quaternions = new float[frameCount * 4];
+        for (int tick = 0; tick < frameCount; tick++) {
+            int index = tick * COMPONENTS;
+            timeline.sample(tick, Channel.POSITION, positions, index);
+            timeline.sample(tick, Channel.ROTATION, rotations, index);
+            timeline.sample(tick, Channel.SCALE, scales, index);
+            timeline.sampleRotation(tick, quaternions, tick * 4);
+        }
+
+        return new BakedTimeline(
+                frameCount,
+                positions,
+                rotations,
+                scales,
+                quaternions,
+                Vector3Float.ZERO,
+                null
+        );
+    }
+
+    private static void write(float[] array, int index, Vector3Float value) {
+        array[index] = value.x();
+        array[index + 1] = value.y();
+        array[index + 2] = value.z();
+    }
+
+    private static Vector3Float read(float[] array, int index) {
+        return new Vector3Float(array[index], array[index + 1], array[index + 2]);
+    }
+
+    @Override
+    public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+        throw new UnsupportedOperationException("Baked timelines are immutable");
+    }
+
+    @Override
+    public Timeline bake() {
+        return this;
+    }
+
+    @Override
+    public void sample(int tick, Channel channel, float[] dest, int offset) {
+        if (frameCount == 0) {
+            write(dest, offset, channel.initialValue());
+            return;
+        }
+        float[] values;
+        switch (channel) {
+            case POSITION:
+                values = positions;
+                break;
+            case ROTATION:
+                values = rotations;
+                break;
+            case SCALE:
+                values = scales;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown channel: " + channel);
+        }
+        System.arraycopy(values, clamp(tick) * COMPONENTS, dest, offset, COMPONENTS);
+    }
+
+    @Override
+    public void sampleRotation(int tick, float[] dest, int offset) {
+        if (frameCount == 0) {
+            dest[offset] = dest[offset + 1] = dest[offset + 2] = 0F;
+            dest[offset + 3] = 1F;
+            return;
+        }
+        System.arraycopy(quaternions, clamp(tick) * 4, dest, offset, 4);
+    }
+
+    @Override
+    public void sampleRotation(int tick, Vector3Float base, float[] dest, int offset) {
+        if (baseQuaternions != null && frameCount > 0 && base.equals(baseRotation)) {
+            System.arraycopy(baseQuaternions, clamp(tick) * 4, dest, offset, 4);
+        } else {
+            Timeline.super.sampleRotation(tick, base, dest, offset);
+        }
+    }
+
+    @Override
+    public Timeline withBaseRotation(Vector3Float base) {
+        Objects.requireNonNull(base, "base");
+        if (base.equals(baseRotation)) {
+            return this;
+        }
+        float[] baseQuaternions = null;
+        if (!base.equals(Vector3Float.ZERO)) {
+            // euler angles are added before converting them,
+            // see Timeline#sampleRotation(int, Vector3Float, ...)
+            baseQuaternions = new float[frameCount * 4];
+            for (int tick = 0; tick < frameCount; tick++) {
+                int index = tick * COMPONENTS;
+                Transforms.fromEulerDegrees(
+                        base.x() + rotations[index],
+                        base.y() + rotations[index + 1],
+                        base.z() + rotations[index + 2],
+                        baseQuaternions,
+                        tick * 4
+                );
+            }
+        }
+        return new BakedTimeline(frameCount, positions, rotations, scales, quaternions, base, baseQuaternions);
+    }
+
+    @Override
+    public void sample(float tick, Channel channel, float[] dest, int offset) {
+        int floor = (int) Math.floor(tick);
+        float ratio = tick - floor;
+        if (ratio == 0F || frameCount == 0 || floor < 0 || floor >= frameCount - 1) {
+            // exact or clamped ticks
+            sample(floor, channel, dest, offset);
+            return;
+        }
+        float[] values;
+        switch (channel) {
+            case POSITION:
+                values = positions;
+                break;
+            case ROTATION:
+                values = rotations;
+                break;
+            case SCALE:
+                values = scales;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown channel: " + channel);
+        }
+        int index = floor * COMPONENTS;
+        for (int i = 0; i < COMPONENTS; i++) {
+            float from = values[index + i];
+            dest[offset + i] = from + (values[index + COMPONENTS + i] - from) * ratio;
+        }
+    }
+
+    @Override
+    public void sampleRotation(float tick, float[] dest, int offset) {
+        int floor = (int) Math.floor(tick);
+        float ratio = tick - floor;
+        if (ratio == 0F || frameCount == 0 || floor < 0 || floor >= frameCount - 1) {
+            sampleRotation(floor, dest, offset);
+            return;
+        }
+        int index = floor * 4;
+        Transforms.slerp(quaternions, index, quaternions, index + 4, ratio, dest, offset);
+    }
+
+    @Override
+    public KeyFrame sample(int tick) {
+        return frameCount == 0 ? KeyFrame.INITIAL : frame(clamp(tick));
+    }
+
+    private int clamp(int tick) {
+        return Math.max(0, Math.min(tick, frameCount - 1));
+    }
+
+    @Override
+    public int frameCount() {
+        return frameCount;
+    }
+
+    private KeyFrame frame(int tick) {
+        // frames are not kept, the packed arrays are the only
+        // copy of the values, this is only used at load time,
+        // the sample methods read them without allocating
+        int index = tick * COMPONENTS;
+        return new KeyFrame(
+                read(positions, index),
+                read(rotations, index),
+                read(scales, index)
+        );
+    }
+
+    @Override
+    public @NotNull Iterator<KeyFrame> iterator() {
+        return new BakedKeyFrameIterator();
+    }
+
+    private class BakedKeyFrameIterator implements Iterator<KeyFrame> {
+
+        private int tick = 0;
+
+        @Override
+        public boolean hasNext() {
+            return tick < frameCount;
+        }
+
+        @Override
+        public KeyFrame next() {
+            if (tick >= frameCount) {
+                throw new NoSuchElementException("No more keyframes in the timeline! (tick >= frameCount)");
+            }
+            return frame(tick++);
+        }
+
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.util.Transforms;
+import team.unnamed.hephaestus.view.animation.BoneHierarchy;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Holds the global (model-space) transforms of every bone of
+ * a {@link Model}, for every tick of one of its {@link Animation}s,
+ * so that playing the animation only requires a table lookup,
+ * instead of evaluating the bone hierarchy every tick
+ *
+ * <p>Compiled transforms are only valid when the animation is
+ * played alone (e.g. without blending it with other animations),
+ * bones not animated by the animation use their initial frame</p>
+ *
+ * <p>Bones are stored in parent-first order, with the same
+ * indexes as in the {@link BoneHierarchy} of the model</p>
+ *
+ * @see Model#compileAnimation(Animation)
+ * @since 1.0.0
+ */
+public final class CompiledAnimation {
+
+    private final Model model;
+    private final Animation animation;
+    private final String[] boneNames;
+    private final int frameCount;
+
+    // [tick][bone][x, y, z]
+    private final float[] positions;
+    // [tick][bone][x, y, z, w]
+    private final float[] rotations;
+    // [tick][bone][x, y, z], null if no bone is scaled
+    private final float @Nullable [] scales;
+
+    private CompiledAnimation(
+            Model model,
+            Animation animation,
+            String[] boneNames,
+            int frameCount,
+            float[] positions,
+            float[] rotations,
+            float @Nullable [] scales
+    ) {
+        this.model = model;
+        this.animation = animation;
+        this.boneNames = boneNames;
+        this.frameCount = frameCount;
+        this.positions = positions;
+        this.rotations = rotations;
+        this.scales = scales;
+    }
+
+    /**
+     * Compiles the given {@code animation} for the given {@code model},
+     * computing the global transforms of every bone for every tick
+     *
+     * @param model The animated model
+     * @param animation The compiled animation
+     * @return The compiled animation
+     * @since 1.0.0
+     */
+    public static CompiledAnimation compile(Model model, Animation animation) {
+        Objects.requireNonNull(model, "model");
+        Objects.requireNonNull(animation, "animation");
+
+        BoneHierarchy hierarchy = BoneHierarchy.flatten(model);
+        int boneCount = hierarchy.size();
+        int frameCount = Math.max(animation.length(), 0) + 1;
+        String[] boneNames = new String[boneCount];
+        Timeline[] timelines = new Timeline[boneCount];
+        for (int i = 0; i < boneCount; i++) {
+            boneNames[i] = hierarchy.bone(i).name();
+            timelines[i] = animation.timelines().get(boneNames[i]);
+        }
+
+        float[] positions = new float[frameCount * boneCount * 3];
+        float[] rotations = new float[frameCount * boneCount * 4];
+        float[] scales = new float[frameCount * boneCount * 3];
+        boolean scaled = false;
+
+        // scratch arrays for a single tick
+        float[] tickPositions = new float[boneCount * 3];
+        double[] tickRotations = new double[boneCount * 4];
+        float[] tickScales = new float[boneCount * 3];
+        // local position (x, y, z), rotation (x, y, z, w), including
+        // the bone rotation, and scale (x, y, z)
+        float[] frame = new float[10];
+
+        for (int tick = 0; tick < frameCount; tick++) {
+            for (int i = 0; i < boneCount; i++) {
+                Bone bone = hierarchy.bone(i);
+                Timeline timeline = timelines[i];
+                if (timeline == null) {
+                    frame[0] = frame[1] = frame[2] = 0F;
+                    hierarchy.rotation(i, frame, 3);
+                    frame[7] = frame[8] = frame[9] = 1F;
+                } else {
+                    timeline.sample(tick, Timeline.Channel.POSITION, frame, 0);
+                    timeline.sampleRotation(tick, bone.rotation(), frame, 3);
+                    timeline.sample(tick, Timeline.Channel.SCALE, frame, 7);
+                }
+
+                Transforms.computeGlobal(
+                        tickPositions,
+                        tickRotations,
+                        tickScales,
+                        i,
+                        hierarchy.parent(i),
+                        bone.position().x() + frame[0],
+                        bone.position().y() + frame[1],
+                        bone.position().z() + frame[2],
+                        frame,
+                        3,
+                        frame,
+                        7
+                );
+            }
+
+            System.arraycopy(tickPositions, 0, positions, tick * boneCount * 3, tickPositions.length);
+            int rotationOffset = tick * boneCount * 4;
+            for (int i = 0; i < tickRotations.length; i++) {
+                rotations[rotationOffset + i] = (float) tickRotations[i];
+            }
+            System.arraycopy(tickScales, 0, scales, tick * boneCount * 3, tickScales.length);
+            for (float scale : tickScales) {
+                scaled |= scale != 1F;
+            }
+        }
+
+        return new CompiledAnimation(
+                model,
+                animation,
+                boneNames,
+                frameCount,
+                positions,
+                rotations,
+                scaled ? scales : null
+        );
+    }
+
+    /**
+     * Returns the model this animation was compiled for
+     *
+     * @return The model
+     * @since 1.0.0
+     */
+    public Model model() {
+        return model;
+    }
+
+    /**
+     * Returns the compiled animation
+     *
+     * @return The source animation
+     * @since 1.0.0
+     */
+    public Animation animation() {
+        return animation;
+    }
+
+    /**
+     * Returns the amount of compiled ticks, the
+     * animation length plus one
+     *
+     * @return The amount of compiled ticks
+     * @since 1.0.0
+     */
+    public int frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns the amount of bones
+     *
+     * @return The amount of bones
+     * @since 1.0.0
+     */
+    public int boneCount() {
+        return boneNames.length;
+    }
+
+    /**
+     * Returns the name of the bone at the given {@code index}
+     *
+     * @param index The bone index
+     * @return The bone name
+     * @since 1.0.0
+     */
+    public String boneName(int index) {
+        return boneNames[index];
+    }
+
+    /**
+     * Copies the global transforms of all the bones at the given
+     * {@code tick} (clamped) to the given arrays, with three
+     * components per bone for positions and four components
+     * per bone for rotations
+     *
+     * @param tick The animation tick
+     * @param positions The destination positions
+     * @param rotations The destination rotations
+     * @since 1.0.0
+     */
+    public void read(int tick, float[] positions, double[] rotations) {
+        int boneCount = boneNames.length;
+        tick = Math.max(0, Math.min(tick, frameCount - 1));
+        System.arraycopy(this.positions, tick * boneCount * 3, positions, 0, boneCount * 3);
+        int rotationOffset = tick * boneCount * 4;
+        for (int i = 0, size = boneCount * 4; i < size; i++) {
+            rotations[i] = this.rotations[rotationOffset + i];
+        }
+    }
+
+    /**
+     * Copies the global scales of all the bones at the given
+     * {@code tick} (clamped) to the given array, with three
+     * components per bone
+     *
+     * @param tick The animation tick
+     * @param scales The destination scales
+     * @since 1.0.0
+     */
+    public void readScales(int tick, float[] scales) {
+        int boneCount = boneNames.length;
+        if (this.scales == null) {
+            // no bone is scaled
+            Arrays.fill(scales, 0, boneCount * 3, 1F);
+            return;
+        }
+        tick = Math.max(0, Math.min(tick, frameCount - 1));
+        System.arraycopy(this.scales, tick * boneCount * 3, scales, 0, boneCount * 3);
+    }
+
+}
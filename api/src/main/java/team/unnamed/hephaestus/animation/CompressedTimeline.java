@@ -0,0 +1,550 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.util.Transforms;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable {@link Timeline} implementation that only keeps the
+ * keys that can not be reproduced by interpolating their neighbour
+ * keys, optionally quantized to 16 bits per component
+ *
+ * <p>Compressed timelines are built from the per-tick samples of
+ * another timeline, positions, scales and euler rotations are
+ * interpolated linearly between the kept keys, and quaternion
+ * rotations are interpolated spherically</p>
+ */
+final class CompressedTimeline implements Timeline {
+
+    private static final int COMPONENTS = 3;
+    private static final int QUATERNION_COMPONENTS = 4;
+
+    private final int frameCount;
+    private final float tolerance;
+
+    private final Track positions;
+    private final Track rotations;
+    private final Track scales;
+    private final Track quaternions;
+
+    // the local rotation quaternions of a bone with the base
+    // rotation, null if there is no base rotation
+    private final Vector3Float baseRotation;
+    private final @Nullable Track baseQuaternions;
+
+    private CompressedTimeline(
+            int frameCount,
+            float tolerance,
+            Track positions,
+            Track rotations,
+            Track scales,
+            Track quaternions,
+            Vector3Float baseRotation,
+            @Nullable Track baseQuaternions
+    ) {
+        this.frameCount = frameCount;
+        this.tolerance = tolerance;
+        this.positions = positions;
+        this.rotations = rotations;
+        this.scales = scales;
+        this.quaternions = quaternions;
+        this.baseRotation = baseRotation;
+        this.baseQuaternions = baseQuaternions;
+    }
+
+    /**
+     * Compresses the given {@code timeline}, every tick of the
+     * timeline is sampled and keys are removed if interpolating
+     * their neighbours reproduces them within the given
+     * {@code tolerance}
+     */
+    static CompressedTimeline compress(Timeline timeline, float tolerance, boolean quantize) {
+        int frameCount = timeline.frameCount();
+        int samples = Math.max(frameCount, 1);
+        float[] positions = new float[samples * COMPONENTS];
+        float[] rotations = new float[samples * COMPONENTS];
+        float[] scales = new float[samples * COMPONENTS];
+        float[] quaternions = new float[samples * QUATERNION_COMPONENTS];
+
+        for (int tick = 0; tick < frameCount; tick++) {
+            int index = tick * COMPONENTS;
+            timeline.sample(tick, Channel.POSITION, positions, index);
+            timeline.sample(tick, Channel.ROTATION, rotations, index);
+            timeline.sample(tick, Channel.SCALE, scales, index);
+            timeline.sampleRotation(tick, quaternions, tick * QUATERNION_COMPONENTS);
+        }
+
+        if (frameCount == 0) {
+            // empty timeline, every channel holds its initial value
+            write(positions, 0, Channel.POSITION.initialValue());
+            write(rotations, 0, Channel.ROTATION.initialValue());
+            write(scales, 0, Channel.SCALE.initialValue());
+            quaternions[3] = 1F;
+        }
+
+        return new CompressedTimeline(
+                frameCount,
+                tolerance,
+                Track.build(positions, samples, COMPONENTS, false, tolerance, quantize),
+                Track.build(rotations, samples, COMPONENTS, false, tolerance, quantize),
+                Track.build(scales, samples, COMPONENTS, false, tolerance, quantize),
+                Track.build(quaternions, samples, QUATERNION_COMPONENTS, true, tolerance, quantize),
+                Vector3Float.ZERO,
+                null
+        );
+    }
+
+    private static void write(float[] array, int index, Vector3Float value) {
+        array[index] = value.x();
+        array[index + 1] = value.y();
+        array[index + 2] = value.z();
+    }
+
+    /**
+     * Writes the kept keys of this timeline to the given
+     * {@code output}, see {@link CompressedTimeline#read}
+     */
+    void write(DataOutput output) throws IOException {
+        output.writeInt(frameCount);
+        output.writeFloat(tolerance);
+        positions.write(output);
+        rotations.write(output);
+        scales.write(output);
+        quaternions.write(output);
+    }
+
+    /**
+     * Reads a timeline written by {@link CompressedTimeline#write}
+     * from the given {@code buffer}, the base rotation is not
+     * written, see {@link Timeline#withBaseRotation}
+     *
+     * @throws IllegalArgumentException If the data is malformed
+     */
+    static CompressedTimeline read(ByteBuffer buffer) {
+        int frameCount = buffer.getInt();
+        float tolerance = buffer.getFloat();
+        Track positions = Track.read(buffer, COMPONENTS);
+        Track rotations = Track.read(buffer, COMPONENTS);
+        Track scales = Track.read(buffer, COMPONENTS);
+        Track quaternions = Track.read(buffer, QUATERNION_COMPONENTS);
+        return new CompressedTimeline(
+                frameCount,
+                tolerance,
+                positions,
+                rotations,
+                scales,
+                quaternions,
+                Vector3Float.ZERO,
+                null
+        );
+    }
+
+    /**
+     * Returns the amount of keys kept for the given {@code channel},
+     * the rotation channel counts the quaternion keys
+     */
+    int keyCount(Channel channel) {
+        switch (channel) {
+            case POSITION:
+                return positions.ticks.length;
+            case ROTATION:
+                return quaternions.ticks.length;
+            case SCALE:
+                return scales.ticks.length;
+            default:
+                throw new IllegalArgumentException("Unknown channel: " + channel);
+        }
+    }
+
+    @Override
+    public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+        throw new UnsupportedOperationException("Compressed timelines are immutable");
+    }
+
+    @Override
+    public void sample(int tick, Channel channel, float[] dest, int offset) {
+        sample((float) tick, channel, dest, offset);
+    }
+
+    @Override
+    public void sample(float tick, Channel channel, float[] dest, int offset) {
+        Track track;
+        switch (channel) {
+            case POSITION:
+                track = positions;
+                break;
+            case ROTATION:
+                track = rotations;
+                break;
+            case SCALE:
+                track = scales;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown channel: " + channel);
+        }
+        track.sample(tick, dest, offset);
+    }
+
+    @Override
+    public void sampleRotation(int tick, float[] dest, int offset) {
+        quaternions.sample(tick, dest, offset);
+    }
+
+    @Override
+    public void sampleRotation(float tick, float[] dest, int offset) {
+        quaternions.sample(tick, dest, offset);
+    }
+
+    @Override
+    public void sampleRotation(int tick, Vector3Float base, float[] dest, int offset) {
+        if (baseQuaternions != null && base.equals(baseRotation)) {
+            baseQuaternions.sample(tick, dest, offset);
+        } else {
+            Timeline.super.sampleRotation(tick, base, dest, offset);
+        }
+    }
+
+    @Override
+    public Timeline withBaseRotation(Vector3Float base) {
+        Objects.requireNonNull(base, "base");
+        if (base.equals(baseRotation)) {
+            return this;
+        }
+        Track baseQuaternions = null;
+        if (!base.equals(Vector3Float.ZERO)) {
+            // euler angles are added before converting them,
+            // see Timeline#sampleRotation(int, Vector3Float, ...)
+            int samples = Math.max(frameCount, 1);
+            float[] values = new float[samples * QUATERNION_COMPONENTS];
+            float[] rotation = new float[COMPONENTS];
+            for (int tick = 0; tick < samples; tick++) {
+                rotations.sample(tick, rotation, 0);
+                Transforms.fromEulerDegrees(
+                        base.x() + rotation[0],
+                        base.y() + rotation[1],
+                        base.z() + rotation[2],
+                        values,
+                        tick * QUATERNION_COMPONENTS
+                );
+            }
+            baseQuaternions = Track.build(
+                    values,
+                    samples,
+                    QUATERNION_COMPONENTS,
+                    true,
+                    tolerance,
+                    quaternions.quantized != null
+            );
+        }
+        return new CompressedTimeline(
+                frameCount,
+                tolerance,
+                positions,
+                rotations,
+                scales,
+                quaternions,
+                base,
+                baseQuaternions
+        );
+    }
+
+    @Override
+    public int frameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public @NotNull Iterator<KeyFrame> iterator() {
+        return new CompressedKeyFrameIterator();
+    }
+
+    /**
+     * The compressed keys of a single channel, values are
+     * stored with a fixed amount of components per key
+     */
+    private static final class Track {
+
+        private final int components;
+        private final boolean spherical;
+        private final int[] ticks;
+
+        // the raw values, or null if quantized
+        private final float @Nullable [] values;
+
+        // the quantized values, decoded as minimum + value * step
+        private final short @Nullable [] quantized;
+        private final float @Nullable [] minimums;
+        private final float @Nullable [] steps;
+
+        private Track(
+                int components,
+                boolean spherical,
+                int[] ticks,
+                float @Nullable [] values,
+                short @Nullable [] quantized,
+                float @Nullable [] minimums,
+                float @Nullable [] steps
+        ) {
+            this.components = components;
+            this.spherical = spherical;
+            this.ticks = ticks;
+            this.values = values;
+            this.quantized = quantized;
+            this.minimums = minimums;
+            this.steps = steps;
+        }
+
+        static Track build(
+                float[] samples,
+                int sampleCount,
+                int components,
+                boolean spherical,
+                float tolerance,
+                boolean quantize
+        ) {
+            int[] keys = new int[sampleCount];
+            int keyCount = 0;
+            keys[keyCount++] = 0;
+
+            if (!constant(samples, components, sampleCount, tolerance)) {
+                // greedily extend every segment while interpolating its
+                // ends reproduces all the samples in between
+                float[] interpolated = new float[components];
+                int start = 0;
+                for (int end = 2; end < sampleCount; end++) {
+                    if (!fits(samples, components, spherical, start, end, tolerance, interpolated)) {
+                        start = end - 1;
+                        keys[keyCount++] = start;
+                    }
+                }
+                keys[keyCount++] = sampleCount - 1;
+            }
+
+            int[] ticks = Arrays.copyOf(keys, keyCount);
+            float[] values = new float[keyCount * components];
+            for (int i = 0; i < keyCount; i++) {
+                System.arraycopy(samples, ticks[i] * components, values, i * components, components);
+            }
+
+            if (!quantize) {
+                return new Track(components, spherical, ticks, values, null, null, null);
+            }
+
+            float[] minimums = new float[components];
+            float[] steps = new float[components];
+            for (int component = 0; component < components; component++) {
+                float min = Float.POSITIVE_INFINITY;
+                float max = Float.NEGATIVE_INFINITY;
+                for (int i = component; i < values.length; i += components) {
+                    min = Math.min(min, values[i]);
+                    max = Math.max(max, values[i]);
+                }
+                minimums[component] = min;
+                steps[component] = (max - min) / 0xFFFF;
+            }
+
+            short[] quantized = new short[values.length];
+            for (int i = 0; i < values.length; i++) {
+                float step = steps[i % components];
+                quantized[i] = step == 0F ? 0 : (short) Math.round((values[i] - minimums[i % components]) / step);
+            }
+            return new Track(components, spherical, ticks, null, quantized, minimums, steps);
+        }
+
+        void write(DataOutput output) throws IOException {
+            output.writeBoolean(spherical);
+            output.writeInt(ticks.length);
+            for (int tick : ticks) {
+                output.writeInt(tick);
+            }
+            output.writeBoolean(values == null);
+            if (values != null) {
+                for (float value : values) {
+                    output.writeFloat(value);
+                }
+                return;
+            }
+            for (short value : quantized) {
+                output.writeShort(value);
+            }
+            for (int component = 0; component < components; component++) {
+                output.writeFloat(minimums[component]);
+                output.writeFloat(steps[component]);
+            }
+        }
+
+        static Track read(ByteBuffer buffer, int components) {
+            boolean spherical = buffer.get() != 0;
+            int[] ticks = new int[buffer.getInt()];
+            if (ticks.length == 0) {
+                throw new IllegalArgumentException("Tracks must have at least one key");
+            }
+            for (int i = 0; i < ticks.length; i++) {
+                ticks[i] = buffer.getInt();
+            }
+
+            if (buffer.get() == 0) {
+                float[] values = new float[ticks.length * components];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = buffer.getFloat();
+                }
+                return new Track(components, spherical, ticks, values, null, null, null);
+            }
+
+            short[] quantized = new short[ticks.length * components];
+            for (int i = 0; i < quantized.length; i++) {
+                quantized[i] = buffer.getShort();
+            }
+            float[] minimums = new float[components];
+            float[] steps = new float[components];
+            for (int component = 0; component < components; component++) {
+                minimums[component] = buffer.getFloat();
+                steps[component] = buffer.getFloat();
+            }
+            return new Track(components, spherical, ticks, null, quantized, minimums, steps);
+        }
+
+        private static boolean fits(
+                float[] samples,
+                int components,
+                boolean spherical,
+                int start,
+                int end,
+                float tolerance,
+                float[] interpolated
+        ) {
+            for (int tick = start + 1; tick < end; tick++) {
+                float ratio = (float) (tick - start) / (end - start);
+                if (spherical) {
+                    Transforms.slerp(samples, start * components, samples, end * components, ratio, interpolated, 0);
+                } else {
+                    for (int i = 0; i < components; i++) {
+                        float from = samples[start * components + i];
+                        interpolated[i] = from + (samples[end * components + i] - from) * ratio;
+                    }
+                }
+                for (int i = 0; i < components; i++) {
+                    if (Math.abs(interpolated[i] - samples[tick * components + i]) > tolerance) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static boolean constant(float[] samples, int components, int sampleCount, float tolerance) {
+            for (int tick = 1; tick < sampleCount; tick++) {
+                for (int i = 0; i < components; i++) {
+                    if (Math.abs(samples[tick * components + i] - samples[i]) > tolerance) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private float value(int key, int component) {
+            int index = key * components + component;
+            if (values != null) {
+                return values[index];
+            }
+            return minimums[component] + (quantized[index] & 0xFFFF) * steps[component];
+        }
+
+        private void read(int key, float[] dest, int offset) {
+            for (int i = 0; i < components; i++) {
+                dest[offset + i] = value(key, i);
+            }
+        }
+
+        void sample(float tick, float[] dest, int offset) {
+            // find the last key lower or equal to the tick,
+            // the first key is always at tick zero
+            int low = 0;
+            int high = ticks.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (ticks[middle] <= tick) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            int key = Math.max(high, 0);
+
+            if (key == ticks.length - 1 || tick <= ticks[key]) {
+                read(key, dest, offset);
+                return;
+            }
+
+            float ratio = (tick - ticks[key]) / (ticks[key + 1] - ticks[key]);
+            if (spherical) {
+                read(key + 1, dest, offset);
+                Transforms.slerp(
+                        value(key, 0), value(key, 1), value(key, 2), value(key, 3),
+                        dest, offset,
+                        ratio,
+                        dest, offset
+                );
+            } else {
+                for (int i = 0; i < components; i++) {
+                    float from = value(key, i);
+                    dest[offset + i] = from + (value(key + 1, i) - from) * ratio;
+                }
+            }
+        }
+
+    }
+
+    private class CompressedKeyFrameIterator implements Iterator<KeyFrame> {
+
+        private int tick = 0;
+
+        @Override
+        public boolean hasNext() {
+            return tick < frameCount;
+        }
+
+        @Override
+        public KeyFrame next() {
+            if (tick >= frameCount) {
+                throw new NoSuchElementException("No more keyframes in the timeline! (tick >= frameCount)");
+            }
+            return sample(tick++);
+        }
+
+    }
+
+}
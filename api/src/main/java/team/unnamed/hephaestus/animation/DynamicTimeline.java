@@ -24,21 +24,32 @@
 package team.unnamed.hephaestus.animation;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Vector3Float;
-import team.unnamed.hephaestus.util.Vectors;
+import team.unnamed.hephaestus.util.Transforms;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 final class DynamicTimeline implements Timeline {
 
-    private final Map<Channel, List<AnimationEntry>> entries = new HashMap<>();
+    private static final float[] IDENTITY = { 0, 0, 0, 1 };
+
+    // bisection steps when evaluating bezier curves, enough
+    // for float precision
+    private static final int BEZIER_ITERATIONS = 24;
+
+    /**
+     * Entries for every channel, <strong>they are always
+     * ordered by position</strong>, so that they can be
+     * binary-searched when sampling
+     */
+    private final Map<Channel, List<AnimationEntry>> entries = new EnumMap<>(Channel.class);
     private final int length;
 
     DynamicTimeline(int length) {
@@ -46,187 +57,365 @@ final class DynamicTimeline implements Timeline {
     }
 
     @Override
-    public void put(int position, Channel channel, Vector3Float value) {
-         entries.computeIfAbsent(channel, k -> new ArrayList<>())
-                 .add(new AnimationEntry(position, value));
+    public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+        Objects.requireNonNull(interpolation, "interpolation");
+        List<AnimationEntry> list = entries.computeIfAbsent(channel, k -> new ArrayList<>());
+        // insert after the entries with a lower or equal position,
+        // keeping the list sorted and the insertion order for
+        // entries in the same position
+        list.add(floorIndex(list, position) + 1, new AnimationEntry(position, value, interpolation, channel == Channel.ROTATION));
     }
 
     @Override
-    public @NotNull Iterator<KeyFrame> iterator() {
-        return new DynamicKeyFrameIterator(entries, length);
+    public void sampleRotation(int tick, float[] dest, int offset) {
+        sampleRotation((float) tick, dest, offset);
     }
 
-    private static final class AnimationEntry {
+    @Override
+    public void sampleRotation(float tick, float[] dest, int offset) {
+        List<AnimationEntry> list = entries.get(Channel.ROTATION);
 
-        private final int pos;
-        private final Vector3Float value;
+        if (list == null || list.isEmpty()) {
+            System.arraycopy(IDENTITY, 0, dest, offset, 4);
+            return;
+        }
 
-        public AnimationEntry(
-                int pos,
-                Vector3Float value
-        ) {
-            this.pos = pos;
-            this.value = value;
+        tick = Math.max(tick, 0F);
+        int index = floorIndex(list, tick);
+
+        int previousPos;
+        float[] previous;
+
+        if (index == -1) {
+            // before the first entry, interpolate
+            // from the identity at tick zero
+            previousPos = 0;
+            previous = IDENTITY;
+        } else {
+            AnimationEntry entry = list.get(index);
+            previousPos = entry.pos;
+            previous = entry.quaternion;
         }
 
+        if (tick == previousPos || index == list.size() - 1) {
+            System.arraycopy(previous, 0, dest, offset, 4);
+            return;
+        }
+
+        AnimationEntry next = list.get(index + 1);
+        Interpolation.Type type = index == -1
+                ? Interpolation.Type.LINEAR
+                : segmentType(list.get(index), next);
+
+        switch (type) {
+            case STEP:
+                System.arraycopy(previous, 0, dest, offset, 4);
+                break;
+            case CATMULLROM:
+            case BEZIER:
+                // curves are defined over the euler angles
+                sample(tick, Channel.ROTATION, dest, offset);
+                Transforms.fromEulerDegrees(dest[offset], dest[offset + 1], dest[offset + 2], dest, offset);
+                break;
+            default:
+                Vector3Float previousValue = index == -1 ? Channel.ROTATION.initialValue() : list.get(index).value;
+                if (isHalfTurnOrMore(previousValue, next.value)) {
+                    // the shortest path would collapse or reverse
+                    // this rotation, interpolate the euler angles
+                    sample(tick, Channel.ROTATION, dest, offset);
+                    Transforms.fromEulerDegrees(dest[offset], dest[offset + 1], dest[offset + 2], dest, offset);
+                } else {
+                    float ratio = (tick - previousPos) / (float) (next.pos - previousPos);
+                    Transforms.slerp(previous, 0, next.quaternion, 0, ratio, dest, offset);
+                }
+                break;
+        }
     }
 
-    private static class DynamicKeyFrameIterator
-            implements Iterator<KeyFrame> {
+    @Override
+    public void sample(int tick, Channel channel, float[] dest, int offset) {
+        sample((float) tick, channel, dest, offset);
+    }
 
-        private static final int CHANNEL_COUNT = Channel.values().length;
+    @Override
+    public void sample(float tick, Channel channel, float[] dest, int offset) {
+        List<AnimationEntry> list = entries.get(channel);
 
-        /**
-         * Underlying iterator for {@link AnimationEntry}, they
-         * specify channel, position and value
-         *
-         * <p><strong>They must be ordered!</strong></p>
-         */
-        private final Iterator<AnimationEntry>[] iterators;
+        if (list == null || list.isEmpty()) {
+            write(dest, offset, channel.initialValue());
+            return;
+        }
 
-        private final int length;
+        // negative ticks are clamped to zero
+        tick = Math.max(tick, 0F);
+        int index = floorIndex(list, tick);
+
+        if (index == -1) {
+            // before the first entry, interpolate linearly from
+            // the channel initial value at tick zero
+            AnimationEntry next = list.get(0);
+            if (tick == 0) {
+                write(dest, offset, channel.initialValue());
+            } else {
+                lerp(channel.initialValue(), next.value, tick / next.pos, dest, offset);
+            }
+            return;
+        }
 
-        /**
-         * Represents the current tick of the iteration,
-         * it increments in 1 in every next() call when
-         * using the default implementation
-         */
-        private int tick = 0;
+        AnimationEntry previous = list.get(index);
 
-        private final int[] previousPositions = new int[CHANNEL_COUNT];
-        private final Vector3Float[] previousValues = new Vector3Float[CHANNEL_COUNT];
+        if (tick == previous.pos || index == list.size() - 1) {
+            // exactly in a keyframe or after the last
+            // keyframe, no need to interpolate
+            write(dest, offset, previous.value);
+            return;
+        }
 
-        private final int[] nextPositions = new int[CHANNEL_COUNT];
-        private final Vector3Float[] nextValues = new Vector3Float[CHANNEL_COUNT];
+        AnimationEntry next = list.get(index + 1);
+        float ratio = (tick - previous.pos) / (float) (next.pos - previous.pos);
+
+        switch (segmentType(previous, next)) {
+            case STEP:
+                write(dest, offset, previous.value);
+                break;
+            case CATMULLROM: {
+                // the keyframes around the segment, the segment
+                // keyframes are repeated at the ends
+                Vector3Float before = index > 0 ? list.get(index - 1).value : previous.value;
+                Vector3Float after = index + 2 < list.size() ? list.get(index + 2).value : next.value;
+                for (int axis = 0; axis < 3; axis++) {
+                    dest[offset + axis] = catmullRom(
+                            component(before, axis),
+                            component(previous.value, axis),
+                            component(next.value, axis),
+                            component(after, axis),
+                            ratio
+                    );
+                }
+                break;
+            }
+            case BEZIER: {
+                Interpolation out = previous.interpolation;
+                Interpolation in = next.interpolation;
+                for (int axis = 0; axis < 3; axis++) {
+                    dest[offset + axis] = bezier(
+                            previous.pos,
+                            component(previous.value, axis),
+                            previous.pos + component(out.rightTime(), axis),
+                            component(previous.value, axis) + component(out.rightValue(), axis),
+                            next.pos + component(in.leftTime(), axis),
+                            component(next.value, axis) + component(in.leftValue(), axis),
+                            next.pos,
+                            component(next.value, axis),
+                            tick
+                    );
+                }
+                break;
+            }
+            default:
+                lerp(previous.value, next.value, ratio, dest, offset);
+                break;
+        }
+    }
 
-        @SuppressWarnings({"unchecked"})
-        public DynamicKeyFrameIterator(Map<Channel, List<AnimationEntry>> entries, int length) {
-            this.iterators = new Iterator[CHANNEL_COUNT];
-            this.length = length;
+    /**
+     * Determines the interpolation used between two consecutive
+     * entries, smooth curves are used if any of the entries uses
+     * them, same as Blockbench does
+     */
+    private static Interpolation.Type segmentType(AnimationEntry previous, AnimationEntry next) {
+        Interpolation.Type from = previous.interpolation.type();
+        Interpolation.Type to = next.interpolation.type();
+        if (from == Interpolation.Type.STEP) {
+            return Interpolation.Type.STEP;
+        } else if (from == Interpolation.Type.CATMULLROM || to == Interpolation.Type.CATMULLROM) {
+            return Interpolation.Type.CATMULLROM;
+        } else if (from == Interpolation.Type.BEZIER || to == Interpolation.Type.BEZIER) {
+            return Interpolation.Type.BEZIER;
+        } else {
+            return Interpolation.Type.LINEAR;
+        }
+    }
 
-            for (Channel channel : Channel.values()) {
-                int index = channel.ordinal();
+    private static float catmullRom(float p0, float p1, float p2, float p3, float t) {
+        float t2 = t * t;
+        float t3 = t2 * t;
+        return 0.5F * (2F * p1
+                + (p2 - p0) * t
+                + (2F * p0 - 5F * p1 + 4F * p2 - p3) * t2
+                + (3F * p1 - p0 - 3F * p2 + p3) * t3);
+    }
 
-                List<AnimationEntry> entryList = entries.getOrDefault(channel, Collections.emptyList());
-                entryList.sort(Comparator.comparingInt(entry -> entry.pos));
-                this.iterators[channel.ordinal()] = new ArrayList<>(entryList).iterator();
+    /**
+     * Evaluates the cubic bezier curve defined by the given (time,
+     * value) control points at the given {@code time}, the curve
+     * parameter for the time is found using bisection
+     */
+    private static float bezier(
+            float time0, float value0,
+            float time1, float value1,
+            float time2, float value2,
+            float time3, float value3,
+            float time
+    ) {
+        // handles outside the segment would make
+        // the curve go back in time
+        time1 = Math.max(time0, Math.min(time1, time3));
+        time2 = Math.max(time0, Math.min(time2, time3));
+
+        float low = 0F;
+        float high = 1F;
+        for (int i = 0; i < BEZIER_ITERATIONS; i++) {
+            float middle = (low + high) * 0.5F;
+            if (cubic(time0, time1, time2, time3, middle) < time) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return cubic(value0, value1, value2, value3, (low + high) * 0.5F);
+    }
 
-                // initialize previous and last values
-                previousValues[index] = channel.initialValue();
+    private static float cubic(float p0, float p1, float p2, float p3, float t) {
+        float r = 1F - t;
+        return r * r * r * p0
+                + 3F * r * r * t * p1
+                + 3F * r * t * t * p2
+                + t * t * t * p3;
+    }
 
-                Iterator<AnimationEntry> iterator = iterators[index];
+    private static float component(Vector3Float vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x();
+            case 1:
+                return vector.y();
+            default:
+                return vector.z();
+        }
+    }
 
-                if (iterator.hasNext()) {
-                    AnimationEntry entry = iterator.next();
-                    nextPositions[index] = entry.pos;
-                    nextValues[index] = entry.value;
+    private static void lerp(Vector3Float from, Vector3Float to, float ratio, float[] dest, int offset) {
+        dest[offset] = from.x() + (to.x() - from.x()) * ratio;
+        dest[offset + 1] = from.y() + (to.y() - from.y()) * ratio;
+        dest[offset + 2] = from.z() + (to.z() - from.z()) * ratio;
+    }
 
-                    if (entry.pos == 0F) {
-                        // if position is zero, set to previous
-                        previousValues[index] = entry.value;
-                    }
-                }
+    @Override
+    public @NotNull Iterator<KeyFrame> iterator() {
+        return new DynamicKeyFrameIterator(lastTick());
+    }
+
+    @Override
+    public int frameCount() {
+        return lastTick() + 1;
+    }
+
+    /**
+     * Returns the last tick of the iteration, the last keyframe
+     * of the longest channel, or the timeline length
+     */
+    private int lastTick() {
+        int last = 0;
+        for (List<AnimationEntry> list : entries.values()) {
+            if (!list.isEmpty()) {
+                last = Math.max(last, list.get(list.size() - 1).pos);
             }
         }
+        return Math.min(last, length);
+    }
 
-        @Override
-        public boolean hasNext() {
-            if (tick >= length) {
-                return false;
-            }
-            // if there are next frames, there must be non-explored
-            // entries or currently exploring entries must not be
-            // finishing
-            for (Channel channel : Channel.values()) {
-                int index = channel.ordinal();
-                if (tick <= nextPositions[index]
-                        || iterators[index].hasNext()) {
-                    return true;
-                }
+    /**
+     * Finds the index of the last entry whose position is
+     * lower or equal to the given {@code position}, returns
+     * -1 if there is no such entry
+     */
+    private static int floorIndex(List<AnimationEntry> list, float position) {
+        int low = 0;
+        int high = list.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (list.get(middle).pos <= position) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
             }
-            return false;
         }
+        return high;
+    }
 
-        @Override
-        public KeyFrame next() {
+    private static void write(float[] dest, int offset, Vector3Float value) {
+        dest[offset] = value.x();
+        dest[offset + 1] = value.y();
+        dest[offset + 2] = value.z();
+    }
 
-            if (tick >= length) {
-                throw new NoSuchElementException("No more keyframes in the timeline! (tick >= length)");
-            }
+    /**
+     * Determines whether the rotation between the given euler
+     * angles is half a turn (180 degrees) or more in any axis
+     */
+    private static boolean isHalfTurnOrMore(Vector3Float from, Vector3Float to) {
+        return Math.abs(to.x() - from.x()) >= 180F
+                || Math.abs(to.y() - from.y()) >= 180F
+                || Math.abs(to.z() - from.z()) >= 180F;
+    }
 
-            Vector3Float position = Vector3Float.ZERO;
-            Vector3Float rotation = Vector3Float.ZERO;
-            Vector3Float scale = Vector3Float.ONE;
+    private static final class AnimationEntry {
 
-            for (Channel channel : Channel.values()) {
-                int index = channel.ordinal();
+        private final int pos;
+        private final Vector3Float value;
+        private final Interpolation interpolation;
 
-                Vector3Float next = nextValues[index];
-                int nextPos = nextPositions[index];
+        // the rotation as a quaternion, precomputed
+        // for rotation entries, so that sampling does
+        // not convert euler angles
+        private final float @Nullable [] quaternion;
 
-                Vector3Float previous;
-                int previousPos;
+        public AnimationEntry(
+                int pos,
+                Vector3Float value,
+                Interpolation interpolation,
+                boolean rotation
+        ) {
+            this.pos = pos;
+            this.value = value;
+            this.interpolation = interpolation;
+            if (rotation) {
+                this.quaternion = new float[4];
+                Transforms.fromEulerDegrees(value.x(), value.y(), value.z(), quaternion, 0);
+            } else {
+                this.quaternion = null;
+            }
+        }
 
-                if (next != null && tick > nextPos) {
+    }
 
-                    // current tick is greater than next position
-                    // in this channel, now 'previous' is 'next'
-                    previous = previousValues[index] = next;
-                    previousPos = previousPositions[index] = nextPositions[index];
+    private class DynamicKeyFrameIterator
+            implements Iterator<KeyFrame> {
 
-                    // consume 'next'
-                    Iterator<AnimationEntry> iterator = iterators[index];
-                    if (iterator.hasNext()) {
-                        AnimationEntry entry = iterator.next();
-                        next = nextValues[index] = entry.value;
-                        nextPos = nextPositions[index] = entry.pos;
-                    } else {
-                        next = nextValues[index] = null;
-                    }
-                } else {
-                    previousPos = previousPositions[index];
-                    previous = previousValues[index];
-                }
+        private final int last;
 
-                Vector3Float value;
-                if (next == null) {
-                    // if there is no next frame to lerp,
-                    // use the previous value
-                    value = previous;
-                } else if (tick == previousPos) {
-                    value = previous;
-                } else if (tick == nextPos) {
-                    value = next;
-                } else {
-                    float ratio = (float) (tick - previousPos)
-                            / (float) (nextPos - previousPos);
-                    value = Vectors.lerp(
-                            previous,
-                            next,
-                            ratio
-                    );
-                }
+        /**
+         * Represents the current tick of the iteration,
+         * it increments in 1 in every next() call
+         */
+        private int tick = 0;
 
-                switch (channel) {
-                    case POSITION: {
-                        position = value;
-                        break;
-                    }
-                    case ROTATION: {
-                        rotation = value;
-                        break;
-                    }
-                    case SCALE: {
-                        scale = value;
-                        break;
-                    }
-                }
-            }
+        DynamicKeyFrameIterator(int last) {
+            this.last = last;
+        }
 
-            // increment tick
-            tick++;
+        @Override
+        public boolean hasNext() {
+            return tick <= last;
+        }
 
-            return new KeyFrame(position, rotation, scale);
+        @Override
+        public KeyFrame next() {
+            if (tick > last) {
+                throw new NoSuchElementException("No more keyframes in the timeline! (tick > last)");
+            }
+            return sample(tick++);
         }
     }
 
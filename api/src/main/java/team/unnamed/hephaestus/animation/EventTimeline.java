@@ -0,0 +1,176 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import net.kyori.examination.Examinable;
+import net.kyori.examination.ExaminableProperty;
+import net.kyori.examination.string.StringExaminer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * The event channel of an {@link Animation}, holds its
+ * {@link AnimationEvent} instances indexed by tick, so that
+ * the events of any tick are found in constant time
+ *
+ * @since 1.0.0
+ */
+public final class EventTimeline implements Examinable {
+
+    private static final EventTimeline EMPTY = new EventTimeline(Collections.emptyList(), Collections.emptyList());
+
+    // the events of every tick, or null if there are no events,
+    // random access, so that looking up a tick is constant time
+    private final List<List<AnimationEvent>> ticks;
+    private final List<AnimationEvent> events;
+
+    private EventTimeline(List<List<AnimationEvent>> ticks, List<AnimationEvent> events) {
+        this.ticks = ticks;
+        this.events = events;
+    }
+
+    /**
+     * Creates a new event timeline holding the given events,
+     * events of the same tick keep their order
+     *
+     * @param events The animation events
+     * @return The created event timeline
+     * @since 1.0.0
+     */
+    public static EventTimeline of(Collection<AnimationEvent> events) {
+        Objects.requireNonNull(events, "events");
+        if (events.isEmpty()) {
+            return EMPTY;
+        }
+
+        int lastTick = 0;
+        for (AnimationEvent event : events) {
+            lastTick = Math.max(lastTick, event.tick());
+        }
+
+        List<List<AnimationEvent>> ticks = new ArrayList<>(Collections.nCopies(lastTick + 1, null));
+        List<AnimationEvent> sorted = new ArrayList<>(events.size());
+        for (AnimationEvent event : events) {
+            List<AnimationEvent> tickEvents = ticks.get(event.tick());
+            if (tickEvents == null) {
+                tickEvents = new ArrayList<>(1);
+                ticks.set(event.tick(), tickEvents);
+            }
+            tickEvents.add(event);
+        }
+        for (int tick = 0; tick < ticks.size(); tick++) {
+            List<AnimationEvent> tickEvents = ticks.get(tick);
+            if (tickEvents != null) {
+                ticks.set(tick, Collections.unmodifiableList(tickEvents));
+                sorted.addAll(tickEvents);
+            }
+        }
+        return new EventTimeline(ticks, Collections.unmodifiableList(sorted));
+    }
+
+    /**
+     * Returns an empty event timeline
+     *
+     * @return The empty event timeline
+     * @since 1.0.0
+     */
+    public static EventTimeline empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Determines whether there are events at the given {@code tick}
+     *
+     * @param tick The animation tick
+     * @return True if there are events at the tick
+     * @since 1.0.0
+     */
+    public boolean has(int tick) {
+        return tick >= 0 && tick < ticks.size() && ticks.get(tick) != null;
+    }
+
+    /**
+     * Returns the events at the given {@code tick}, the
+     * returned list is not modifiable and not copied, so
+     * this method does not allocate
+     *
+     * @param tick The animation tick
+     * @return The events at the tick, empty if there are none
+     * @since 1.0.0
+     */
+    public List<AnimationEvent> at(int tick) {
+        return has(tick) ? ticks.get(tick) : Collections.emptyList();
+    }
+
+    /**
+     * Returns all the events in this timeline,
+     * sorted by tick
+     *
+     * @return All the events
+     * @since 1.0.0
+     */
+    public List<AnimationEvent> events() {
+        return events;
+    }
+
+    /**
+     * Determines whether this timeline has no events
+     *
+     * @return True if there are no events
+     * @since 1.0.0
+     */
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    @Override
+    public @NotNull Stream<? extends ExaminableProperty> examinableProperties() {
+        return Stream.of(ExaminableProperty.of("events", events));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventTimeline that = (EventTimeline) o;
+        return events.equals(that.events);
+    }
+
+    @Override
+    public int hashCode() {
+        return events.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return examine(StringExaminer.simpleEscaping());
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import net.kyori.examination.Examinable;
+import net.kyori.examination.ExaminableProperty;
+import net.kyori.examination.string.StringExaminer;
+import org.jetbrains.annotations.NotNull;
+import team.unnamed.creative.base.Vector3Float;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Represents the interpolation of a {@link Timeline} keyframe,
+ * determines how values are computed between the keyframe and
+ * the next one
+ *
+ * <p>Curves are only evaluated by dynamic timelines, baked
+ * timelines store the resulting values for every tick, so
+ * sampling them costs the same for every curve type</p>
+ *
+ * @see Timeline#bake()
+ * @since 1.0.0
+ */
+public final class Interpolation implements Examinable {
+
+    /**
+     * Linear interpolation, the default one
+     *
+     * @since 1.0.0
+     */
+    public static final Interpolation LINEAR = new Interpolation(Type.LINEAR);
+
+    /**
+     * Catmull-Rom spline interpolation, a smooth curve that
+     * passes through all the keyframes
+     *
+     * @since 1.0.0
+     */
+    public static final Interpolation CATMULLROM = new Interpolation(Type.CATMULLROM);
+
+    /**
+     * Step interpolation, the keyframe value is held
+     * until the next keyframe
+     *
+     * @since 1.0.0
+     */
+    public static final Interpolation STEP = new Interpolation(Type.STEP);
+
+    private final Type type;
+
+    // bezier handles, relative to the keyframe, times are
+    // in ticks, zero for non-bezier interpolations
+    private final Vector3Float leftTime;
+    private final Vector3Float leftValue;
+    private final Vector3Float rightTime;
+    private final Vector3Float rightValue;
+
+    private Interpolation(
+            Type type,
+            Vector3Float leftTime,
+            Vector3Float leftValue,
+            Vector3Float rightTime,
+            Vector3Float rightValue
+    ) {
+        this.type = type;
+        this.leftTime = leftTime;
+        this.leftValue = leftValue;
+        this.rightTime = rightTime;
+        this.rightValue = rightValue;
+    }
+
+    private Interpolation(Type type) {
+        this(type, Vector3Float.ZERO, Vector3Float.ZERO, Vector3Float.ZERO, Vector3Float.ZERO);
+    }
+
+    /**
+     * Creates a new bezier interpolation with the given handles,
+     * relative to the keyframe, one per axis. The left handle
+     * affects the curve from the previous keyframe and the right
+     * handle affects the curve to the next keyframe
+     *
+     * @param leftTime The left handle times, in ticks (usually negative)
+     * @param leftValue The left handle values
+     * @param rightTime The right handle times, in ticks (usually positive)
+     * @param rightValue The right handle values
+     * @return The bezier interpolation
+     * @since 1.0.0
+     */
+    public static Interpolation bezier(
+            Vector3Float leftTime,
+            Vector3Float leftValue,
+            Vector3Float rightTime,
+            Vector3Float rightValue
+    ) {
+        return new Interpolation(
+                Type.BEZIER,
+                Objects.requireNonNull(leftTime, "leftTime"),
+                Objects.requireNonNull(leftValue, "leftValue"),
+                Objects.requireNonNull(rightTime, "rightTime"),
+                Objects.requireNonNull(rightValue, "rightValue")
+        );
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public Vector3Float leftTime() {
+        return leftTime;
+    }
+
+    public Vector3Float leftValue() {
+        return leftValue;
+    }
+
+    public Vector3Float rightTime() {
+        return rightTime;
+    }
+
+    public Vector3Float rightValue() {
+        return rightValue;
+    }
+
+    @Override
+    public @NotNull Stream<? extends ExaminableProperty> examinableProperties() {
+        return Stream.of(
+                ExaminableProperty.of("type", type),
+                ExaminableProperty.of("leftTime", leftTime),
+                ExaminableProperty.of("leftValue", leftValue),
+                ExaminableProperty.of("rightTime", rightTime),
+                ExaminableProperty.of("rightValue", rightValue)
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Interpolation that = (Interpolation) o;
+        return type == that.type
+                && leftTime.equals(that.leftTime)
+                && leftValue.equals(that.leftValue)
+                && rightTime.equals(that.rightTime)
+                && rightValue.equals(that.rightValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, leftTime, leftValue, rightTime, rightValue);
+    }
+
+    @Override
+    public String toString() {
+        return examine(StringExaminer.simpleEscaping());
+    }
+
+    public enum Type {
+        LINEAR,
+        CATMULLROM,
+        BEZIER,
+        STEP
+    }
+
+}
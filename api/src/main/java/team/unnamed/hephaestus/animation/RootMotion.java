@@ -0,0 +1,196 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import net.kyori.examination.Examinable;
+import net.kyori.examination.ExaminableProperty;
+import net.kyori.examination.string.StringExaminer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * The root motion of an {@link Animation}, the horizontal
+ * translation of its root bone, extracted from the bone timeline
+ * so that it moves the model view instead of the bone
+ *
+ * <p>Holds the extracted position (relative to the first tick)
+ * of every tick, so that the motion between consecutive ticks
+ * is computed in constant time</p>
+ *
+ * @see Animation#withRootMotion(String)
+ * @since 1.0.0
+ */
+public final class RootMotion implements Examinable {
+
+    private final String boneName;
+
+    // [tick][x, y, z]
+    private final float[] positions;
+
+    private RootMotion(String boneName, float[] positions) {
+        this.boneName = boneName;
+        this.positions = positions;
+    }
+
+    /**
+     * Extracts the horizontal (x and z) translation of the given
+     * bone {@code timeline}, for every tick of the animation
+     *
+     * @param boneName The root bone name
+     * @param timeline The root bone timeline
+     * @param length The animation length, in ticks
+     * @return The extracted root motion
+     * @since 1.0.0
+     */
+    public static RootMotion extract(String boneName, Timeline timeline, int length) {
+        Objects.requireNonNull(boneName, "boneName");
+        Objects.requireNonNull(timeline, "timeline");
+        int frameCount = Math.max(length, 0) + 1;
+        float[] positions = new float[frameCount * 3];
+        float[] position = new float[3];
+
+        timeline.sample(0, Timeline.Channel.POSITION, position, 0);
+        float startX = position[0];
+        float startZ = position[2];
+        for (int tick = 0; tick < frameCount; tick++) {
+            timeline.sample(tick, Timeline.Channel.POSITION, position, 0);
+            positions[tick * 3] = position[0] - startX;
+            positions[tick * 3 + 2] = position[2] - startZ;
+        }
+        return new RootMotion(boneName, positions);
+    }
+
+    /**
+     * Creates a root motion from already extracted positions,
+     * relative to the first tick, with three components
+     * per tick
+     *
+     * <p>The given array is not copied, it must not be
+     * modified after calling this method</p>
+     *
+     * @param boneName The root bone name
+     * @param positions The packed positions
+     * @return The root motion
+     * @since 1.0.0
+     */
+    public static RootMotion of(String boneName, float[] positions) {
+        Objects.requireNonNull(boneName, "boneName");
+        Objects.requireNonNull(positions, "positions");
+        if (positions.length % 3 != 0) {
+            throw new IllegalArgumentException("Positions must have three components per tick");
+        }
+        return new RootMotion(boneName, positions);
+    }
+
+    /**
+     * Returns the name of the bone whose
+     * motion was extracted
+     *
+     * @return The root bone name
+     * @since 1.0.0
+     */
+    public String boneName() {
+        return boneName;
+    }
+
+    /**
+     * Returns the amount of ticks with an extracted
+     * position, the animation length plus one
+     *
+     * @return The amount of frames
+     * @since 1.0.0
+     */
+    public int frameCount() {
+        return positions.length / 3;
+    }
+
+    /**
+     * Writes the position at the given {@code tick}, relative
+     * to the first tick, to {@code dest}, starting at
+     * {@code offset}
+     *
+     * @param tick The animation tick, must be lower than
+     *             the frame count
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @since 1.0.0
+     */
+    public void position(int tick, float[] dest, int offset) {
+        System.arraycopy(positions, tick * 3, dest, offset, 3);
+    }
+
+    /**
+     * Writes the motion from the previous tick to the given
+     * {@code tick} to {@code dest}, starting at {@code offset},
+     * the motion to the first tick is always zero
+     *
+     * @param tick The animation tick
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @since 1.0.0
+     */
+    public void delta(int tick, float[] dest, int offset) {
+        int frameCount = positions.length / 3;
+        if (tick <= 0 || tick >= frameCount) {
+            dest[offset] = dest[offset + 1] = dest[offset + 2] = 0F;
+            return;
+        }
+        int current = tick * 3;
+        int previous = current - 3;
+        dest[offset] = positions[current] - positions[previous];
+        dest[offset + 1] = positions[current + 1] - positions[previous + 1];
+        dest[offset + 2] = positions[current + 2] - positions[previous + 2];
+    }
+
+    @Override
+    public @NotNull Stream<? extends ExaminableProperty> examinableProperties() {
+        return Stream.of(
+                ExaminableProperty.of("boneName", boneName),
+                ExaminableProperty.of("frameCount", frameCount())
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RootMotion that = (RootMotion) o;
+        return boneName.equals(that.boneName)
+                && Arrays.equals(positions, that.positions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * boneName.hashCode() + Arrays.hashCode(positions);
+    }
+
+    @Override
+    public String toString() {
+        return examine(StringExaminer.simpleEscaping());
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import org.jetbrains.annotations.NotNull;
+import team.unnamed.creative.base.Vector3Float;
+
+import java.util.Iterator;
+
+/**
+ * {@link Timeline} view of a root bone timeline whose horizontal
+ * translation was extracted to a {@link RootMotion}, the position
+ * x and z components always hold their values at the first tick,
+ * since the root motion is relative to it
+ */
+final class RootMotionTimeline implements Timeline {
+
+    private final Timeline delegate;
+
+    // the horizontal offset of the first tick,
+    // kept by the bone during the whole animation
+    private final float startX;
+    private final float startZ;
+
+    RootMotionTimeline(Timeline delegate) {
+        this.delegate = delegate;
+        float[] start = new float[3];
+        delegate.sample(0, Channel.POSITION, start, 0);
+        this.startX = start[0];
+        this.startZ = start[2];
+    }
+
+    @Override
+    public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+        throw new UnsupportedOperationException("Root motion timelines are immutable");
+    }
+
+    @Override
+    public void sample(int tick, Channel channel, float[] dest, int offset) {
+        delegate.sample(tick, channel, dest, offset);
+        if (channel == Channel.POSITION) {
+            dest[offset] = startX;
+            dest[offset + 2] = startZ;
+        }
+    }
+
+    @Override
+    public void sample(float tick, Channel channel, float[] dest, int offset) {
+        delegate.sample(tick, channel, dest, offset);
+        if (channel == Channel.POSITION) {
+            dest[offset] = startX;
+            dest[offset + 2] = startZ;
+        }
+    }
+
+    @Override
+    public void sampleRotation(int tick, float[] dest, int offset) {
+        delegate.sampleRotation(tick, dest, offset);
+    }
+
+    @Override
+    public void sampleRotation(float tick, float[] dest, int offset) {
+        delegate.sampleRotation(tick, dest, offset);
+    }
+
+    @Override
+    public void sampleRotation(int tick, Vector3Float base, float[] dest, int offset) {
+        delegate.sampleRotation(tick, base, dest, offset);
+    }
+
+    @Override
+    public Timeline withBaseRotation(Vector3Float base) {
+        Timeline rotated = delegate.withBaseRotation(base);
+        return rotated == delegate ? this : new RootMotionTimeline(rotated);
+    }
+
+    @Override
+    public int frameCount() {
+        return delegate.frameCount();
+    }
+
+    @Override
+    public @NotNull Iterator<KeyFrame> iterator() {
+        return new RootMotionKeyFrameIterator(delegate.iterator());
+    }
+
+    private class RootMotionKeyFrameIterator implements Iterator<KeyFrame> {
+
+        private final Iterator<KeyFrame> frames;
+
+        RootMotionKeyFrameIterator(Iterator<KeyFrame> frames) {
+            this.frames = frames;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return frames.hasNext();
+        }
+
+        @Override
+        public KeyFrame next() {
+            KeyFrame frame = frames.next();
+            return new KeyFrame(
+                    new Vector3Float(startX, frame.position().y(), startZ),
+                    frame.rotation(),
+                    frame.scale()
+            );
+        }
+
+    }
+
+}
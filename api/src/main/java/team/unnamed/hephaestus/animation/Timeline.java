@@ -25,6 +25,7 @@ package team.unnamed.hephaestus.animation;
 
 import org.jetbrains.annotations.NotNull;
 import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.util.Transforms;
 
 import java.util.Iterator;
 
@@ -39,22 +40,266 @@ public interface Timeline extends Iterable<KeyFrame> {
 
     /**
      * Adds the given {@code value} to the timeline in
-     * the specified {@code tick} and {@code channel}
+     * the specified {@code tick} and {@code channel}, values
+     * between this keyframe and the next one are computed
+     * using the given {@code interpolation}
      *
      * @since 1.0.0
      */
-    void put(int position, Channel channel, Vector3Float value);
+    void put(int position, Channel channel, Vector3Float value, Interpolation interpolation);
+
+    /**
+     * Adds the given {@code value} to the timeline in
+     * the specified {@code tick} and {@code channel},
+     * using linear interpolation
+     *
+     * @since 1.0.0
+     */
+    default void put(int position, Channel channel, Vector3Float value) {
+        put(position, channel, value, Interpolation.LINEAR);
+    }
 
     /**
      * Creates an iterator that iterates over
      * keyframes stored in this timeline
      *
+     * <p>Iterators create a {@link KeyFrame} for every tick, they
+     * are meant to be used at load time, use {@link #frameCount()}
+     * and the sample methods to read ticks without allocating</p>
+     *
      * @since 1.0.0
      */
     @NotNull
     @Override
     Iterator<KeyFrame> iterator();
 
+    /**
+     * Returns the amount of keyframes generated by the
+     * {@link #iterator()} of this timeline, i.e. the amount
+     * of ticks from zero that can be sampled
+     *
+     * @return The amount of keyframes of this timeline
+     * @since 1.0.0
+     */
+    default int frameCount() {
+        int frameCount = 0;
+        for (Iterator<KeyFrame> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+            frameCount++;
+        }
+        return frameCount;
+    }
+
+    /**
+     * Computes the value of the given {@code channel} at the
+     * specified {@code tick} and writes its three components
+     * (x, y, z) to {@code dest}, starting at {@code offset}
+     *
+     * <p>Ticks before the first keyframe or after the last
+     * keyframe are clamped, so this method never fails for
+     * out of range ticks</p>
+     *
+     * @param tick The sampled tick
+     * @param channel The sampled channel
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @since 1.0.0
+     */
+    void sample(int tick, Channel channel, float[] dest, int offset);
+
+    /**
+     * Computes the rotation at the specified {@code tick}, as
+     * a quaternion, and writes its four components (x, y, z, w)
+     * to {@code dest}, starting at {@code offset}
+     *
+     * <p>Unlike {@link Channel#ROTATION} samples, which interpolate
+     * euler angles component-wise, rotations are spherically
+     * interpolated between keyframes, following the shortest
+     * path, unless the keyframes are half a turn or more apart,
+     * then their euler angles are interpolated</p>
+     *
+     * @param tick The sampled tick
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @since 1.0.0
+     */
+    default void sampleRotation(int tick, float[] dest, int offset) {
+        sample(tick, Channel.ROTATION, dest, offset);
+        Transforms.fromEulerDegrees(dest[offset], dest[offset + 1], dest[offset + 2], dest, offset);
+    }
+
+    /**
+     * Computes the local rotation of a bone with the given
+     * {@code base} rotation at the specified {@code tick}, as
+     * a quaternion, and writes its four components to {@code dest}
+     *
+     * <p>Euler angles are added before converting them, like
+     * Blockbench does, instead of multiplying the quaternions</p>
+     *
+     * @param tick The sampled tick
+     * @param base The bone rotation, as euler angles, in degrees
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @see Timeline#sampleRotation(int, float[], int)
+     * @since 1.0.0
+     */
+    default void sampleRotation(int tick, Vector3Float base, float[] dest, int offset) {
+        if (base.equals(Vector3Float.ZERO)) {
+            sampleRotation(tick, dest, offset);
+            return;
+        }
+        sample(tick, Channel.ROTATION, dest, offset);
+        Transforms.fromEulerDegrees(
+                base.x() + dest[offset],
+                base.y() + dest[offset + 1],
+                base.z() + dest[offset + 2],
+                dest,
+                offset
+        );
+    }
+
+    /**
+     * Returns a timeline with the same keyframes as this timeline,
+     * whose local rotations for a bone with the given {@code base}
+     * rotation are precomputed, so that {@link #sampleRotation(int,
+     * Vector3Float, float[], int)} does not convert euler angles
+     * for that rotation
+     *
+     * <p>Baked and compressed timelines precompute them, other
+     * timelines return themselves</p>
+     *
+     * @param base The bone rotation, as euler angles, in degrees
+     * @return The timeline with precomputed local rotations
+     * @see Animation#withBoneRotations
+     * @since 1.0.0
+     */
+    default Timeline withBaseRotation(Vector3Float base) {
+        return this;
+    }
+
+    /**
+     * Computes the value of the given {@code channel} at the
+     * specified fractional {@code tick}, e.g. {@code 2.5F} for
+     * the middle point between the ticks two and three, and
+     * writes its three components to {@code dest}
+     *
+     * <p>Useful to sample animations at a different rate than
+     * the one they were read at, without reading them again</p>
+     *
+     * @param tick The sampled tick, may be fractional
+     * @param channel The sampled channel
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @see Timeline#sample(int, Channel, float[], int)
+     * @since 1.0.0
+     */
+    default void sample(float tick, Channel channel, float[] dest, int offset) {
+        int floor = (int) Math.floor(tick);
+        float ratio = tick - floor;
+        sample(floor, channel, dest, offset);
+        if (ratio == 0F) {
+            return;
+        }
+
+        // interpolate linearly to the next tick
+        float x = dest[offset];
+        float y = dest[offset + 1];
+        float z = dest[offset + 2];
+        sample(floor + 1, channel, dest, offset);
+        dest[offset] = x + (dest[offset] - x) * ratio;
+        dest[offset + 1] = y + (dest[offset + 1] - y) * ratio;
+        dest[offset + 2] = z + (dest[offset + 2] - z) * ratio;
+    }
+
+    /**
+     * Computes the rotation at the specified fractional
+     * {@code tick}, as a quaternion, and writes its four
+     * components to {@code dest}
+     *
+     * @param tick The sampled tick, may be fractional
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @see Timeline#sampleRotation(int, float[], int)
+     * @since 1.0.0
+     */
+    default void sampleRotation(float tick, float[] dest, int offset) {
+        int floor = (int) Math.floor(tick);
+        float ratio = tick - floor;
+        sampleRotation(floor, dest, offset);
+        if (ratio == 0F) {
+            return;
+        }
+
+        // keep the rotation at the floor tick on the stack, sample
+        // the next tick into dest and interpolate spherically to it
+        float x = dest[offset];
+        float y = dest[offset + 1];
+        float z = dest[offset + 2];
+        float w = dest[offset + 3];
+        sampleRotation(floor + 1, dest, offset);
+        Transforms.slerp(x, y, z, w, dest, offset, ratio, dest, offset);
+    }
+
+    /**
+     * Computes the {@link KeyFrame} at the given {@code tick},
+     * without the need of iterating over the previous ticks
+     *
+     * @param tick The sampled tick
+     * @return The keyframe at the given tick
+     * @see Timeline#sample(int, Channel, float[], int)
+     * @since 1.0.0
+     */
+    default KeyFrame sample(int tick) {
+        float[] values = new float[9];
+        sample(tick, Channel.POSITION, values, 0);
+        sample(tick, Channel.ROTATION, values, 3);
+        sample(tick, Channel.SCALE, values, 6);
+        return new KeyFrame(
+                new Vector3Float(values[0], values[1], values[2]),
+                new Vector3Float(values[3], values[4], values[5]),
+                new Vector3Float(values[6], values[7], values[8])
+        );
+    }
+
+    /**
+     * Creates a baked, immutable copy of this timeline, every
+     * keyframe is computed once and stored in packed arrays, so
+     * iterating it does not interpolate nor sort anything
+     *
+     * <p>Note that the returned timeline does not support
+     * {@link Timeline#put}</p>
+     *
+     * @return The baked timeline
+     * @since 1.0.0
+     */
+    default Timeline bake() {
+        return BakedTimeline.bake(this);
+    }
+
+    /**
+     * Creates a compressed, immutable copy of this timeline, only
+     * keeping the keys that can not be reproduced, within the given
+     * {@code tolerance}, by interpolating their neighbour keys
+     *
+     * <p>Compressed timelines usually take much less memory than
+     * baked timelines, but sampling them requires a binary search
+     * and an interpolation instead of a table lookup</p>
+     *
+     * <p>If {@code quantize} is true, key values are stored using
+     * 16 bits per component, adding an error of up to 1/65535 of
+     * the range of every component</p>
+     *
+     * <p>Note that the returned timeline does not support
+     * {@link Timeline#put}</p>
+     *
+     * @param tolerance The maximum absolute error per component
+     * @param quantize Whether to quantize the key values
+     * @return The compressed timeline
+     * @since 1.0.0
+     */
+    default Timeline compress(float tolerance, boolean quantize) {
+        return CompressedTimeline.compress(this, tolerance, quantize);
+    }
+
     enum Channel {
         POSITION(Vector3Float.ZERO),
         ROTATION(Vector3Float.ZERO),
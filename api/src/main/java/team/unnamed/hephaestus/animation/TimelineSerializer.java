@@ -0,0 +1,120 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.animation;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of {@link Timeline} instances, used by the
+ * model cache, compressed timelines keep their compressed keys
+ * and every other timeline is written baked
+ */
+@ApiStatus.Internal
+public final class TimelineSerializer {
+
+    private static final byte BAKED = 0;
+    private static final byte COMPRESSED = 1;
+
+    // channels of baked timelines, in the order they are written
+    private static final Timeline.Channel[] CHANNELS = {
+            Timeline.Channel.POSITION,
+            Timeline.Channel.ROTATION,
+            Timeline.Channel.SCALE
+    };
+
+    private TimelineSerializer() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Writes the given {@code timeline} to the given {@code output}
+     */
+    public static void write(DataOutput output, Timeline timeline) throws IOException {
+        if (timeline instanceof CompressedTimeline) {
+            output.writeByte(COMPRESSED);
+            ((CompressedTimeline) timeline).write(output);
+            return;
+        }
+
+        int frameCount = timeline.frameCount();
+        output.writeByte(BAKED);
+        output.writeInt(frameCount);
+        float[] values = new float[4];
+        for (Timeline.Channel channel : CHANNELS) {
+            for (int tick = 0; tick < frameCount; tick++) {
+                timeline.sample(tick, channel, values, 0);
+                writeFloats(output, values, 3);
+            }
+        }
+
+        // quaternions are sampled from the timeline, so that
+        // they keep its rotation interpolation
+        for (int tick = 0; tick < frameCount; tick++) {
+            timeline.sampleRotation(tick, values, 0);
+            writeFloats(output, values, 4);
+        }
+    }
+
+    /**
+     * Reads a timeline written by {@link TimelineSerializer#write}
+     * from the given {@code buffer}
+     *
+     * @throws IllegalArgumentException If the data is malformed
+     */
+    public static Timeline read(ByteBuffer buffer) {
+        byte kind = buffer.get();
+        switch (kind) {
+            case BAKED: {
+                int frameCount = buffer.getInt();
+                float[] positions = readFloats(buffer, frameCount * 3);
+                float[] rotations = readFloats(buffer, frameCount * 3);
+                float[] scales = readFloats(buffer, frameCount * 3);
+                float[] quaternions = readFloats(buffer, frameCount * 4);
+                return BakedTimeline.of(positions, rotations, scales, quaternions);
+            }
+            case COMPRESSED:
+                return CompressedTimeline.read(buffer);
+            default:
+                throw new IllegalArgumentException("Unknown timeline kind: " + kind);
+        }
+    }
+
+    private static void writeFloats(DataOutput output, float[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            output.writeFloat(values[i]);
+        }
+    }
+
+    private static float[] readFloats(ByteBuffer buffer, int length) {
+        float[] values = new float[length];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + length * Float.BYTES);
+        return values;
+    }
+
+}
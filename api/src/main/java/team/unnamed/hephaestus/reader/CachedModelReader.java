@@ -0,0 +1,179 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.reader;
+
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.ModelDataCursor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link ModelReader} implementation that keeps a binary copy
+ * of every read model in a cache directory, keyed by the hash
+ * of the source data, the delegate reader key and the format
+ * version, so that unchanged models are not parsed again by
+ * the delegate reader
+ *
+ * <p>Custom model data is always assigned by this reader, since
+ * cached models may have been read in a different order</p>
+ *
+ * <p>Textures of the returned models are not held in memory,
+ * they are copied from the cache entry when written</p>
+ */
+final class CachedModelReader implements ModelReader {
+
+    private static final Logger LOGGER = Logger.getLogger(CachedModelReader.class.getName());
+
+    private static final String EXTENSION = ".hmodel";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ModelReader delegate;
+    private final Path directory;
+    private final ModelDataCursor cursor;
+
+    CachedModelReader(ModelReader delegate, Path directory, ModelDataCursor cursor) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.cursor = Objects.requireNonNull(cursor, "cursor");
+    }
+
+    @Override
+    public Model read(InputStream input) throws IOException {
+        return ModelDataAssignment.assign(load(input), cursor);
+    }
+
+    @Override
+    public List<Model> readAll(Collection<Path> paths, Executor executor, ModelDataCursor cursor) throws IOException {
+        // load without assigning custom model data,
+        // it is assigned once all the models are loaded
+        ModelReader loader = this::load;
+        return loader.readAll(paths, executor, cursor);
+    }
+
+    @Override
+    public List<Model> readAll(Collection<Path> paths, Executor executor) throws IOException {
+        return readAll(paths, executor, cursor);
+    }
+
+    private Model load(InputStream input) throws IOException {
+        byte[] data = input.readAllBytes();
+        Path file = directory.resolve(key(data) + EXTENSION);
+
+        if (Files.isRegularFile(file)) {
+            try {
+                return readCached(file);
+            } catch (IOException e) {
+                // the entry is overwritten below
+                LOGGER.log(Level.WARNING, "Ignoring invalid cached model " + file, e);
+            }
+        }
+
+        Model model = delegate.read(new ByteArrayInputStream(data));
+        try {
+            write(model, file);
+        } catch (IOException e) {
+            // the model was read anyway, it will
+            // just be read again the next time
+            LOGGER.log(Level.WARNING, "Failed to cache model " + model.name(), e);
+            return model;
+        }
+
+        // load it back, so that its textures are not held in memory
+        return readCached(file);
+    }
+
+    private static Model readCached(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return ModelSerializer.read(buffer, file);
+        }
+    }
+
+    private void write(Model model, Path file) throws IOException {
+        Files.createDirectories(directory);
+        // written to a temporary file first, so that other
+        // processes never see a partially written entry
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+                ModelSerializer.write(model, data);
+                data.flush();
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Computes the cache key for the given model {@code data},
+     * models read by a differently configured reader or written
+     * by another format version get a different key
+     */
+    private String key(byte[] data) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        String reader = ModelSerializer.VERSION + "\0" + delegate.cacheKey() + "\0";
+        digest.update(reader.getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(data);
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+}
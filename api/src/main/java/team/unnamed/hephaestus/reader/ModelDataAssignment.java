@@ -0,0 +1,122 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.reader;
+
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.ModelDataCursor;
+import team.unnamed.hephaestus.partial.BoneAsset;
+import team.unnamed.hephaestus.partial.ModelAsset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns the custom model data of the bones of already
+ * read models in a deterministic order, i.e. sorted by
+ * bone name, regardless of the order they were read in
+ */
+final class ModelDataAssignment {
+
+    private ModelDataAssignment() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Creates a copy of the given {@code model} whose bones use
+     * custom model data taken from the given {@code cursor}, in
+     * the order of their names
+     */
+    static Model assign(Model model, ModelDataCursor cursor) {
+        List<String> names = new ArrayList<>();
+        collectNames(model.bones(), names);
+        names.sort(null);
+
+        Map<String, Integer> customModelData = new HashMap<>();
+        for (String name : names) {
+            customModelData.put(name, cursor.next());
+        }
+
+        ModelAsset asset = model.asset();
+        return new Model(
+                model.name(),
+                assignBones(model.bones(), customModelData),
+                model.boundingBox(),
+                asset == null ? null : new ModelAsset(
+                        asset.name(),
+                        asset.textures(),
+                        asset.textureMapping(),
+                        assignAssets(asset.bones(), customModelData)
+                ),
+                model.animations()
+        );
+    }
+
+    private static void collectNames(Collection<Bone> bones, List<String> names) {
+        for (Bone bone : bones) {
+            names.add(bone.name());
+            collectNames(bone.children(), names);
+        }
+    }
+
+    private static Map<String, Bone> assignBones(Collection<Bone> bones, Map<String, Integer> customModelData) {
+        Map<String, Bone> assigned = new LinkedHashMap<>();
+        for (Bone bone : bones) {
+            assigned.put(bone.name(), new Bone(
+                    bone.name(),
+                    bone.position(),
+                    bone.rotation(),
+                    assignBones(bone.children(), customModelData),
+                    bone.small(),
+                    customModelData.get(bone.name())
+            ));
+        }
+        return assigned;
+    }
+
+    private static Map<String, BoneAsset> assignAssets(
+            Collection<BoneAsset> bones,
+            Map<String, Integer> customModelData
+    ) {
+        Map<String, BoneAsset> assigned = new LinkedHashMap<>();
+        for (BoneAsset bone : bones) {
+            Integer data = customModelData.get(bone.name());
+            assigned.put(bone.name(), new BoneAsset(
+                    bone.name(),
+                    bone.pivot(),
+                    data == null ? bone.customModelData() : data,
+                    bone.offset(),
+                    bone.cubes(),
+                    bone.small(),
+                    assignAssets(bone.children(), customModelData)
+            ));
+        }
+        return assigned;
+    }
+
+}
@@ -25,11 +25,24 @@ package team.unnamed.hephaestus.reader;
 
 import team.unnamed.creative.base.Readable;
 import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.ModelDataCursor;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Responsible for reading and parsing {@link Model} from a
@@ -83,4 +96,136 @@ public interface ModelReader {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Reads a model from the file at the given {@code path},
+     * implementations may keep a reference to the file to
+     * load parts of the model (i.e. textures) on demand
+     *
+     * @param path The path of the file containing the model data
+     * @return The parsed model
+     * @throws IOException If parsing fails
+     * @since 1.0.0
+     */
+    default Model read(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            return read(input);
+        }
+    }
+
+    /**
+     * Reads all the models from the given {@code paths}, parsing
+     * them in parallel using the given {@code executor}
+     *
+     * <p>Custom model data is assigned after all the models are
+     * parsed, sorted by model name and bone name, so the result
+     * does not depend on the order of the paths or the order in
+     * which parsing finishes</p>
+     *
+     * @param paths The paths of the model files
+     * @param executor The executor used to parse the models
+     * @param cursor The cursor used to assign custom model data
+     * @return The parsed models, sorted by name
+     * @throws IOException If read or parsing of any model fails
+     * @since 1.0.0
+     */
+    default List<Model> readAll(
+            Collection<Path> paths,
+            Executor executor,
+            ModelDataCursor cursor
+    ) throws IOException {
+        Objects.requireNonNull(paths, "paths");
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(cursor, "cursor");
+
+        List<Map.Entry<Path, CompletableFuture<Model>>> futures = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            futures.add(Map.entry(path, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read model at " + path, e);
+                }
+            }, executor)));
+        }
+
+        List<Map.Entry<Path, Model>> parsed = new ArrayList<>(futures.size());
+        for (Map.Entry<Path, CompletableFuture<Model>> future : futures) {
+            try {
+                parsed.add(Map.entry(future.getKey(), future.getValue().join()));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                throw e;
+            }
+        }
+
+        // the path is used to break ties between models with the same name
+        parsed.sort(Comparator.<Map.Entry<Path, Model>, String>comparing(entry -> entry.getValue().name())
+                .thenComparing(entry -> entry.getKey().toString()));
+
+        List<Model> models = new ArrayList<>(parsed.size());
+        for (Map.Entry<Path, Model> entry : parsed) {
+            models.add(ModelDataAssignment.assign(entry.getValue(), cursor));
+        }
+        return models;
+    }
+
+    /**
+     * Reads all the models from the given {@code paths}, parsing
+     * them in parallel using the given {@code executor}, custom
+     * model data is assigned starting from one
+     *
+     * @param paths The paths of the model files
+     * @param executor The executor used to parse the models
+     * @return The parsed models, sorted by name
+     * @throws IOException If read or parsing of any model fails
+     * @see #readAll(Collection, Executor, ModelDataCursor)
+     * @since 1.0.0
+     */
+    default List<Model> readAll(Collection<Path> paths, Executor executor) throws IOException {
+        return readAll(paths, executor, new ModelDataCursor(1));
+    }
+
+    /**
+     * Returns a string identifying this reader, its version and
+     * the settings it reads models with. Readers that may read the
+     * same data into different models must return different strings,
+     * it is part of the keys of the models cached by
+     * {@link ModelReader#cached}
+     *
+     * @return The reader identity
+     * @since 1.0.0
+     */
+    default String cacheKey() {
+        return getClass().getName();
+    }
+
+    /**
+     * Creates a new {@link ModelReader} that keeps a binary copy
+     * of every model read by the given {@code reader} in the given
+     * {@code directory}, keyed by the hash of the model data and
+     * the reader {@link ModelReader#cacheKey()}, so unchanged models
+     * are loaded from the cache (using memory mapped files) instead
+     * of being parsed again
+     *
+     * <p>Custom model data is assigned by the returned reader using
+     * the given {@code cursor}, sorted by bone name, the values
+     * assigned by the delegate {@code reader} are ignored</p>
+     *
+     * <p>Textures of the read models are not held in memory,
+     * they are copied from the cache directory when written</p>
+     *
+     * @param reader The delegate reader, used for models
+     *               that are not cached
+     * @param directory The cache directory, created if absent
+     * @param cursor The cursor used to assign custom model data
+     * @return The caching model reader
+     * @since 1.0.0
+     */
+    static ModelReader cached(ModelReader reader, Path directory, ModelDataCursor cursor) {
+        return new CachedModelReader(reader, directory, cursor);
+    }
+
+}
@@ -0,0 +1,450 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.reader;
+
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.base.Axis3D;
+import team.unnamed.creative.base.CubeFace;
+import team.unnamed.creative.base.Vector2Float;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.creative.base.Vector4Float;
+import team.unnamed.creative.base.Writable;
+import team.unnamed.creative.model.ElementFace;
+import team.unnamed.creative.model.ElementRotation;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.AnimationEvent;
+import team.unnamed.hephaestus.animation.EventTimeline;
+import team.unnamed.hephaestus.animation.RootMotion;
+import team.unnamed.hephaestus.animation.Timeline;
+import team.unnamed.hephaestus.animation.TimelineSerializer;
+import team.unnamed.hephaestus.partial.BoneAsset;
+import team.unnamed.hephaestus.partial.ElementAsset;
+import team.unnamed.hephaestus.partial.ModelAsset;
+
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary serialization of {@link Model} instances, used
+ * to cache already read models, see {@link ModelReader#cached}
+ *
+ * <p>Compressed animation timelines keep their compressed keys,
+ * every other timeline is written in its baked form (every tick
+ * is sampled), so it is read back as a baked timeline</p>
+ *
+ * <p>If the data is read from a file, textures are not loaded,
+ * they are copied from the file when written</p>
+ */
+final class ModelSerializer {
+
+    // "HEPH"
+    private static final int MAGIC = 0x48455048;
+
+    // must be incremented when the format changes,
+    // so that old cache entries are ignored
+    static final int VERSION = 3;
+
+    private static final Axis3D[] AXES = Axis3D.values();
+    private static final CubeFace[] FACES = CubeFace.values();
+    private static final Animation.LoopMode[] LOOP_MODES = Animation.LoopMode.values();
+    private static final AnimationEvent.Type[] EVENT_TYPES = AnimationEvent.Type.values();
+
+    private ModelSerializer() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Writes the given {@code model} to the given {@code output},
+     * including its resource pack data if it was not discarded
+     */
+    static void write(Model model, DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+
+        writeString(output, model.name());
+        output.writeFloat(model.boundingBox().x());
+        output.writeFloat(model.boundingBox().y());
+        writeBones(output, model.bones());
+
+        ModelAsset asset = model.asset();
+        output.writeBoolean(asset != null);
+        if (asset != null) {
+            writeAsset(output, asset);
+        }
+
+        Collection<Animation> animations = model.animations().values();
+        output.writeInt(animations.size());
+        for (Animation animation : animations) {
+            writeAnimation(output, animation);
+        }
+    }
+
+    private static void writeBones(DataOutput output, Collection<Bone> bones) throws IOException {
+        output.writeInt(bones.size());
+        for (Bone bone : bones) {
+            writeString(output, bone.name());
+            writeVector(output, bone.position());
+            writeVector(output, bone.rotation());
+            output.writeBoolean(bone.small());
+            output.writeInt(bone.customModelData());
+            writeBones(output, bone.children());
+        }
+    }
+
+    private static void writeAsset(DataOutput output, ModelAsset asset) throws IOException {
+        writeString(output, asset.name());
+
+        Map<String, Writable> textures = asset.textures();
+        output.writeInt(textures.size());
+        for (Map.Entry<String, Writable> texture : textures.entrySet()) {
+            writeString(output, texture.getKey());
+            byte[] data = texture.getValue().toByteArray();
+            output.writeInt(data.length);
+            output.write(data);
+        }
+
+        Map<Integer, String> textureMapping = asset.textureMapping();
+        output.writeInt(textureMapping.size());
+        for (Map.Entry<Integer, String> mapping : textureMapping.entrySet()) {
+            output.writeInt(mapping.getKey());
+            writeString(output, mapping.getValue());
+        }
+
+        writeBoneAssets(output, asset.bones());
+    }
+
+    private static void writeBoneAssets(DataOutput output, Collection<BoneAsset> bones) throws IOException {
+        output.writeInt(bones.size());
+        for (BoneAsset bone : bones) {
+            writeString(output, bone.name());
+            writeVector(output, bone.pivot());
+            output.writeInt(bone.customModelData());
+            writeVector(output, bone.offset());
+            output.writeBoolean(bone.small());
+
+            List<ElementAsset> cubes = bone.cubes();
+            output.writeInt(cubes.size());
+            for (ElementAsset cube : cubes) {
+                writeElement(output, cube);
+            }
+
+            writeBoneAssets(output, bone.children());
+        }
+    }
+
+    private static void writeElement(DataOutput output, ElementAsset element) throws IOException {
+        writeVector(output, element.from());
+        writeVector(output, element.to());
+
+        ElementRotation rotation = element.rotation();
+        output.writeBoolean(rotation != null);
+        if (rotation != null) {
+            writeVector(output, rotation.origin());
+            output.writeByte(rotation.axis().ordinal());
+            output.writeFloat(rotation.angle());
+            output.writeBoolean(rotation.rescale());
+        }
+
+        Map<CubeFace, ElementFace> faces = element.faces();
+        output.writeInt(faces.size());
+        for (Map.Entry<CubeFace, ElementFace> entry : faces.entrySet()) {
+            ElementFace face = entry.getValue();
+            Vector4Float uv = face.uv();
+            output.writeByte(entry.getKey().ordinal());
+            output.writeFloat(uv.x());
+            output.writeFloat(uv.y());
+            output.writeFloat(uv.x2());
+            output.writeFloat(uv.y2());
+            output.writeInt(face.rotation());
+            writeString(output, face.texture());
+            output.writeInt(face.tintIndex());
+        }
+    }
+
+    private static void writeAnimation(DataOutput output, Animation animation) throws IOException {
+        writeString(output, animation.name());
+        output.writeInt(animation.length());
+        output.writeByte(animation.loopMode().ordinal());
+
+        Map<String, Timeline> timelines = animation.timelines();
+        output.writeInt(timelines.size());
+        for (Map.Entry<String, Timeline> entry : timelines.entrySet()) {
+            writeString(output, entry.getKey());
+            TimelineSerializer.write(output, entry.getValue());
+        }
+
+        List<AnimationEvent> events = animation.events().events();
+        output.writeInt(events.size());
+        for (AnimationEvent event : events) {
+            output.writeInt(event.tick());
+            output.writeByte(event.type().ordinal());
+            writeString(output, event.value());
+        }
+
+        RootMotion rootMotion = animation.rootMotion();
+        output.writeBoolean(rootMotion != null);
+        if (rootMotion != null) {
+            writeString(output, rootMotion.boneName());
+            int frameCount = rootMotion.frameCount();
+            float[] position = new float[3];
+            output.writeInt(frameCount);
+            for (int tick = 0; tick < frameCount; tick++) {
+                rootMotion.position(tick, position, 0);
+                writeFloats(output, position);
+            }
+        }
+    }
+
+    private static void writeVector(DataOutput output, Vector3Float vector) throws IOException {
+        output.writeFloat(vector.x());
+        output.writeFloat(vector.y());
+        output.writeFloat(vector.z());
+    }
+
+    private static void writeFloats(DataOutput output, float[] values) throws IOException {
+        for (float value : values) {
+            output.writeFloat(value);
+        }
+    }
+
+    private static void writeString(DataOutput output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a model from the given {@code buffer}, that must
+     * contain data written by {@link #write}, if the buffer maps
+     * the given {@code file}, textures are copied from the file
+     * on demand instead of being loaded
+     *
+     * @throws IOException If the data is malformed or was
+     * written by another format version
+     */
+    static Model read(ByteBuffer buffer, @Nullable Path file) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a serialized model");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported serialized model version: " + version);
+            }
+
+            String name = readString(buffer);
+            Vector2Float boundingBox = new Vector2Float(buffer.getFloat(), buffer.getFloat());
+            Map<String, Bone> bones = readBones(buffer);
+            ModelAsset asset = buffer.get() != 0 ? readAsset(buffer, file) : null;
+
+            int animationCount = buffer.getInt();
+            Map<String, Animation> animations = new LinkedHashMap<>();
+            for (int i = 0; i < animationCount; i++) {
+                // bone rotations are not written, precompute them again
+                Animation animation = readAnimation(buffer).withBoneRotations(bones.values());
+                animations.put(animation.name(), animation);
+            }
+
+            return new Model(name, bones, boundingBox, asset, animations);
+        } catch (BufferUnderflowException | IllegalArgumentException
+                | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Malformed serialized model", e);
+        }
+    }
+
+    private static Map<String, Bone> readBones(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        Map<String, Bone> bones = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            Vector3Float position = readVector(buffer);
+            Vector3Float rotation = readVector(buffer);
+            boolean small = buffer.get() != 0;
+            int customModelData = buffer.getInt();
+            Map<String, Bone> children = readBones(buffer);
+            bones.put(name, new Bone(name, position, rotation, children, small, customModelData));
+        }
+        return bones;
+    }
+
+    private static ModelAsset readAsset(ByteBuffer buffer, @Nullable Path file) {
+        String name = readString(buffer);
+
+        int textureCount = buffer.getInt();
+        Map<String, Writable> textures = new LinkedHashMap<>();
+        for (int i = 0; i < textureCount; i++) {
+            String textureName = readString(buffer);
+            int length = buffer.getInt();
+            if (file == null) {
+                byte[] data = new byte[length];
+                buffer.get(data);
+                textures.put(textureName, Writable.bytes(data));
+            } else {
+                textures.put(textureName, region(file, buffer.position(), length));
+                buffer.position(buffer.position() + length);
+            }
+        }
+
+        int mappingCount = buffer.getInt();
+        Map<Integer, String> textureMapping = new LinkedHashMap<>();
+        for (int i = 0; i < mappingCount; i++) {
+            textureMapping.put(buffer.getInt(), readString(buffer));
+        }
+
+        return new ModelAsset(name, textures, textureMapping, readBoneAssets(buffer));
+    }
+
+    private static Writable region(Path file, long offset, int length) {
+        return output -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // the target channel is not closed, it would close the output
+                WritableByteChannel target = Channels.newChannel(output);
+                long position = offset;
+                long remaining = length;
+                while (remaining > 0) {
+                    long transferred = channel.transferTo(position, remaining, target);
+                    if (transferred <= 0) {
+                        throw new EOFException("Truncated texture data in " + file);
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            }
+        };
+    }
+
+    private static Map<String, BoneAsset> readBoneAssets(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        Map<String, BoneAsset> bones = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            Vector3Float pivot = readVector(buffer);
+            int customModelData = buffer.getInt();
+            Vector3Float offset = readVector(buffer);
+            boolean small = buffer.get() != 0;
+
+            int cubeCount = buffer.getInt();
+            List<ElementAsset> cubes = new ArrayList<>(cubeCount);
+            for (int j = 0; j < cubeCount; j++) {
+                cubes.add(readElement(buffer));
+            }
+
+            Map<String, BoneAsset> children = readBoneAssets(buffer);
+            bones.put(name, new BoneAsset(name, pivot, customModelData, offset, cubes, small, children));
+        }
+        return bones;
+    }
+
+    private static ElementAsset readElement(ByteBuffer buffer) {
+        Vector3Float from = readVector(buffer);
+        Vector3Float to = readVector(buffer);
+
+        ElementRotation rotation = null;
+        if (buffer.get() != 0) {
+            Vector3Float origin = readVector(buffer);
+            Axis3D axis = AXES[buffer.get()];
+            float angle = buffer.getFloat();
+            boolean rescale = buffer.get() != 0;
+            rotation = ElementRotation.of(origin, axis, angle, rescale);
+        }
+
+        int faceCount = buffer.getInt();
+        Map<CubeFace, ElementFace> faces = new EnumMap<>(CubeFace.class);
+        for (int i = 0; i < faceCount; i++) {
+            CubeFace face = FACES[buffer.get()];
+            Vector4Float uv = new Vector4Float(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+            faces.put(face, ElementFace.builder()
+                    .uv(uv)
+                    .rotation(buffer.getInt())
+                    .texture(readString(buffer))
+                    .tintIndex(buffer.getInt())
+                    .build());
+        }
+
+        return new ElementAsset(from, to, rotation, faces);
+    }
+
+    private static Animation readAnimation(ByteBuffer buffer) {
+        String name = readString(buffer);
+        int length = buffer.getInt();
+        Animation.LoopMode loopMode = LOOP_MODES[buffer.get()];
+
+        int timelineCount = buffer.getInt();
+        Map<String, Timeline> timelines = new LinkedHashMap<>();
+        for (int i = 0; i < timelineCount; i++) {
+            timelines.put(readString(buffer), TimelineSerializer.read(buffer));
+        }
+
+        int eventCount = buffer.getInt();
+        List<AnimationEvent> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            int tick = buffer.getInt();
+            AnimationEvent.Type type = EVENT_TYPES[buffer.get()];
+            events.add(AnimationEvent.of(tick, type, readString(buffer)));
+        }
+
+        RootMotion rootMotion = null;
+        if (buffer.get() != 0) {
+            String boneName = readString(buffer);
+            rootMotion = RootMotion.of(boneName, readFloats(buffer, buffer.getInt() * 3));
+        }
+
+        return new Animation(name, length, loopMode, timelines, EventTimeline.of(events), rootMotion);
+    }
+
+    private static Vector3Float readVector(ByteBuffer buffer) {
+        return new Vector3Float(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    private static float[] readFloats(ByteBuffer buffer, int length) {
+        float[] values = new float[length];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + length * Float.BYTES);
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
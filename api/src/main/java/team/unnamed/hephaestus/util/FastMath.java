@@ -0,0 +1,195 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.util;
+
+/**
+ * Utility class for the trigonometric and square root functions
+ * used by the engine math, they delegate to {@link Math} unless
+ * the fast-math mode is enabled
+ *
+ * <p>In fast-math mode, sine and cosine are computed from a lookup
+ * table and a short series for the remainder angle, with an absolute
+ * error lower than {@link FastMath#TRIGONOMETRY_ERROR}, and the inverse
+ * square root is computed from an initial bit-level approximation and
+ * Newton iterations, with a relative error lower than
+ * {@link FastMath#INVERSE_SQRT_ERROR}</p>
+ *
+ * <p>The static functions use the default mode, enabled by setting
+ * the {@code hephaestus.fast-math} system property to {@code true}, it
+ * is read once, when this class is loaded. Animation controllers can
+ * select their own mode, see {@link MathMode}</p>
+ *
+ * @since 1.0.0
+ */
+public final class FastMath {
+
+    /**
+     * The maximum absolute error of {@link FastMath#fastSin}
+     * and {@link FastMath#fastCos}
+     *
+     * @since 1.0.0
+     */
+    public static final double TRIGONOMETRY_ERROR = 1E-9D;
+
+    /**
+     * The maximum relative error of {@link FastMath#fastInverseSqrt}
+     *
+     * @since 1.0.0
+     */
+    public static final double INVERSE_SQRT_ERROR = 1E-9D;
+
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+    private static final int QUARTER = TABLE_SIZE / 4;
+    private static final double INDEX_PER_RADIAN = TABLE_SIZE / (2 * Math.PI);
+    private static final double RADIAN_PER_INDEX = (2 * Math.PI) / TABLE_SIZE;
+
+    // the sine of every table index, cosines are read
+    // a quarter of the table later
+    private static final double[] SIN = new double[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            SIN[i] = Math.sin(i * RADIAN_PER_INDEX);
+        }
+    }
+
+    static final MathMode DEFAULT_MODE = Boolean.getBoolean("hephaestus.fast-math")
+            ? MathMode.FAST
+            : MathMode.PRECISE;
+
+    private static final boolean FAST = DEFAULT_MODE == MathMode.FAST;
+
+    private FastMath() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Determines whether the fast-math mode is the default mode
+     *
+     * @return True if enabled
+     * @since 1.0.0
+     */
+    public static boolean fast() {
+        return FAST;
+    }
+
+    /**
+     * Computes the sine of the given {@code angle}, in radians
+     *
+     * @param angle The angle, in radians
+     * @return The angle sine
+     * @since 1.0.0
+     */
+    public static double sin(double angle) {
+        return FAST ? fastSin(angle) : Math.sin(angle);
+    }
+
+    /**
+     * Computes the cosine of the given {@code angle}, in radians
+     *
+     * @param angle The angle, in radians
+     * @return The angle cosine
+     * @since 1.0.0
+     */
+    public static double cos(double angle) {
+        return FAST ? fastCos(angle) : Math.cos(angle);
+    }
+
+    /**
+     * Computes the inverse square root of the given
+     * {@code value}, i.e. {@code 1 / sqrt(value)}
+     *
+     * @param value The value, must be positive
+     * @return The value inverse square root
+     * @since 1.0.0
+     */
+    public static double inverseSqrt(double value) {
+        return FAST ? fastInverseSqrt(value) : 1.0D / Math.sqrt(value);
+    }
+
+    /**
+     * Computes the sine of the given {@code angle}, in radians,
+     * using the lookup table, regardless of the mode
+     *
+     * @param angle The angle, in radians
+     * @return The angle sine
+     * @since 1.0.0
+     */
+    public static double fastSin(double angle) {
+        double index = angle * INDEX_PER_RADIAN;
+        double floor = Math.floor(index);
+        int i = (int) ((long) floor & TABLE_MASK);
+
+        // sin(a + b) = sin(a) cos(b) + cos(a) sin(b), where a is
+        // the table angle and b the (small) remainder angle
+        double b = (index - floor) * RADIAN_PER_INDEX;
+        double b2 = b * b;
+        double sinB = b * (1.0D - b2 * (1.0D / 6.0D));
+        double cosB = 1.0D - b2 * (0.5D - b2 * (1.0D / 24.0D));
+        return SIN[i] * cosB + SIN[(i + QUARTER) & TABLE_MASK] * sinB;
+    }
+
+    /**
+     * Computes the cosine of the given {@code angle}, in radians,
+     * using the lookup table, regardless of the mode
+     *
+     * @param angle The angle, in radians
+     * @return The angle cosine
+     * @since 1.0.0
+     */
+    public static double fastCos(double angle) {
+        double index = angle * INDEX_PER_RADIAN;
+        double floor = Math.floor(index);
+        int i = (int) ((long) floor & TABLE_MASK);
+
+        // cos(a + b) = cos(a) cos(b) - sin(a) sin(b)
+        double b = (index - floor) * RADIAN_PER_INDEX;
+        double b2 = b * b;
+        double sinB = b * (1.0D - b2 * (1.0D / 6.0D));
+        double cosB = 1.0D - b2 * (0.5D - b2 * (1.0D / 24.0D));
+        return SIN[(i + QUARTER) & TABLE_MASK] * cosB - SIN[i] * sinB;
+    }
+
+    /**
+     * Computes the inverse square root of the given {@code value},
+     * using a bit-level approximation refined by Newton iterations,
+     * regardless of the mode
+     *
+     * @param value The value, must be positive
+     * @return The value inverse square root
+     * @since 1.0.0
+     */
+    public static double fastInverseSqrt(double value) {
+        double half = 0.5D * value;
+        double y = Double.longBitsToDouble(0x5FE6EB50C7B537A9L - (Double.doubleToRawLongBits(value) >> 1));
+        // every iteration roughly squares the relative error
+        y *= 1.5D - half * y * y;
+        y *= 1.5D - half * y * y;
+        y *= 1.5D - half * y * y;
+        return y;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.util;
+
+/**
+ * The precision mode of the trigonometric and square root
+ * functions used by the engine math
+ *
+ * @see FastMath
+ * @since 1.0.0
+ */
+public enum MathMode {
+
+    /**
+     * Delegates to {@link Math}
+     *
+     * @since 1.0.0
+     */
+    PRECISE {
+        @Override
+        public double sin(double angle) {
+            return Math.sin(angle);
+        }
+
+        @Override
+        public double cos(double angle) {
+            return Math.cos(angle);
+        }
+
+        @Override
+        public double inverseSqrt(double value) {
+            return 1.0D / Math.sqrt(value);
+        }
+    },
+
+    /**
+     * Uses the lookup table and the bit-level approximation
+     * of {@link FastMath}, within {@link FastMath#TRIGONOMETRY_ERROR}
+     * and {@link FastMath#INVERSE_SQRT_ERROR}
+     *
+     * @since 1.0.0
+     */
+    FAST {
+        @Override
+        public double sin(double angle) {
+            return FastMath.fastSin(angle);
+        }
+
+        @Override
+        public double cos(double angle) {
+            return FastMath.fastCos(angle);
+        }
+
+        @Override
+        public double inverseSqrt(double value) {
+            return FastMath.fastInverseSqrt(value);
+        }
+    };
+
+    /**
+     * Computes the sine of the given {@code angle}, in radians
+     *
+     * @param angle The angle, in radians
+     * @return The angle sine
+     * @since 1.0.0
+     */
+    public abstract double sin(double angle);
+
+    /**
+     * Computes the cosine of the given {@code angle}, in radians
+     *
+     * @param angle The angle, in radians
+     * @return The angle cosine
+     * @since 1.0.0
+     */
+    public abstract double cos(double angle);
+
+    /**
+     * Computes the inverse square root of the given
+     * {@code value}, i.e. {@code 1 / sqrt(value)}
+     *
+     * @param value The value, must be positive
+     * @return The value inverse square root
+     * @since 1.0.0
+     */
+    public abstract double inverseSqrt(double value);
+
+    /**
+     * Returns the default mode, {@link MathMode#FAST} if the
+     * {@code hephaestus.fast-math} system property is {@code true},
+     * {@link MathMode#PRECISE} otherwise. It is used by the static
+     * utilities and by the animation controllers that do not set
+     * their own mode
+     *
+     * @return The default mode
+     * @since 1.0.0
+     */
+    public static MathMode defaultMode() {
+        return FastMath.DEFAULT_MODE;
+    }
+
+}
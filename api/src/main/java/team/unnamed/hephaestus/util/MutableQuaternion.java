@@ -0,0 +1,291 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.util;
+
+/**
+ * Mutable quaternion, counterpart of {@link Quaternion}, operations
+ * modify this quaternion in-place and return it, so that they can
+ * be chained without allocating
+ *
+ * <p>Intended for hot paths (i.e. once per bone per tick), where
+ * a single instance can be reused, public API methods should
+ * still use the immutable {@link Quaternion}</p>
+ *
+ * <p>This class is not thread-safe</p>
+ *
+ * @since 1.0.0
+ */
+public final class MutableQuaternion {
+
+    private double x;
+    private double y;
+    private double z;
+    private double w;
+
+    public MutableQuaternion(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    /**
+     * Creates a new identity quaternion
+     *
+     * @since 1.0.0
+     */
+    public MutableQuaternion() {
+        this(0, 0, 0, 1);
+    }
+
+    public double x() {
+        return x;
+    }
+
+    public double y() {
+        return y;
+    }
+
+    public double z() {
+        return z;
+    }
+
+    public double w() {
+        return w;
+    }
+
+    /**
+     * Sets the components of this quaternion
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion set(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    /**
+     * Sets the components of this quaternion to the
+     * components of the given {@code quaternion}
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion set(Quaternion quaternion) {
+        return set(quaternion.x(), quaternion.y(), quaternion.z(), quaternion.w());
+    }
+
+    /**
+     * Sets the components of this quaternion to the
+     * components of the given {@code quaternion}
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion set(MutableQuaternion quaternion) {
+        return set(quaternion.x, quaternion.y, quaternion.z, quaternion.w);
+    }
+
+    /**
+     * Sets this quaternion to the identity quaternion
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion identity() {
+        return set(0, 0, 0, 1);
+    }
+
+    /**
+     * Sets this quaternion to the rotation represented by the
+     * given euler angle (rotation in X, Y, Z), in degrees
+     *
+     * @return This quaternion
+     * @see Quaternion#fromEulerDegrees
+     * @since 1.0.0
+     */
+    public MutableQuaternion setEulerDegrees(float x, float y, float z) {
+        double halfX = Math.toRadians(x) * 0.5D;
+        double halfY = Math.toRadians(y) * 0.5D;
+        double halfZ = Math.toRadians(z) * 0.5D;
+        double cosX = FastMath.cos(halfX);
+        double cosY = FastMath.cos(halfY);
+        double cosZ = FastMath.cos(halfZ);
+        double sinX = FastMath.sin(halfX);
+        double sinY = FastMath.sin(halfY);
+        double sinZ = FastMath.sin(halfZ);
+        double sinXCosY = sinX * cosY;
+        double cosXSinY = cosX * sinY;
+        double cosXCosY = cosX * cosY;
+        double sinXSinY = sinX * sinY;
+        return set(
+                sinXCosY * cosZ - cosXSinY * sinZ,
+                cosXSinY * cosZ + sinXCosY * sinZ,
+                cosXCosY * sinZ - sinXSinY * cosZ,
+                cosXCosY * cosZ + sinXSinY * sinZ
+        );
+    }
+
+    /**
+     * Multiplies this quaternion by the quaternion with the
+     * given components, i.e. {@code this = this * (x, y, z, w)}
+     *
+     * @return This quaternion
+     * @see Quaternion#multiply(Quaternion)
+     * @since 1.0.0
+     */
+    public MutableQuaternion mul(double x, double y, double z, double w) {
+        return set(
+                this.x * w + this.w * x + this.y * z - this.z * y,
+                this.y * w + this.w * y + this.z * x - this.x * z,
+                this.z * w + this.w * z + this.x * y - this.y * x,
+                this.w * w - this.x * x - this.y * y - this.z * z
+        );
+    }
+
+    /**
+     * Multiplies this quaternion by the given {@code other}
+     * quaternion, i.e. {@code this = this * other}
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion mul(MutableQuaternion other) {
+        return mul(other.x, other.y, other.z, other.w);
+    }
+
+    /**
+     * Multiplies this quaternion by the given {@code other}
+     * quaternion, i.e. {@code this = this * other}
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion mul(Quaternion other) {
+        return mul(other.x(), other.y(), other.z(), other.w());
+    }
+
+    /**
+     * Multiplies all the components of this quaternion
+     * by the given {@code scalar}
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion mul(double scalar) {
+        return set(x * scalar, y * scalar, z * scalar, w * scalar);
+    }
+
+    /**
+     * Normalizes this quaternion, so that it is
+     * a unit quaternion
+     *
+     * @return This quaternion
+     * @since 1.0.0
+     */
+    public MutableQuaternion normalize() {
+        double lengthSquared = x * x + y * y + z * z + w * w;
+        return lengthSquared == 0 ? this : mul(FastMath.inverseSqrt(lengthSquared));
+    }
+
+    /**
+     * Spherically interpolates this quaternion towards the given
+     * {@code target} quaternion, following the shortest path
+     *
+     * @param target The target quaternion
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @return This quaternion
+     * @see Quaternion#slerp
+     * @since 1.0.0
+     */
+    public MutableQuaternion slerp(MutableQuaternion target, double ratio) {
+        double tx = target.x;
+        double ty = target.y;
+        double tz = target.z;
+        double tw = target.w;
+        double cos = x * tx + y * ty + z * tz + w * tw;
+        if (cos < 0) {
+            cos = -cos;
+            tx = -tx;
+            ty = -ty;
+            tz = -tz;
+            tw = -tw;
+        }
+
+        double from;
+        double to;
+        if (cos > Quaternion.SLERP_THRESHOLD) {
+            from = 1.0D - ratio;
+            to = ratio;
+        } else {
+            double angle = Math.acos(cos);
+            double sin = Math.sin(angle);
+            from = Math.sin((1.0D - ratio) * angle) / sin;
+            to = Math.sin(ratio * angle) / sin;
+        }
+        return set(
+                x * from + tx * to,
+                y * from + ty * to,
+                z * from + tz * to,
+                w * from + tw * to
+        );
+    }
+
+    /**
+     * Writes the components of this quaternion, cast to
+     * {@code float}, to the given array, in order
+     *
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @return The destination array
+     * @since 1.0.0
+     */
+    public float[] toFloatArray(float[] dest, int offset) {
+        dest[offset] = (float) x;
+        dest[offset + 1] = (float) y;
+        dest[offset + 2] = (float) z;
+        dest[offset + 3] = (float) w;
+        return dest;
+    }
+
+    /**
+     * Creates an immutable copy of this quaternion
+     *
+     * @return The immutable quaternion
+     * @since 1.0.0
+     */
+    public Quaternion toImmutable() {
+        return new Quaternion(x, y, z, w);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableQuaternion (" + x + ", " + y + ", " + z + ", " + w + ')';
+    }
+
+}
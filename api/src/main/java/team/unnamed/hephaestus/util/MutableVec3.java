@@ -0,0 +1,221 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.util;
+
+import team.unnamed.creative.base.Vector3Float;
+
+/**
+ * Mutable three-dimensional {@code float} vector, counterpart of
+ * {@link Vector3Float}, operations modify this vector in-place
+ * and return it, so that they can be chained without allocating
+ *
+ * <p>Intended for hot paths (i.e. once per bone per tick), where
+ * a single instance can be reused, public API methods should
+ * still use the immutable {@link Vector3Float}</p>
+ *
+ * <p>This class is not thread-safe</p>
+ *
+ * @since 1.0.0
+ */
+public final class MutableVec3 {
+
+    private float x;
+    private float y;
+    private float z;
+
+    public MutableVec3(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public MutableVec3() {
+        this(0F, 0F, 0F);
+    }
+
+    public float x() {
+        return x;
+    }
+
+    public float y() {
+        return y;
+    }
+
+    public float z() {
+        return z;
+    }
+
+    /**
+     * Sets the components of this vector
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 set(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the components of this vector to the
+     * components of the given {@code vector}
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 set(Vector3Float vector) {
+        return set(vector.x(), vector.y(), vector.z());
+    }
+
+    /**
+     * Sets the components of this vector to the
+     * components of the given {@code vector}
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 set(MutableVec3 vector) {
+        return set(vector.x, vector.y, vector.z);
+    }
+
+    /**
+     * Adds the given components to this vector
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 add(float x, float y, float z) {
+        this.x += x;
+        this.y += y;
+        this.z += z;
+        return this;
+    }
+
+    /**
+     * Adds the given {@code vector} to this vector
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 add(MutableVec3 vector) {
+        return add(vector.x, vector.y, vector.z);
+    }
+
+    /**
+     * Adds the given {@code vector} to this vector
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 add(Vector3Float vector) {
+        return add(vector.x(), vector.y(), vector.z());
+    }
+
+    /**
+     * Multiplies this vector components by the
+     * given factors
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 mul(float x, float y, float z) {
+        this.x *= x;
+        this.y *= y;
+        this.z *= z;
+        return this;
+    }
+
+    /**
+     * Multiplies all the components of this vector
+     * by the given {@code scalar}
+     *
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 mul(float scalar) {
+        return mul(scalar, scalar, scalar);
+    }
+
+    /**
+     * Linearly interpolates this vector towards the given
+     * {@code target} vector
+     *
+     * @param target The target vector
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @return This vector
+     * @since 1.0.0
+     */
+    public MutableVec3 lerp(MutableVec3 target, float ratio) {
+        return set(
+                x + (target.x - x) * ratio,
+                y + (target.y - y) * ratio,
+                z + (target.z - z) * ratio
+        );
+    }
+
+    /**
+     * Rotates this vector by the given unit {@code rotation}
+     *
+     * @param rotation The rotation quaternion
+     * @return This vector
+     * @see Quaternion#transform
+     * @since 1.0.0
+     */
+    public MutableVec3 rotate(MutableQuaternion rotation) {
+        double qx = rotation.x();
+        double qy = rotation.y();
+        double qz = rotation.z();
+        double qw = rotation.w();
+
+        // t = 2 * cross(q.xyz, v)
+        double tx = 2.0D * (qy * z - qz * y);
+        double ty = 2.0D * (qz * x - qx * z);
+        double tz = 2.0D * (qx * y - qy * x);
+
+        // v' = v + w * t + cross(q.xyz, t)
+        return set(
+                (float) (x + qw * tx + (qy * tz - qz * ty)),
+                (float) (y + qw * ty + (qz * tx - qx * tz)),
+                (float) (z + qw * tz + (qx * ty - qy * tx))
+        );
+    }
+
+    /**
+     * Creates an immutable copy of this vector
+     *
+     * @return The immutable vector
+     * @since 1.0.0
+     */
+    public Vector3Float toImmutable() {
+        return new Vector3Float(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableVec3 (" + x + ", " + y + ", " + z + ')';
+    }
+
+}
@@ -52,6 +52,12 @@ public final class Quaternion implements Examinable {
      */
     public static final Quaternion IDENTITY = new Quaternion(0, 0, 0, 1);
 
+    // cosine of the angle between two quaternions from which
+    // they are interpolated linearly when using slerp
+    static final double SLERP_THRESHOLD = 0.9995D;
+
+    private static final float RADIAN = 57.29577951308232F;
+
     private final double x;
     private final double y;
     private final double z;
@@ -212,6 +218,117 @@ public final class Quaternion implements Examinable {
         );
     }
 
+    /**
+     * Multiplies this quaternion rotations with the given
+     * {@code other} quaternion rotations and writes the result
+     * to {@code dest}, without allocating a new quaternion
+     *
+     * @param other The other quaternion
+     * @param dest The destination quaternion
+     * @return The destination quaternion
+     * @see Quaternion#multiply(Quaternion)
+     * @since 1.0.0
+     */
+    public MutableQuaternion multiply(Quaternion other, MutableQuaternion dest) {
+        return dest.set(this).mul(other);
+    }
+
+    /**
+     * Rotates the given {@code vector} by {@code this} quaternion,
+     * equivalent to rotating it by the Euler Angle representation
+     * of this quaternion, but without converting it
+     *
+     * <p>This quaternion must be a unit quaternion</p>
+     *
+     * @param vector The vector to rotate
+     * @return The rotated vector
+     * @see Vectors#rotateDegrees
+     * @since 1.0.0
+     */
+    public Vector3Float transform(Vector3Float vector) {
+        return transform(vector, new MutableVec3()).toImmutable();
+    }
+
+    /**
+     * Rotates the given {@code vector} by {@code this} quaternion
+     * and writes the result to {@code dest}
+     *
+     * <p>This quaternion must be a unit quaternion</p>
+     *
+     * @param vector The vector to rotate
+     * @param dest The destination vector
+     * @return The destination vector
+     * @see Quaternion#transform(Vector3Float)
+     * @since 1.0.0
+     */
+    public MutableVec3 transform(Vector3Float vector, MutableVec3 dest) {
+        double vx = vector.x();
+        double vy = vector.y();
+        double vz = vector.z();
+
+        // t = 2 * cross(q.xyz, v)
+        double tx = 2.0D * (y * vz - z * vy);
+        double ty = 2.0D * (z * vx - x * vz);
+        double tz = 2.0D * (x * vy - y * vx);
+
+        // v' = v + w * t + cross(q.xyz, t)
+        return dest.set(
+                (float) (vx + w * tx + (y * tz - z * ty)),
+                (float) (vy + w * ty + (z * tx - x * tz)),
+                (float) (vz + w * tz + (x * ty - y * tx))
+        );
+    }
+
+    /**
+     * Spherically interpolates {@code this} quaternion towards the
+     * given {@code other} quaternion, following the shortest path
+     *
+     * <p>Both quaternions must be unit quaternions</p>
+     *
+     * @param other The target quaternion
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @return The interpolated quaternion
+     * @since 1.0.0
+     */
+    public Quaternion slerp(Quaternion other, double ratio) {
+        double ox = other.x;
+        double oy = other.y;
+        double oz = other.z;
+        double ow = other.w;
+        double cos = x * ox + y * oy + z * oz + w * ow;
+
+        if (cos < 0) {
+            // q and -q represent the same rotation, use the
+            // one that is closer to take the shortest path
+            cos = -cos;
+            ox = -ox;
+            oy = -oy;
+            oz = -oz;
+            ow = -ow;
+        }
+
+        double from;
+        double to;
+        if (cos > SLERP_THRESHOLD) {
+            // almost the same rotation, sin(angle) tends to zero,
+            // linear interpolation is precise enough here
+            from = 1.0D - ratio;
+            to = ratio;
+        } else {
+            double angle = Math.acos(cos);
+            double sin = Math.sin(angle);
+            from = Math.sin((1.0D - ratio) * angle) / sin;
+            to = Math.sin(ratio * angle) / sin;
+        }
+
+        return new Quaternion(
+                x * from + ox * to,
+                y * from + oy * to,
+                z * from + oz * to,
+                w * from + ow * to
+        );
+    }
+
     /**
      * Converts {@code this} quaternion to an Euler Angle representation
      * in radians.
@@ -220,6 +337,18 @@ public final class Quaternion implements Examinable {
      * @since 1.0.0
      */
     public Vector3Float toEulerRadians() {
+        return toEulerRadians(new MutableVec3()).toImmutable();
+    }
+
+    /**
+     * Converts {@code this} quaternion to an Euler Angle representation
+     * in radians and writes it to {@code dest}
+     *
+     * @param dest The destination vector
+     * @return The destination vector
+     * @since 1.0.0
+     */
+    public MutableVec3 toEulerRadians(MutableVec3 dest) {
         // originally saw this on WorldSeedEntityEngine's Quaternion implementation
         // https://github.com/AtlasEngineCa/WorldSeedEntityEngine/blob/master/src/main/java/net/worldseed/multipart/Quaternion.java#L53
         // originally from http://marc-b-reynolds.github.io/math/2017/04/18/TaitEuler.html written in C, also originally
@@ -234,8 +363,7 @@ public final class Quaternion implements Examinable {
         double yz = 2.0 * (y * z + w * x); // z of y'
 
         double vz = (float) Math.atan2(xy, xx);           // yaw (psi)
-        // todo(yusshu): how about using fast inverse square root?
-        double vy = (float) Math.atan(xz / Math.sqrt(t)); // pitch (theta)
+        double vy = (float) Math.atan(xz * FastMath.inverseSqrt(t)); // pitch (theta)
         double vx;
 
         if (t != 0) {
@@ -244,7 +372,7 @@ public final class Quaternion implements Examinable {
             vx = (float) (2.0 * Math.atan2(x, w) - Math.signum(xz) * vz);
         }
 
-        return new Vector3Float((float) vx, (float) vy, (float) vz);
+        return dest.set((float) vx, (float) vy, (float) vz);
     }
 
     /**
@@ -258,6 +386,18 @@ public final class Quaternion implements Examinable {
         return Vectors.toDegrees(toEulerRadians());
     }
 
+    /**
+     * Converts {@code this} quaternion to an Euler Angle representation
+     * in degrees and writes it to {@code dest}
+     *
+     * @param dest The destination vector
+     * @return The destination vector
+     * @since 1.0.0
+     */
+    public MutableVec3 toEulerDegrees(MutableVec3 dest) {
+        return toEulerRadians(dest).mul(RADIAN);
+    }
+
     /**
      * Creates a new {@link Quaternion} instance equivalent to the
      * given euler angle (rotation in X, Y, Z), which should be
@@ -274,14 +414,14 @@ public final class Quaternion implements Examinable {
         double halfZ = euler.z() * 0.5D;
 
         // compute cos
-        double cosX = Math.cos(halfX);
-        double cosY = Math.cos(halfY);
-        double cosZ = Math.cos(halfZ);
+        double cosX = FastMath.cos(halfX);
+        double cosY = FastMath.cos(halfY);
+        double cosZ = FastMath.cos(halfZ);
 
         // compute sin
-        double sinX = Math.sin(halfX);
-        double sinY = Math.sin(halfY);
-        double sinZ = Math.sin(halfZ);
+        double sinX = FastMath.sin(halfX);
+        double sinY = FastMath.sin(halfY);
+        double sinZ = FastMath.sin(halfZ);
 
         // common products
         double sinXCosY = sinX * cosY;
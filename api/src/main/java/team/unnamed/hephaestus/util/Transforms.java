@@ -0,0 +1,429 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.util;
+
+/**
+ * Utility class for computing bone transforms over flat
+ * arrays, holding three components per bone for positions
+ * (x, y, z) and four components per bone for rotations,
+ * as quaternions (x, y, z, w)
+ *
+ * <p>Methods in this class do not allocate, so they can be
+ * used in hot paths, e.g. once per bone per tick</p>
+ *
+ * @since 1.0.0
+ */
+public final class Transforms {
+
+    /**
+     * Parent index used by root bones
+     *
+     * @since 1.0.0
+     */
+    public static final int NO_PARENT = -1;
+
+    private static final float DEGREE = 0.017453292519943295F;
+
+    private Transforms() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Writes the quaternion (x, y, z, w) equivalent to the given
+     * euler angle, in degrees, to {@code dest}, starting at
+     * {@code offset}
+     *
+     * @param x The euler angle x component, in degrees
+     * @param y The euler angle y component, in degrees
+     * @param z The euler angle z component, in degrees
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @see Quaternion#fromEulerDegrees
+     * @since 1.0.0
+     */
+    public static void fromEulerDegrees(float x, float y, float z, float[] dest, int offset) {
+        fromEulerDegrees(x, y, z, dest, offset, MathMode.defaultMode());
+    }
+
+    /**
+     * Writes the quaternion (x, y, z, w) equivalent to the given
+     * euler angle, in degrees, to {@code dest}, computing the sines
+     * and cosines with the given {@code mode}
+     *
+     * @param x The euler angle x component, in degrees
+     * @param y The euler angle y component, in degrees
+     * @param z The euler angle z component, in degrees
+     * @param dest The destination array
+     * @param offset The index where the x component is written
+     * @param mode The math mode
+     * @see Transforms#fromEulerDegrees(float, float, float, float[], int)
+     * @since 1.0.0
+     */
+    public static void fromEulerDegrees(float x, float y, float z, float[] dest, int offset, MathMode mode) {
+        // see Quaternion#fromEulerRadians
+        double halfX = (x * DEGREE) * 0.5D;
+        double halfY = (y * DEGREE) * 0.5D;
+        double halfZ = (z * DEGREE) * 0.5D;
+        double cosX = mode.cos(halfX);
+        double cosY = mode.cos(halfY);
+        double cosZ = mode.cos(halfZ);
+        double sinX = mode.sin(halfX);
+        double sinY = mode.sin(halfY);
+        double sinZ = mode.sin(halfZ);
+        double sinXCosY = sinX * cosY;
+        double cosXSinY = cosX * sinY;
+        double cosXCosY = cosX * cosY;
+        double sinXSinY = sinX * sinY;
+        dest[offset] = (float) (sinXCosY * cosZ - cosXSinY * sinZ);
+        dest[offset + 1] = (float) (cosXSinY * cosZ + sinXCosY * sinZ);
+        dest[offset + 2] = (float) (cosXCosY * sinZ - sinXSinY * cosZ);
+        dest[offset + 3] = (float) (cosXCosY * cosZ + sinXSinY * sinZ);
+    }
+
+    /**
+     * Spherically interpolates the {@code from} quaternion towards
+     * the {@code to} quaternion, following the shortest path, and
+     * writes the result to {@code dest}
+     *
+     * <p>{@code dest} may be one of the source arrays</p>
+     *
+     * @param from The array holding the source quaternion
+     * @param fromOffset The index of the source quaternion
+     * @param to The array holding the target quaternion
+     * @param toOffset The index of the target quaternion
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @param dest The destination array
+     * @param destOffset The index where the result is written
+     * @see Quaternion#slerp
+     * @since 1.0.0
+     */
+    public static void slerp(
+            float[] from,
+            int fromOffset,
+            float[] to,
+            int toOffset,
+            float ratio,
+            float[] dest,
+            int destOffset
+    ) {
+        slerp(
+                from[fromOffset],
+                from[fromOffset + 1],
+                from[fromOffset + 2],
+                from[fromOffset + 3],
+                to,
+                toOffset,
+                ratio,
+                dest,
+                destOffset
+        );
+    }
+
+    /**
+     * Spherically interpolates the given quaternion towards the
+     * {@code to} quaternion, following the shortest path, and
+     * writes the result to {@code dest}
+     *
+     * <p>{@code dest} may be the {@code to} array</p>
+     *
+     * @param x The source quaternion x component
+     * @param y The source quaternion y component
+     * @param z The source quaternion z component
+     * @param w The source quaternion w component
+     * @param to The array holding the target quaternion
+     * @param toOffset The index of the target quaternion
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @param dest The destination array
+     * @param destOffset The index where the result is written
+     * @see Quaternion#slerp
+     * @since 1.0.0
+     */
+    public static void slerp(
+            float x,
+            float y,
+            float z,
+            float w,
+            float[] to,
+            int toOffset,
+            float ratio,
+            float[] dest,
+            int destOffset
+    ) {
+        double toX = to[toOffset];
+        double toY = to[toOffset + 1];
+        double toZ = to[toOffset + 2];
+        double toW = to[toOffset + 3];
+        double cos = x * toX + y * toY + z * toZ + w * toW;
+        double sign = 1.0D;
+        if (cos < 0) {
+            // shortest path, see Quaternion#slerp
+            cos = -cos;
+            sign = -1.0D;
+        }
+
+        double fromWeight;
+        double toWeight;
+        if (cos > Quaternion.SLERP_THRESHOLD) {
+            fromWeight = 1.0D - ratio;
+            toWeight = ratio;
+        } else {
+            double angle = Math.acos(cos);
+            double sin = Math.sin(angle);
+            fromWeight = Math.sin((1.0D - ratio) * angle) / sin;
+            toWeight = Math.sin(ratio * angle) / sin;
+        }
+        toWeight *= sign;
+
+        dest[destOffset] = (float) (x * fromWeight + toX * toWeight);
+        dest[destOffset + 1] = (float) (y * fromWeight + toY * toWeight);
+        dest[destOffset + 2] = (float) (z * fromWeight + toZ * toWeight);
+        dest[destOffset + 3] = (float) (w * fromWeight + toW * toWeight);
+    }
+
+    /**
+     * Linearly interpolates the {@code from} quaternion towards the
+     * {@code to} quaternion, following the shortest path, and writes
+     * the normalized result to {@code dest}
+     *
+     * <p>Cheaper than {@link Transforms#slerp} and precise enough
+     * for close rotations, e.g. when blending animations</p>
+     *
+     * <p>{@code dest} may be one of the source arrays</p>
+     *
+     * @param from The array holding the source quaternion
+     * @param fromOffset The index of the source quaternion
+     * @param to The array holding the target quaternion
+     * @param toOffset The index of the target quaternion
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @param dest The destination array
+     * @param destOffset The index where the result is written
+     * @since 1.0.0
+     */
+    public static void nlerp(
+            float[] from,
+            int fromOffset,
+            float[] to,
+            int toOffset,
+            float ratio,
+            float[] dest,
+            int destOffset
+    ) {
+        nlerp(from, fromOffset, to, toOffset, ratio, dest, destOffset, MathMode.defaultMode());
+    }
+
+    /**
+     * Linearly interpolates the {@code from} quaternion towards the
+     * {@code to} quaternion, like {@link Transforms#nlerp}, computing
+     * the inverse length with the given {@code mode}
+     *
+     * @param from The array holding the source quaternion
+     * @param fromOffset The index of the source quaternion
+     * @param to The array holding the target quaternion
+     * @param toOffset The index of the target quaternion
+     * @param ratio The interpolation ratio, between 0 and 1
+     * @param dest The destination array
+     * @param destOffset The index where the result is written
+     * @param mode The math mode
+     * @since 1.0.0
+     */
+    public static void nlerp(
+            float[] from,
+            int fromOffset,
+            float[] to,
+            int toOffset,
+            float ratio,
+            float[] dest,
+            int destOffset,
+            MathMode mode
+    ) {
+        double fromWeight = 1.0D - ratio;
+        double toWeight = dot(from, fromOffset, to, toOffset) < 0 ? -ratio : ratio;
+
+        double x = from[fromOffset] * fromWeight + to[toOffset] * toWeight;
+        double y = from[fromOffset + 1] * fromWeight + to[toOffset + 1] * toWeight;
+        double z = from[fromOffset + 2] * fromWeight + to[toOffset + 2] * toWeight;
+        double w = from[fromOffset + 3] * fromWeight + to[toOffset + 3] * toWeight;
+        double inverseLength = mode.inverseSqrt(x * x + y * y + z * z + w * w);
+
+        dest[destOffset] = (float) (x * inverseLength);
+        dest[destOffset + 1] = (float) (y * inverseLength);
+        dest[destOffset + 2] = (float) (z * inverseLength);
+        dest[destOffset + 3] = (float) (w * inverseLength);
+    }
+
+    private static double dot(float[] a, int aOffset, float[] b, int bOffset) {
+        return (double) a[aOffset] * b[bOffset]
+                + (double) a[aOffset + 1] * b[bOffset + 1]
+                + (double) a[aOffset + 2] * b[bOffset + 2]
+                + (double) a[aOffset + 3] * b[bOffset + 3];
+    }
+
+    /**
+     * Computes the global transform of the bone at the given
+     * {@code index}, from the global transform of its parent
+     * (already present in the arrays) and its local transform
+     *
+     * <p>The local rotation is given as a quaternion in {@code
+     * localRotations}, starting at {@code localRotationOffset}, it
+     * must already include the bone rotation, i.e. it is converted
+     * from the sum of the bone and animation euler angles</p>
+     *
+     * @param positions The global bone positions
+     * @param rotations The global bone rotations
+     * @param index The bone index
+     * @param parent The parent bone index, or {@link Transforms#NO_PARENT}
+     * @param positionX The local position x component
+     * @param positionY The local position y component
+     * @param positionZ The local position z component
+     * @param localRotations The local rotations
+     * @param localRotationOffset The index of the local rotation
+     * @since 1.0.0
+     */
+    public static void computeGlobal(
+            float[] positions,
+            double[] rotations,
+            int index,
+            int parent,
+            float positionX,
+            float positionY,
+            float positionZ,
+            float[] localRotations,
+            int localRotationOffset
+    ) {
+        double lx = localRotations[localRotationOffset];
+        double ly = localRotations[localRotationOffset + 1];
+        double lz = localRotations[localRotationOffset + 2];
+        double lw = localRotations[localRotationOffset + 3];
+
+        int r = index * 4;
+        int p = index * 3;
+        if (parent == NO_PARENT) {
+            // root bones, their parent rotation is the identity
+            rotations[r] = lx;
+            rotations[r + 1] = ly;
+            rotations[r + 2] = lz;
+            rotations[r + 3] = lw;
+            positions[p] = positionX;
+            positions[p + 1] = positionY;
+            positions[p + 2] = positionZ;
+            return;
+        }
+
+        int pr = parent * 4;
+        int pp = parent * 3;
+        double px = rotations[pr];
+        double py = rotations[pr + 1];
+        double pz = rotations[pr + 2];
+        double pw = rotations[pr + 3];
+
+        // global rotation = parent rotation * local rotation
+        rotations[r] = px * lw + pw * lx + py * lz - pz * ly;
+        rotations[r + 1] = py * lw + pw * ly + pz * lx - px * lz;
+        rotations[r + 2] = pz * lw + pw * lz + px * ly - py * lx;
+        rotations[r + 3] = pw * lw - px * lx - py * ly - pz * lz;
+
+        // global position = parent rotation * local position + parent position,
+        // rotated directly by the parent quaternion (see Quaternion#transform)
+        double tx = 2.0D * (py * positionZ - pz * positionY);
+        double ty = 2.0D * (pz * positionX - px * positionZ);
+        double tz = 2.0D * (px * positionY - py * positionX);
+        positions[p] = (float) (positionX + pw * tx + (py * tz - pz * ty)) + positions[pp];
+        positions[p + 1] = (float) (positionY + pw * ty + (pz * tx - px * tz)) + positions[pp + 1];
+        positions[p + 2] = (float) (positionZ + pw * tz + (px * ty - py * tx)) + positions[pp + 2];
+    }
+
+    /**
+     * Computes the global transform of the bone at the given
+     * {@code index}, like {@link Transforms#computeGlobal}, also
+     * computing its global scale
+     *
+     * <p>The global scale is the parent global scale multiplied
+     * by the local scale, component-wise, and the local position
+     * is scaled by the parent global scale before rotating it.
+     * Note that rotated non-uniform scales are not sheared</p>
+     *
+     * @param positions The global bone positions
+     * @param rotations The global bone rotations
+     * @param scales The global bone scales
+     * @param index The bone index
+     * @param parent The parent bone index, or {@link Transforms#NO_PARENT}
+     * @param positionX The local position x component
+     * @param positionY The local position y component
+     * @param positionZ The local position z component
+     * @param localRotations The local rotations
+     * @param localRotationOffset The index of the local rotation
+     * @param localScales The local scales
+     * @param localScaleOffset The index of the local scale
+     * @since 1.0.0
+     */
+    public static void computeGlobal(
+            float[] positions,
+            double[] rotations,
+            float[] scales,
+            int index,
+            int parent,
+            float positionX,
+            float positionY,
+            float positionZ,
+            float[] localRotations,
+            int localRotationOffset,
+            float[] localScales,
+            int localScaleOffset
+    ) {
+        int s = index * 3;
+        float scaleX = localScales[localScaleOffset];
+        float scaleY = localScales[localScaleOffset + 1];
+        float scaleZ = localScales[localScaleOffset + 2];
+
+        if (parent != NO_PARENT) {
+            int ps = parent * 3;
+            float parentScaleX = scales[ps];
+            float parentScaleY = scales[ps + 1];
+            float parentScaleZ = scales[ps + 2];
+            positionX *= parentScaleX;
+            positionY *= parentScaleY;
+            positionZ *= parentScaleZ;
+            scaleX *= parentScaleX;
+            scaleY *= parentScaleY;
+            scaleZ *= parentScaleZ;
+        }
+
+        scales[s] = scaleX;
+        scales[s + 1] = scaleY;
+        scales[s + 2] = scaleZ;
+
+        computeGlobal(
+                positions,
+                rotations,
+                index,
+                parent,
+                positionX,
+                positionY,
+                positionZ,
+                localRotations,
+                localRotationOffset
+        );
+    }
+
+}
@@ -55,10 +55,24 @@ public final class Vectors {
      * @return The rotated vector
      */
     public static Vector3Float rotateAroundYRadians(Vector3Float vector, double angle) {
-        double sin =  Math.sin(angle);
-        double cos = Math.cos(angle);
+        return rotateAroundYRadians(vector, angle, new MutableVec3()).toImmutable();
+    }
 
-        return new Vector3Float(
+    /**
+     * Rotates the given vector around the Y axis by the given angle
+     * in radians, <b>counter-clockwise</b>, and writes the result
+     * to {@code dest}
+     *
+     * @param vector The vector to rotate
+     * @param angle The angle in radians
+     * @param dest The destination vector
+     * @return The destination vector
+     */
+    public static MutableVec3 rotateAroundYRadians(Vector3Float vector, double angle, MutableVec3 dest) {
+        double sin =  FastMath.sin(angle);
+        double cos = FastMath.cos(angle);
+
+        return dest.set(
                 (float) (vector.x() * cos - vector.z() * sin),
                 vector.y(),
                 (float) (vector.x() * sin + vector.z() * cos)
@@ -74,8 +88,20 @@ public final class Vectors {
      * @return The rotated vector
      */
     public static Vector3Float rotateDegrees(Vector3Float vector, Vector3Float rotation) {
-        rotation = toRadians(rotation);
+        return rotateDegrees(vector, rotation, new MutableVec3()).toImmutable();
+    }
 
+    /**
+     * Rotates the given vector by the given 3D rotation vector
+     * in degrees, <b>counter-clockwise</b>, <b>XYZ order</b>, and
+     * writes the result to {@code dest}
+     *
+     * @param vector The vector to rotate
+     * @param rotation The rotation vector in degrees
+     * @param dest The destination vector
+     * @return The destination vector
+     */
+    public static MutableVec3 rotateDegrees(Vector3Float vector, Vector3Float rotation, MutableVec3 dest) {
         double x = vector.x();
         double y = vector.y();
         double z = vector.z();
@@ -86,9 +112,9 @@ public final class Vectors {
         // [ 0  sinX  cosX ]
         // y = y cosx − z sinx
         // z = y sinx + z cosx
-        double rx = rotation.x();
-        double sinX = Math.sin(rx);
-        double cosX = Math.cos(rx);
+        double rx = rotation.x() * DEGREE;
+        double sinX = FastMath.sin(rx);
+        double cosX = FastMath.cos(rx);
         double xy = y * cosX - z * sinX;
         double xz = y * sinX + z * cosX;
 
@@ -98,9 +124,9 @@ public final class Vectors {
         // [ -sinY  0  cosY ]
         // x = x cosy + z siny
         // z = −x siny + z cosy
-        double ry = rotation.y();
-        double sinY = Math.sin(ry);
-        double cosY = Math.cos(ry);
+        double ry = rotation.y() * DEGREE;
+        double sinY = FastMath.sin(ry);
+        double cosY = FastMath.cos(ry);
         double yx = x * cosY + xz * sinY;
         double yz = -x * sinY + xz * cosY;
 
@@ -110,19 +136,37 @@ public final class Vectors {
         // [  0     0    1 ]
         // x = x cosz − y sinz
         // y = x sinz + y cosz
-        double rz = rotation.z();
-        double sinZ = Math.sin(rz);
-        double cosZ = Math.cos(rz);
+        double rz = rotation.z() * DEGREE;
+        double sinZ = FastMath.sin(rz);
+        double cosZ = FastMath.cos(rz);
         double zx = yx * cosZ - xy * sinZ;
         double zy = yx * sinZ + xy * cosZ;
 
-        return new Vector3Float((float) zx, (float) zy, (float) yz);
+        return dest.set((float) zx, (float) zy, (float) yz);
     }
 
     public static Vector3Float lerp(Vector3Float start, Vector3Float end, float percent) {
         return start.add(end.subtract(start).multiply(percent));
     }
 
+    /**
+     * Linearly interpolates the {@code start} vector towards the
+     * {@code end} vector and writes the result to {@code dest}
+     *
+     * @param start The start vector
+     * @param end The end vector
+     * @param percent The interpolation ratio, between 0 and 1
+     * @param dest The destination vector
+     * @return The destination vector
+     */
+    public static MutableVec3 lerp(Vector3Float start, Vector3Float end, float percent, MutableVec3 dest) {
+        return dest.set(
+                start.x() + (end.x() - start.x()) * percent,
+                start.y() + (end.y() - start.y()) * percent,
+                start.z() + (end.z() - start.z()) * percent
+        );
+    }
+
     public static boolean equals(Vector3Float a, Vector3Float b, double epsilon) {
         return Math.abs(a.x() - b.x()) < epsilon
                 && Math.abs(a.y() - b.y()) < epsilon
@@ -25,6 +25,8 @@ package team.unnamed.hephaestus.view;
 
 import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.util.MutableQuaternion;
+import team.unnamed.hephaestus.util.MutableVec3;
 import team.unnamed.hephaestus.util.Quaternion;
 
 /**
@@ -93,4 +95,66 @@ public interface BaseBoneView extends NamedEntity {
      */
     void update(Vector3Float position, Quaternion rotation);
 
+    /**
+     * Sets the relative position and the rotation of this bone,
+     * from mutable types, so that callers can reuse them between
+     * updates. Implementations must not keep references to them
+     *
+     * <p>Converts them to immutable types and delegates to
+     * {@link BaseBoneView#update(Vector3Float, Quaternion)} by
+     * default, platforms should override it to avoid that</p>
+     *
+     * @param position The relative target position
+     * @param rotation The target rotation
+     */
+    default void update(MutableVec3 position, MutableQuaternion rotation) {
+        update(position.toImmutable(), rotation.toImmutable());
+    }
+
+    /**
+     * Sets the relative position, the rotation and the scale of
+     * this bone, the scale is relative to the initial bone scale
+     *
+     * <p>Ignores the scale by default, for platforms that can't
+     * scale bones</p>
+     *
+     * @param position The relative target position
+     * @param rotation The target rotation
+     * @param scale The target scale
+     */
+    default void update(Vector3Float position, Quaternion rotation, Vector3Float scale) {
+        update(position, rotation);
+    }
+
+    /**
+     * Sets the relative position, the rotation and the scale of
+     * this bone, from mutable types, so that callers can reuse them
+     * between updates. Implementations must not keep references to them
+     *
+     * <p>Only called for bones whose scale changed, the other bones
+     * are updated using {@link BaseBoneView#update(MutableVec3, MutableQuaternion)},
+     * keeping their last scale</p>
+     *
+     * @param position The relative target position
+     * @param rotation The target rotation
+     * @param scale The target scale
+     */
+    default void update(MutableVec3 position, MutableQuaternion rotation, MutableVec3 scale) {
+        update(position.toImmutable(), rotation.toImmutable(), scale.toImmutable());
+    }
+
+    /**
+     * Sets the amount of ticks this bone takes to move to the
+     * transform set by the next {@link BaseBoneView#update} calls,
+     * used when the animations are not ticked every tick
+     *
+     * <p>Does nothing by default, for platforms that can't
+     * interpolate bone transforms</p>
+     *
+     * @param ticks The interpolation duration, in ticks
+     * @see team.unnamed.hephaestus.view.animation.AnimationLodPolicy
+     */
+    default void interpolationDuration(int ticks) {
+    }
+
 }
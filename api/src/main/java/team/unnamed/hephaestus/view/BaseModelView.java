@@ -150,4 +150,20 @@ public interface BaseModelView<TViewer> {
      */
     void tickAnimations();
 
+    /**
+     * Moves this view by the given root motion, in model space
+     * (i.e. not rotated by the view yaw), called by the animation
+     * controller when it plays animations with root motion
+     *
+     * <p>Does nothing by default, for platforms that can't move
+     * model views</p>
+     *
+     * @param x The motion x component
+     * @param y The motion y component
+     * @param z The motion z component
+     * @see Animation#rootMotion()
+     */
+    default void applyRootMotion(float x, float y, float z) {
+    }
+
 }
@@ -24,6 +24,7 @@
 package team.unnamed.hephaestus.view.animation;
 
 import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.util.MathMode;
 import team.unnamed.hephaestus.view.BaseModelView;
 
 /**
@@ -74,13 +75,82 @@ public interface AnimationController {
      */
     void tick(double yaw);
 
+    /**
+     * Registers a listener for the events of the animations
+     * played by this controller, listeners are only called on
+     * the ticks that have events
+     *
+     * <p>Controllers that do not dispatch events throw an
+     * {@link UnsupportedOperationException} by default</p>
+     *
+     * @param listener The event listener
+     * @see Animation#events()
+     * @since 1.0.0
+     */
+    default void addEventListener(AnimationEventListener listener) {
+        throw new UnsupportedOperationException(
+                getClass().getName() + " does not dispatch animation events"
+        );
+    }
+
+    /**
+     * Unregisters the given event listener, does
+     * nothing by default
+     *
+     * @param listener The event listener
+     * @since 1.0.0
+     */
+    default void removeEventListener(AnimationEventListener listener) {
+    }
+
+    /**
+     * Sets the level-of-detail policy for this controller,
+     * it decides how often the animations are ticked
+     *
+     * <p>Does nothing by default, i.e. animations are
+     * ticked at full rate</p>
+     *
+     * @param lodPolicy The level-of-detail policy
+     * @see AnimationLodPolicy#fullRate()
+     * @since 1.0.0
+     */
+    default void lodPolicy(AnimationLodPolicy lodPolicy) {
+    }
+
+    /**
+     * Sets the math mode used by this controller to blend
+     * animation frames, controllers use the default mode
+     * until it is set. Does nothing by default
+     *
+     * @param mathMode The math mode
+     * @see MathMode#defaultMode()
+     * @since 1.0.0
+     */
+    default void mathMode(MathMode mathMode) {
+    }
+
     /**
      * ONLY USE WHEN USING AREA EFFECT CLOUDS SO THERE IS NO VISIBLE DELAY BETWEEN THE BONES
      * @param view the model view to use
      * @return Animation controller
      */
     static AnimationController nonDelayed(BaseModelView<?> view) {
-        return new NormalAnimationController(view);
+        return new NormalAnimationController(view, null);
+    }
+
+    /**
+     * Creates a new animation controller for the given {@code view}
+     * that reads and stores the computed frames in the given
+     * {@code frameCache}, so that they are computed only once for
+     * all the controllers using it
+     *
+     * @param view the model view to use
+     * @param frameCache the frame cache to use
+     * @return Animation controller
+     * @since 1.0.0
+     */
+    static AnimationController nonDelayed(BaseModelView<?> view, AnimationFrameCache frameCache) {
+        return new NormalAnimationController(view, frameCache);
     }
 
 }
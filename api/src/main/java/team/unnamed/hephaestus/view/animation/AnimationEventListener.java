@@ -0,0 +1,53 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.AnimationEvent;
+
+/**
+ * Listener of the {@link AnimationEvent} instances fired
+ * by an {@link AnimationController}, when the animations
+ * it plays reach their ticks
+ *
+ * <p>Listeners are called from the thread applying the
+ * animation to the model view (i.e. the thread calling
+ * {@link AnimationController#tick}, or the thread ticking
+ * the {@link AnimationScheduler} that computes it)</p>
+ *
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface AnimationEventListener {
+
+    /**
+     * Called when an animation event is fired
+     *
+     * @param animation The animation holding the event
+     * @param event The fired event
+     * @since 1.0.0
+     */
+    void onEvent(Animation animation, AnimationEvent event);
+
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.Timeline;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of computed local frames, shared between {@link AnimationController}
+ * instances, so that views playing the same {@link Animation} compute
+ * every bone frame only once
+ *
+ * <p>Every bone {@link Timeline} is sampled once, for all the ticks of
+ * its animation, into a packed {@code float} array, and controllers
+ * read the frames from that array. It pays off for dynamic and
+ * compressed timelines, which interpolate on every sample, baked
+ * timelines are already a table lookup</p>
+ *
+ * <p>Cached frames include the rotation of the bone they were
+ * computed for, a timeline shared by bones with different rotations
+ * is recomputed when the rotation changes</p>
+ *
+ * <p>Timelines are weakly referenced, so their frames are discarded
+ * once their animation is no longer used</p>
+ *
+ * @since 1.0.0
+ */
+public final class AnimationFrameCache {
+
+    private static final AnimationFrameCache SHARED = new AnimationFrameCache();
+
+    // only accessed when an animation starts playing,
+    // not every tick, so a synchronized map is enough
+    private final Map<Timeline, Frames> frames = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the packed local frames of the given {@code timeline}
+     * for a bone with the given {@code base} rotation, for the ticks
+     * from zero to the given {@code length}, with {@link
+     * AnimationLayer#FRAME_SIZE} components per tick. They are only
+     * computed if they are not present in this cache
+     *
+     * <p>The returned array must not be modified</p>
+     */
+    float[] frames(Timeline timeline, Vector3Float base, int length) {
+        int frameCount = Math.max(length, 0) + 1;
+        Frames cached = frames.get(timeline);
+        if (cached == null
+                || !cached.base.equals(base)
+                || cached.packed.length < frameCount * AnimationLayer.FRAME_SIZE) {
+            // frames are immutable, if two threads compute
+            // the same frames, one of them is just discarded
+            float[] packed = new float[frameCount * AnimationLayer.FRAME_SIZE];
+            for (int tick = 0; tick < frameCount; tick++) {
+                AnimationLayer.sample(timeline, tick, base, packed, tick * AnimationLayer.FRAME_SIZE);
+            }
+            cached = new Frames(base, packed);
+            frames.put(timeline, cached);
+        }
+        return cached.packed;
+    }
+
+    /**
+     * Removes the cached frames for the given {@code animation},
+     * frames are discarded anyway when the animation is no longer
+     * referenced, this just does it earlier
+     *
+     * @param animation The animation to invalidate
+     * @since 1.0.0
+     */
+    public void invalidate(Animation animation) {
+        for (Timeline timeline : animation.timelines().values()) {
+            frames.remove(timeline);
+        }
+    }
+
+    /**
+     * Removes all the cached frames
+     *
+     * @since 1.0.0
+     */
+    public void clear() {
+        frames.clear();
+    }
+
+    /**
+     * Returns a frame cache shared by all the animation
+     * controllers created with it
+     *
+     * @return The shared frame cache
+     * @since 1.0.0
+     */
+    public static AnimationFrameCache shared() {
+        return SHARED;
+    }
+
+    private static final class Frames {
+
+        private final Vector3Float base;
+        private final float[] packed;
+
+        private Frames(Vector3Float base, float[] packed) {
+            this.base = base;
+            this.packed = packed;
+        }
+
+    }
+
+}
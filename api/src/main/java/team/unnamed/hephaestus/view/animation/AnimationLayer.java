@@ -0,0 +1,339 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.Timeline;
+import team.unnamed.hephaestus.util.MathMode;
+import team.unnamed.hephaestus.util.Transforms;
+
+import java.util.Arrays;
+
+/**
+ * A single animation layer of a {@link NormalAnimationController},
+ * plays one {@link Animation} at a time, with a weight and an
+ * optional bone mask
+ *
+ * <p>Local frames are written to {@code float} arrays with
+ * {@link AnimationLayer#FRAME_SIZE} components per bone: position
+ * (x, y, z), local rotation as a quaternion (x, y, z, w), including
+ * the bone rotation, and scale (x, y, z)</p>
+ */
+final class AnimationLayer {
+
+    static final int FRAME_SIZE = 10;
+    static final int ROTATION_OFFSET = 3;
+    static final int SCALE_OFFSET = 7;
+
+    // the initial local frame of bones without
+    // rotation, see KeyFrame#INITIAL
+    static final float[] INITIAL_FRAME = { 0, 0, 0, 0, 0, 0, 1, 1, 1, 1 };
+
+    private final int index;
+    private final BoneHierarchy hierarchy;
+    private final @Nullable AnimationFrameCache frameCache;
+
+    // bones affected by this layer, null if all
+    private boolean @Nullable [] mask;
+
+    private @Nullable Animation animation;
+    private final @Nullable Timeline[] timelines;
+
+    // packed frames of the timelines, taken from the
+    // frame cache, null if there is no frame cache
+    private final float @Nullable [][] cachedFrames;
+    private int tick;
+
+    // last frame written by this layer for every bone, held
+    // when the current animation does not animate a bone
+    private final float[] lastFrames;
+    private final boolean[] hasLastFrame;
+
+    // frozen frames this layer is cross-fading from
+    private final float[] fadeFrames;
+    private final boolean[] hasFadeFrame;
+    private int fadeTicks;
+    private int fadeTick;
+
+    // layer weight, moved towards the target weight every tick
+    private float weight = 1F;
+    private float targetWeight = 1F;
+    private float weightStep;
+    private boolean stopping;
+
+    // true if this layer holds last frames for bones
+    // that the current animation does not animate
+    private boolean holdsFrames;
+
+    // the mode used to blend the cross-faded frames
+    private MathMode mathMode = MathMode.defaultMode();
+
+    AnimationLayer(int index, BoneHierarchy hierarchy, @Nullable AnimationFrameCache frameCache) {
+        this.index = index;
+        this.hierarchy = hierarchy;
+        this.frameCache = frameCache;
+
+        int size = hierarchy.size();
+        this.timelines = new Timeline[size];
+        this.cachedFrames = frameCache == null ? null : new float[size][];
+        this.lastFrames = new float[size * FRAME_SIZE];
+        this.hasLastFrame = new boolean[size];
+        this.fadeFrames = new float[size * FRAME_SIZE];
+        this.hasFadeFrame = new boolean[size];
+    }
+
+    int index() {
+        return index;
+    }
+
+    @Nullable Animation animation() {
+        return animation;
+    }
+
+    int tick() {
+        return tick;
+    }
+
+    float weight() {
+        return weight;
+    }
+
+    /**
+     * Determines whether this layer is playing its animation
+     * alone, i.e. it is not cross-fading and it does not hold
+     * frames of previous animations
+     */
+    boolean playsAlone() {
+        return fadeTick >= fadeTicks && !holdsFrames;
+    }
+
+    /**
+     * Sets the math mode used to blend cross-faded frames
+     */
+    void mathMode(MathMode mathMode) {
+        this.mathMode = mathMode;
+    }
+
+    /**
+     * Sets the bone mask of this layer, null to affect
+     * all the bones
+     */
+    void mask(boolean @Nullable [] mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Starts playing the given {@code animation} (or nothing if
+     * null) from its first tick, cross-fading from the current
+     * frames during the given amount of ticks
+     *
+     * @param fadeFromInitial Whether to fade from the initial
+     *                        frame for bones without a last frame
+     */
+    void play(@Nullable Animation animation, int fadeTicks, boolean fadeFromInitial) {
+        if (fadeTicks > 0) {
+            // freeze the current frames, so that we can fade from them
+            System.arraycopy(lastFrames, 0, fadeFrames, 0, lastFrames.length);
+            for (int i = 0; i < hasFadeFrame.length; i++) {
+                hasFadeFrame[i] = hasLastFrame[i];
+                if (!hasLastFrame[i] && fadeFromInitial) {
+                    hierarchy.initialFrame(i, fadeFrames, i * FRAME_SIZE);
+                    hasFadeFrame[i] = true;
+                }
+            }
+        }
+        this.stopping = false;
+        this.fadeTicks = Math.max(fadeTicks, 0);
+        this.fadeTick = 0;
+        this.animation = animation;
+        this.tick = 0;
+
+        // resolve the bone timelines once per animation,
+        // so that ticks do not look them up by name
+        holdsFrames = false;
+        for (int i = 0; i < timelines.length; i++) {
+            Bone bone = hierarchy.bone(i);
+            timelines[i] = animation == null ? null : animation.timelines().get(bone.name());
+            if (cachedFrames != null) {
+                cachedFrames[i] = timelines[i] == null
+                        ? null
+                        : frameCache.frames(timelines[i], bone.rotation(), animation.length());
+            }
+            holdsFrames |= timelines[i] == null && hasLastFrame[i];
+        }
+    }
+
+    /**
+     * Moves the layer weight to the given {@code weight}
+     * during the given amount of ticks
+     */
+    void weight(float weight, int fadeTicks) {
+        this.targetWeight = weight;
+        if (fadeTicks <= 0) {
+            this.weight = weight;
+            this.weightStep = 0F;
+        } else {
+            this.weightStep = Math.abs(weight - this.weight) / fadeTicks;
+        }
+    }
+
+    /**
+     * Removes the last frames, so that this layer does
+     * not affect any bone until it samples new frames
+     */
+    void clearFrames() {
+        holdsFrames = false;
+        Arrays.fill(hasLastFrame, false);
+        Arrays.fill(hasFadeFrame, false);
+        fadeTicks = 0;
+    }
+
+    /**
+     * Writes the local frame of the bone at the given {@code bone}
+     * index to {@code dest}, starting at {@code offset}
+     *
+     * @return False if this layer does not affect the bone
+     */
+    boolean sample(int bone, float[] dest, int offset) {
+        if (mask != null && !mask[bone]) {
+            return false;
+        }
+
+        int frameOffset = bone * FRAME_SIZE;
+        Timeline timeline = timelines[bone];
+        if (timeline != null) {
+            float[] frames = cachedFrames == null ? null : cachedFrames[bone];
+            if (frames != null) {
+                int frameCount = frames.length / FRAME_SIZE;
+                int cachedTick = Math.max(0, Math.min(tick, frameCount - 1));
+                System.arraycopy(frames, cachedTick * FRAME_SIZE, lastFrames, frameOffset, FRAME_SIZE);
+            } else {
+                sample(timeline, tick, hierarchy.bone(bone).rotation(), lastFrames, frameOffset);
+            }
+            hasLastFrame[bone] = true;
+        } else if (!hasLastFrame[bone]) {
+            return false;
+        }
+
+        if (fadeTick < fadeTicks && hasFadeFrame[bone]) {
+            float ratio = (float) fadeTick / fadeTicks;
+            blend(fadeFrames, frameOffset, lastFrames, frameOffset, ratio, dest, offset, mathMode);
+        } else {
+            System.arraycopy(lastFrames, frameOffset, dest, offset, FRAME_SIZE);
+        }
+        return true;
+    }
+
+    /**
+     * Advances the playhead and the weight and cross-fade
+     * transitions of this layer
+     *
+     * @return True if the animation finished
+     */
+    boolean advance() {
+        if (fadeTick < fadeTicks) {
+            fadeTick++;
+        }
+        if (weight < targetWeight) {
+            weight = Math.min(weight + weightStep, targetWeight);
+        } else if (weight > targetWeight) {
+            weight = Math.max(weight - weightStep, targetWeight);
+        }
+        return animation != null && ++tick > animation.length();
+    }
+
+    /**
+     * Moves the playhead to the given {@code tick},
+     * without cross-fading
+     */
+    void seek(int tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Fades out this layer during the given amount
+     * of ticks, so that it can be removed
+     */
+    void stop(int fadeTicks) {
+        weight(0F, fadeTicks);
+        stopping = true;
+    }
+
+    /**
+     * Determines whether this layer was stopped
+     * and has been completely faded out
+     */
+    boolean stopped() {
+        return stopping && weight <= 0F;
+    }
+
+    /**
+     * Blends the {@code from} frame towards the {@code to} frame,
+     * positions and scales are interpolated linearly, rotations
+     * are normalized-linearly interpolated
+     *
+     * <p>{@code dest} may be one of the source arrays</p>
+     */
+    static void blend(
+            float[] from,
+            int fromOffset,
+            float[] to,
+            int toOffset,
+            float ratio,
+            float[] dest,
+            int destOffset,
+            MathMode mathMode
+    ) {
+        for (int i = 0; i < ROTATION_OFFSET; i++) {
+            float value = from[fromOffset + i];
+            dest[destOffset + i] = value + (to[toOffset + i] - value) * ratio;
+        }
+        Transforms.nlerp(
+                from, fromOffset + ROTATION_OFFSET,
+                to, toOffset + ROTATION_OFFSET,
+                ratio,
+                dest, destOffset + ROTATION_OFFSET,
+                mathMode
+        );
+        for (int i = SCALE_OFFSET; i < FRAME_SIZE; i++) {
+            float value = from[fromOffset + i];
+            dest[destOffset + i] = value + (to[toOffset + i] - value) * ratio;
+        }
+    }
+
+    /**
+     * Samples the local frame of the given {@code timeline} at the
+     * given {@code tick}, straight from the timeline to {@code dest},
+     * for a bone with the given {@code rotation}
+     */
+    static void sample(Timeline timeline, int tick, Vector3Float rotation, float[] dest, int offset) {
+        timeline.sample(tick, Timeline.Channel.POSITION, dest, offset);
+        timeline.sampleRotation(tick, rotation, dest, offset + ROTATION_OFFSET);
+        timeline.sample(tick, Timeline.Channel.SCALE, dest, offset + SCALE_OFFSET);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import team.unnamed.hephaestus.view.BaseModelView;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Animation level-of-detail policy, decides how often
+ * a model view is animated, e.g. depending on how far
+ * its viewers are
+ *
+ * <p>When a view is not animated every tick, its bone views
+ * interpolate between the animated ticks, so it still looks
+ * smooth</p>
+ *
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface AnimationLodPolicy {
+
+    /**
+     * Interval used to stop animating a view, its
+     * animations are paused until the interval changes
+     *
+     * @since 1.0.0
+     */
+    int FROZEN = 0;
+
+    /**
+     * Determines the interval, in ticks, between two animated
+     * ticks of the given {@code view}, 1 to animate it every tick
+     *
+     * <p>It is always called from the thread ticking the view,
+     * never from the animation scheduler workers, so it can
+     * read the view state (i.e. its viewers)</p>
+     *
+     * @param view The model view
+     * @return The animation interval, or {@link AnimationLodPolicy#FROZEN}
+     * @since 1.0.0
+     */
+    int interval(BaseModelView<?> view);
+
+    /**
+     * Returns a policy that animates views every tick,
+     * the default policy
+     *
+     * @return The full rate policy
+     * @since 1.0.0
+     */
+    static AnimationLodPolicy fullRate() {
+        return view -> 1;
+    }
+
+    /**
+     * Creates a policy that animates views depending on the distance
+     * to their nearest viewer: every tick within {@code fullRateDistance},
+     * every 2nd tick within {@code halfRateDistance} and every 4th tick
+     * beyond that. Views without viewers are frozen
+     *
+     * @param nearestViewerDistance Function computing the distance from
+     *                              a view to its nearest viewer, in blocks
+     * @param fullRateDistance The maximum distance to animate every tick
+     * @param halfRateDistance The maximum distance to animate every 2nd tick
+     * @return The created policy
+     * @since 1.0.0
+     */
+    static AnimationLodPolicy distance(
+            ToDoubleFunction<BaseModelView<?>> nearestViewerDistance,
+            double fullRateDistance,
+            double halfRateDistance
+    ) {
+        Objects.requireNonNull(nearestViewerDistance, "nearestViewerDistance");
+        return view -> {
+            if (view.viewers().isEmpty()) {
+                return FROZEN;
+            }
+            double distance = nearestViewerDistance.applyAsDouble(view);
+            if (distance <= fullRateDistance) {
+                return 1;
+            } else if (distance <= halfRateDistance) {
+                return 2;
+            } else {
+                return 4;
+            }
+        };
+    }
+
+    /**
+     * Creates a policy that animates views every tick within 16 blocks
+     * of their nearest viewer, every 2nd tick within 48 blocks and every
+     * 4th tick beyond that. Views without viewers are frozen
+     *
+     * @param nearestViewerDistance Function computing the distance from
+     *                              a view to its nearest viewer, in blocks
+     * @return The created policy
+     * @see AnimationLodPolicy#distance(ToDoubleFunction, double, double)
+     * @since 1.0.0
+     */
+    static AnimationLodPolicy distance(ToDoubleFunction<BaseModelView<?>> nearestViewerDistance) {
+        return distance(nearestViewerDistance, 16D, 48D);
+    }
+
+}
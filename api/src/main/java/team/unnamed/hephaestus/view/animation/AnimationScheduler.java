@@ -0,0 +1,100 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import team.unnamed.hephaestus.view.BaseModelView;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Responsible for ticking the animations of many model
+ * views at once, instead of ticking every view separately
+ *
+ * <p>Every {@link AnimationScheduler#tick()} call has two
+ * phases: a compute phase, where the bone transforms of all
+ * the registered views are computed in parallel batches, and
+ * an apply phase, where the computed transforms are applied
+ * to the bone views, in the thread calling the method</p>
+ *
+ * @since 1.0.0
+ */
+public interface AnimationScheduler {
+
+    /**
+     * Registers the given {@code view} so that its animations
+     * are ticked by this scheduler, its animation controller
+     * should not be ticked by anything else
+     *
+     * @param view The model view
+     * @param yaw The model view yaw supplier, called in the
+     *            thread ticking this scheduler
+     * @since 1.0.0
+     */
+    void register(BaseModelView<?> view, DoubleSupplier yaw);
+
+    /**
+     * Unregisters the given {@code view}, so that its
+     * animations are no longer ticked by this scheduler
+     *
+     * @param view The model view
+     * @return True if the view was registered
+     * @since 1.0.0
+     */
+    boolean unregister(BaseModelView<?> view);
+
+    /**
+     * Ticks the animations of all the registered views, should
+     * be called once per server tick, from the thread owning the
+     * model views
+     *
+     * @since 1.0.0
+     */
+    void tick();
+
+    /**
+     * Creates a new animation scheduler that computes the bone
+     * transforms using the given {@code pool}
+     *
+     * @param pool The fork-join pool for the compute phase
+     * @return The created animation scheduler
+     * @since 1.0.0
+     */
+    static AnimationScheduler parallel(ForkJoinPool pool) {
+        return new ParallelAnimationScheduler(pool);
+    }
+
+    /**
+     * Creates a new animation scheduler that computes the bone
+     * transforms using the common fork-join pool
+     *
+     * @return The created animation scheduler
+     * @see ForkJoinPool#commonPool()
+     * @since 1.0.0
+     */
+    static AnimationScheduler parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import org.jetbrains.annotations.ApiStatus;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.util.Transforms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flattened, index-based representation of the bones of a
+ * {@link Model}, bones are stored in parent-first order, so
+ * that iterating them in order always visits a parent before
+ * its children
+ *
+ * <p>Shared by the animation controllers and the compiled
+ * animations, so that both index the bones the same way</p>
+ */
+@ApiStatus.Internal
+public final class BoneHierarchy {
+
+    private final Bone[] bones;
+    private final int[] parents;
+
+    // the bone rotations, as quaternions (x, y, z, w)
+    private final float[] rotations;
+
+    private BoneHierarchy(Bone[] bones, int[] parents, float[] rotations) {
+        this.bones = bones;
+        this.parents = parents;
+        this.rotations = rotations;
+    }
+
+    /**
+     * Flattens the bone hierarchy of the given
+     * {@code model}
+     */
+    public static BoneHierarchy flatten(Model model) {
+        List<Bone> bones = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        for (Bone bone : model.bones()) {
+            flatten(bone, Transforms.NO_PARENT, bones, parents);
+        }
+
+        int size = bones.size();
+        int[] parentArray = new int[size];
+        float[] rotations = new float[size * 4];
+        for (int i = 0; i < size; i++) {
+            parentArray[i] = parents.get(i);
+            Vector3Float rotation = bones.get(i).rotation();
+            Transforms.fromEulerDegrees(rotation.x(), rotation.y(), rotation.z(), rotations, i * 4);
+        }
+        return new BoneHierarchy(bones.toArray(new Bone[0]), parentArray, rotations);
+    }
+
+    private static void flatten(Bone bone, int parent, List<Bone> bones, List<Integer> parents) {
+        int index = bones.size();
+        bones.add(bone);
+        parents.add(parent);
+        for (Bone child : bone.children()) {
+            flatten(child, index, bones, parents);
+        }
+    }
+
+    /**
+     * Returns the amount of bones in this hierarchy
+     */
+    public int size() {
+        return bones.length;
+    }
+
+    /**
+     * Returns the bone at the given {@code index}
+     */
+    public Bone bone(int index) {
+        return bones[index];
+    }
+
+    /**
+     * Returns the index of the parent of the bone at
+     * the given {@code index}, or {@link Transforms#NO_PARENT}
+     * if it is a root bone
+     */
+    public int parent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * Writes the rotation of the bone at the given {@code index},
+     * as a quaternion (x, y, z, w), to {@code dest}, starting
+     * at {@code offset}
+     */
+    public void rotation(int index, float[] dest, int offset) {
+        System.arraycopy(rotations, index * 4, dest, offset, 4);
+    }
+
+    /**
+     * Writes the initial local frame of the bone at the given
+     * {@code index} to {@code dest}, i.e. the initial frame
+     * with the bone rotation, see {@link AnimationLayer#FRAME_SIZE}
+     */
+    void initialFrame(int index, float[] dest, int offset) {
+        System.arraycopy(AnimationLayer.INITIAL_FRAME, 0, dest, offset, AnimationLayer.FRAME_SIZE);
+        rotation(index, dest, offset + AnimationLayer.ROTATION_OFFSET);
+    }
+
+}
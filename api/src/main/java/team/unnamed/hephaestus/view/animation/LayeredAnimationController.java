@@ -0,0 +1,123 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import org.jetbrains.annotations.Nullable;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.view.BaseModelView;
+
+import java.util.Collection;
+
+/**
+ * An {@link AnimationController} that can play several animations
+ * at once, using animation layers
+ *
+ * <p>Queued animations are played in the base layer, then, every
+ * other layer is blended over it in ascending index order, using
+ * its weight and only for the bones in its bone mask (e.g. a walk
+ * animation in the base layer and an attack animation in a layer
+ * masked to the upper body)</p>
+ *
+ * @since 1.0.0
+ */
+public interface LayeredAnimationController extends AnimationController {
+
+    /**
+     * Plays the given {@link Animation} in the layer with the
+     * specified {@code layer} index
+     *
+     * <p>If the layer is already playing an animation, it is
+     * cross-faded to the new one during {@code fadeTicks},
+     * otherwise, the layer weight is faded in</p>
+     *
+     * @param layer The layer index
+     * @param animation The animation to play
+     * @param weight The layer weight [0-1]
+     * @param boneMask The names of the bones affected by the
+     *                 layer, null to affect all of them
+     * @param fadeTicks The amount of ticks of the transition
+     * @since 1.0.0
+     */
+    void play(int layer, Animation animation, float weight, @Nullable Collection<String> boneMask, int fadeTicks);
+
+    /**
+     * Plays the given {@link Animation} in the layer with the
+     * specified {@code layer} index, affecting all the bones
+     * with full weight and no transition
+     *
+     * @param layer The layer index
+     * @param animation The animation to play
+     * @since 1.0.0
+     */
+    default void play(int layer, Animation animation) {
+        play(layer, animation, 1F, null, 0);
+    }
+
+    /**
+     * Changes the weight of the layer with the specified
+     * {@code layer} index, during {@code fadeTicks}
+     *
+     * @param layer The layer index
+     * @param weight The new layer weight [0-1]
+     * @param fadeTicks The amount of ticks of the transition
+     * @since 1.0.0
+     */
+    void weight(int layer, float weight, int fadeTicks);
+
+    /**
+     * Fades out and stops the layer with the specified
+     * {@code layer} index
+     *
+     * @param layer The layer index
+     * @param fadeTicks The amount of ticks of the fade out
+     * @since 1.0.0
+     */
+    void stop(int layer, int fadeTicks);
+
+    /**
+     * Creates a new layered animation controller for the
+     * given {@code view}
+     *
+     * @param view The model view to animate
+     * @return The created animation controller
+     * @since 1.0.0
+     */
+    static LayeredAnimationController layered(BaseModelView<?> view) {
+        return new NormalAnimationController(view, null);
+    }
+
+    /**
+     * Creates a new layered animation controller for the given
+     * {@code view}, using the given {@code frameCache}
+     *
+     * @param view The model view to animate
+     * @param frameCache The frame cache to use
+     * @return The created animation controller
+     * @since 1.0.0
+     */
+    static LayeredAnimationController layered(BaseModelView<?> view, AnimationFrameCache frameCache) {
+        return new NormalAnimationController(view, frameCache);
+    }
+
+}
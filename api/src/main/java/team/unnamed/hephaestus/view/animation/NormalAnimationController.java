@@ -27,196 +27,664 @@ import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.Bone;
 import team.unnamed.hephaestus.animation.Animation;
-import team.unnamed.hephaestus.animation.KeyFrame;
-import team.unnamed.hephaestus.animation.Timeline;
-import team.unnamed.hephaestus.util.Quaternion;
-import team.unnamed.hephaestus.util.Vectors;
+import team.unnamed.hephaestus.animation.AnimationEvent;
+import team.unnamed.hephaestus.animation.CompiledAnimation;
+import team.unnamed.hephaestus.animation.RootMotion;
+import team.unnamed.hephaestus.util.MathMode;
+import team.unnamed.hephaestus.util.MutableQuaternion;
+import team.unnamed.hephaestus.util.MutableVec3;
+import team.unnamed.hephaestus.util.Transforms;
 import team.unnamed.hephaestus.view.BaseBoneView;
 import team.unnamed.hephaestus.view.BaseModelView;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map;
+import java.util.List;
+import java.util.Objects;
 
-class NormalAnimationController implements AnimationController {
+class NormalAnimationController implements LayeredAnimationController {
+
+    // minimum change of a bone transform component required
+    // to update its bone view, smaller changes are skipped
+    private static final double UPDATE_EPSILON = Double.parseDouble(
+            System.getProperty("hephaestus.update-epsilon", "1.0E-4")
+    );
 
     private final Deque<Animation> queue = new LinkedList<>();
     private final BaseModelView<?> view;
+    private final @Nullable AnimationFrameCache frameCache;
+
+    // the model bones, flattened in parent-first order, all
+    // the following arrays are indexed by the bone index
+    private final BoneHierarchy hierarchy;
+
+    // the bone views, resolved in the first tick, since the
+    // view may create them after creating this controller
+    private @Nullable BaseBoneView[] boneViews;
+
+    // the layer playing the queued animations, and the
+    // layers blended over it, sorted by their index
+    private final AnimationLayer base;
+    private AnimationLayer[] layers = new AnimationLayer[0];
+
+    // the compiled form of the base layer animation, used
+    // when it is played alone
+    private @Nullable CompiledAnimation compiled;
+
+    // scratch arrays for the local frame of the current bone and
+    // the frame of the current layer, blended over the former
+    private final float[] frame = new float[AnimationLayer.FRAME_SIZE * 2];
+
+    // scratch arrays for the computed bone transforms, the
+    // global positions (x, y, z), rotations (x, y, z, w) and
+    // scales (x, y, z)
+    private final float[] positions;
+    private final double[] rotations;
+    private final float[] scales;
+
+    // the local frames used to compute the current transforms,
+    // bones whose local frame and parent transform did not change
+    // are not computed again
+    private final float[] localFrames;
+    private final boolean[] changed;
+
+    // the transforms last applied to the bone views, bones
+    // are only updated if their transforms are dirty (i.e.
+    // they differ from the applied ones)
+    private final float[] appliedPositions;
+    private final double[] appliedRotations;
+    private final boolean[] dirty;
+
+    // the scales last applied to the bone views, bones are
+    // only updated with their scale if it is dirty, so bones
+    // that are never scaled skip the scale path entirely
+    private final float[] appliedScales;
+    private final boolean[] scaleDirty;
+
+    // reused to pass the transforms to the bone views
+    private final MutableVec3 position = new MutableVec3();
+    private final MutableQuaternion rotation = new MutableQuaternion();
+    private final MutableVec3 scale = new MutableVec3();
+
+    // true if there are computed transforms not applied yet
+    private boolean computed;
+
+    // the registered event listeners, and the animations and ticks
+    // whose events are fired when applying the computed transforms,
+    // only collected if there are listeners
+    private AnimationEventListener[] listeners = new AnimationEventListener[0];
+    private Animation[] eventAnimations = new Animation[4];
+    private int[] eventTicks = new int[4];
+    private int eventCount;
+
+    // the root motion accumulated since the last applied
+    // transforms, and a scratch array for a single tick
+    private final float[] rootMotion = new float[3];
+    private final float[] rootMotionDelta = new float[3];
+    private boolean hasRootMotion;
+
+    // level-of-detail, the ticks elapsed since the last computed
+    // tick, and the interval last passed to the bone views
+    private AnimationLodPolicy lodPolicy = AnimationLodPolicy.fullRate();
+    private int elapsedTicks;
+    private int interval = 1;
+    private int appliedInterval = 1;
+
+    // the mode used to blend the layers
+    private MathMode mathMode = MathMode.defaultMode();
+
+    NormalAnimationController(BaseModelView<?> view, @Nullable AnimationFrameCache frameCache) {
+        this.view = view;
+        this.frameCache = frameCache;
+        this.hierarchy = BoneHierarchy.flatten(view.model());
+        this.base = new AnimationLayer(Integer.MIN_VALUE, hierarchy, frameCache);
+
+        int size = hierarchy.size();
+        this.positions = new float[size * 3];
+        this.rotations = new double[size * 4];
+        this.scales = new float[size * 3];
+        this.localFrames = new float[size * AnimationLayer.FRAME_SIZE];
+        this.changed = new boolean[size];
+        this.appliedPositions = new float[size * 3];
+        this.appliedRotations = new double[size * 4];
+        this.dirty = new boolean[size];
+        this.appliedScales = new float[size * 3];
+        this.scaleDirty = new boolean[size];
+
+        // never equal to a sampled frame, so that
+        // all the bones are computed the first time
+        Arrays.fill(localFrames, Float.NaN);
+        Arrays.fill(appliedPositions, Float.NaN);
+        Arrays.fill(scales, 1F);
+        Arrays.fill(appliedScales, 1F);
+    }
 
-    private final Map<String, KeyFrame> lastFrames = new HashMap<>();
-    private final Map<String, Iterator<KeyFrame>> iterators = new HashMap<>();
-    private int noNext;
+    @Override
+    public synchronized void queue(Animation animation, int transitionTicks) {
+        queue.addFirst(animation);
+        nextAnimation(transitionTicks);
+    }
+
+    @Override
+    public synchronized void clearQueue() {
+        queue.clear();
+        // bones keep their last frames
+        base.play(null, 0, false);
+        compiled = null;
+    }
 
-    // Reference to the animation currently being played
-    private @Nullable Animation current;
+    @Override
+    public synchronized void play(
+            int index,
+            Animation animation,
+            float weight,
+            @Nullable Collection<String> boneMask,
+            int fadeTicks
+    ) {
+        Objects.requireNonNull(animation, "animation");
+        boolean[] mask = null;
+        if (boneMask != null) {
+            mask = new boolean[hierarchy.size()];
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] = boneMask.contains(hierarchy.bone(i).name());
+            }
+        }
 
-    NormalAnimationController(BaseModelView<?> view) {
-        this.view = view;
+        AnimationLayer layer = layer(index);
+        if (layer == null) {
+            // new layer, fade its weight in
+            layer = new AnimationLayer(index, hierarchy, frameCache);
+            layer.mathMode(mathMode);
+            layer.weight(0F, 0);
+            addLayer(layer);
+        }
+        layer.mask(mask);
+        layer.play(animation, fadeTicks, false);
+        layer.weight(weight, fadeTicks);
     }
 
     @Override
-    public synchronized void queue(Animation animation, int transitionTicks) {
-        if (transitionTicks <= 0) {
-            queue.addFirst(animation);
-            nextAnimation();
+    public synchronized void weight(int index, float weight, int fadeTicks) {
+        AnimationLayer layer = layer(index);
+        if (layer != null) {
+            layer.weight(weight, fadeTicks);
+        }
+    }
+
+    @Override
+    public synchronized void stop(int index, int fadeTicks) {
+        AnimationLayer layer = layer(index);
+        if (layer != null) {
+            layer.stop(fadeTicks);
+            removeStoppedLayers();
+        }
+    }
+
+    @Override
+    public synchronized void tick(double yaw) {
+        compute(yaw, lodInterval());
+        apply();
+    }
+
+    @Override
+    public synchronized void lodPolicy(AnimationLodPolicy lodPolicy) {
+        this.lodPolicy = Objects.requireNonNull(lodPolicy, "lodPolicy");
+    }
+
+    @Override
+    public synchronized void mathMode(MathMode mathMode) {
+        this.mathMode = Objects.requireNonNull(mathMode, "mathMode");
+        base.mathMode(mathMode);
+        for (AnimationLayer layer : layers) {
+            layer.mathMode(mathMode);
+        }
+    }
+
+    @Override
+    public synchronized void addEventListener(AnimationEventListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        AnimationEventListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    @Override
+    public synchronized void removeEventListener(AnimationEventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) {
+                AnimationEventListener[] newListeners = new AnimationEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+                listeners = newListeners;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Determines the animation interval of the view using the
+     * level-of-detail policy, it may read the view state (i.e.
+     * its viewers), so it must be called from the thread owning
+     * the view
+     *
+     * @return The interval to pass to {@link #compute}
+     */
+    synchronized int lodInterval() {
+        return lodPolicy.interval(view);
+    }
+
+    /**
+     * Computes the bone transforms for the next tick and
+     * advances the playhead, without updating the bone views,
+     * may be called from any thread
+     *
+     * @param yaw The model yaw
+     * @param interval The animation interval, computed by
+     *                 {@link #lodInterval()}
+     */
+    synchronized void compute(double yaw, int interval) {
+        if (interval <= AnimationLodPolicy.FROZEN) {
+            // frozen, the playheads do not advance
+            return;
+        }
+        if (++elapsedTicks < interval) {
+            // skipped tick, the bone views interpolate
             return;
         }
+        int steps = elapsedTicks;
+        elapsedTicks = 0;
+        this.interval = interval;
+
+        if (base.animation() == null) {
+            // if no animation currently being played,
+            // try poll one from the animation queue
+            nextAnimation(0);
+        }
+
+        if (compiled != null && layers.length == 0 && base.playsAlone()) {
+            computeCompiled(compiled);
+        } else {
+            for (int i = 0, size = hierarchy.size(); i < size; i++) {
+                computeBone(i);
+            }
+        }
+        computed = true;
+
+        for (int step = 0; step < steps; step++) {
+            // skipped ticks still fire their events
+            // and accumulate their root motion
+            collectEvents();
+            collectRootMotion();
+            advance();
+        }
+    }
+
+    /**
+     * Collects the animations that have events at the
+     * current tick of their layers, if there are listeners
+     */
+    private void collectEvents() {
+        if (listeners.length == 0) {
+            return;
+        }
+        collectEvents(base);
+        for (AnimationLayer layer : layers) {
+            collectEvents(layer);
+        }
+    }
+
+    private void collectEvents(AnimationLayer layer) {
+        Animation animation = layer.animation();
+        int tick = layer.tick();
+        if (animation == null || !animation.events().has(tick)) {
+            return;
+        }
+        if (eventCount == eventTicks.length) {
+            eventAnimations = Arrays.copyOf(eventAnimations, eventCount << 1);
+            eventTicks = Arrays.copyOf(eventTicks, eventCount << 1);
+        }
+        eventAnimations[eventCount] = animation;
+        eventTicks[eventCount] = tick;
+        eventCount++;
+    }
+
+    /**
+     * Accumulates the root motion of the base layer animation
+     * at its current tick, blended layers do not move the view
+     */
+    private void collectRootMotion() {
+        Animation animation = base.animation();
+        RootMotion rootMotion = animation == null ? null : animation.rootMotion();
+        if (rootMotion == null) {
+            return;
+        }
+        rootMotion.delta(base.tick(), rootMotionDelta, 0);
+        for (int i = 0; i < 3; i++) {
+            this.rootMotion[i] += rootMotionDelta[i];
+        }
+        hasRootMotion = true;
+    }
+
+    /**
+     * Fires the collected events to the listeners
+     */
+    private void fireEvents() {
+        int count = eventCount;
+        eventCount = 0;
+        for (int i = 0; i < count; i++) {
+            Animation animation = eventAnimations[i];
+            eventAnimations[i] = null;
+            List<AnimationEvent> events = animation.events().at(eventTicks[i]);
+            for (int j = 0, size = events.size(); j < size; j++) {
+                AnimationEvent event = events.get(j);
+                for (AnimationEventListener listener : listeners) {
+                    listener.onEvent(animation, event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances the playheads of all the layers by one tick
+     */
+    private void advance() {
+        if (base.advance()) {
+            // the animation finished
+            switch (base.animation().loopMode()) {
+                case ONCE:
+                    // last frames are removed so that next
+                    // ticks will use the initial frame
+                    base.clearFrames();
+                    nextAnimation(0);
+                    break;
+                case LOOP:
+                    base.seek(0);
+                    break;
+                case HOLD:
+                    nextAnimation(0);
+                    break;
+            }
+        }
 
-        Map<String, Timeline> framesByBone = new HashMap<>();
+        for (AnimationLayer layer : layers) {
+            if (layer.advance()) {
+                Animation animation = layer.animation();
+                switch (animation.loopMode()) {
+                    case ONCE:
+                        layer.clearFrames();
+                        layer.play(null, 0, false);
+                        break;
+                    case LOOP:
+                        layer.seek(0);
+                        break;
+                    case HOLD:
+                        layer.seek(animation.length());
+                        break;
+                }
+            }
+        }
+        removeStoppedLayers();
+    }
 
-        lastFrames.forEach((boneName, frame) -> {
-            Timeline keyFrames = framesByBone.computeIfAbsent(boneName, k -> Timeline.dynamic(animation.length()));
-            keyFrames.put(0, Timeline.Channel.POSITION, frame.position());
-            keyFrames.put(0, Timeline.Channel.ROTATION, frame.rotation());
-            keyFrames.put(0, Timeline.Channel.SCALE, frame.scale());
+    /**
+     * Applies the bone transforms computed by the last
+     * {@link NormalAnimationController#compute} call to
+     * the bone views, should be called from the thread
+     * owning the model view
+     */
+    synchronized void apply() {
+        if (!computed) {
+            return;
+        }
+        computed = false;
 
-            framesByBone.put(boneName, keyFrames);
-        });
+        BaseBoneView[] boneViews = this.boneViews;
+        if (boneViews == null) {
+            boneViews = new BaseBoneView[hierarchy.size()];
+            for (int i = 0; i < boneViews.length; i++) {
+                boneViews[i] = view.bone(hierarchy.bone(i).name());
+            }
+            this.boneViews = boneViews;
+        }
 
-        animation.timelines().forEach((boneName, frames) -> {
-            Iterator<KeyFrame> iterator = frames.iterator();
-            if (iterator.hasNext()) {
-                KeyFrame firstFrame = frames.iterator().next();
+        if (interval != appliedInterval) {
+            // bones interpolate during the ticks that are skipped
+            appliedInterval = interval;
+            for (BaseBoneView boneView : boneViews) {
+                if (boneView != null) {
+                    boneView.interpolationDuration(interval);
+                }
+            }
+        }
 
-                Timeline keyFrames = framesByBone.computeIfAbsent(boneName, k -> Timeline.dynamic(animation.length()));
-                keyFrames.put(transitionTicks, Timeline.Channel.POSITION, firstFrame.position());
-                keyFrames.put(transitionTicks, Timeline.Channel.ROTATION, firstFrame.rotation());
-                keyFrames.put(transitionTicks, Timeline.Channel.SCALE, firstFrame.scale());
+        for (int i = 0; i < boneViews.length; i++) {
+            BaseBoneView boneView = boneViews[i];
+            if (boneView == null || !(dirty[i] || scaleDirty[i])) {
+                continue;
             }
-        });
+            dirty[i] = false;
+            int p = i * 3;
+            int r = i * 4;
+            System.arraycopy(positions, p, appliedPositions, p, 3);
+            System.arraycopy(rotations, r, appliedRotations, r, 4);
+            position.set(positions[p], positions[p + 1], positions[p + 2]);
+            rotation.set(rotations[r], rotations[r + 1], rotations[r + 2], rotations[r + 3]);
+
+            if (scaleDirty[i]) {
+                scaleDirty[i] = false;
+                System.arraycopy(scales, p, appliedScales, p, 3);
+                boneView.update(position, rotation, scale.set(scales[p], scales[p + 1], scales[p + 2]));
+            } else {
+                boneView.update(position, rotation);
+            }
+        }
 
-        queue.addFirst(new Animation(
-                "generated-transition",
-                transitionTicks,
-                Animation.LoopMode.HOLD,
-                framesByBone
-        ));
+        if (hasRootMotion) {
+            hasRootMotion = false;
+            view.applyRootMotion(rootMotion[0], rootMotion[1], rootMotion[2]);
+            Arrays.fill(rootMotion, 0F);
+        }
 
-        queue.addFirst(animation);
-        nextAnimation();
+        if (eventCount > 0) {
+            fireEvents();
+        }
     }
 
-    private void tickBone(
-            double yaw,
-            Bone bone,
-            Quaternion parentRotation,
-            Vector3Float parentPosition
-    ) {
-        BaseBoneView boneView = view.bone(bone.name());
-        assert boneView != null;
+    private void computeCompiled(CompiledAnimation compiled) {
+        // the base layer is still sampled, so that its last
+        // frames are up-to-date for later transitions
+        for (int i = 0, size = hierarchy.size(); i < size; i++) {
+            base.sample(i, frame, 0);
+        }
 
-        KeyFrame frame = nextFrame(bone.name());
-        Vector3Float framePosition = frame.position();
-        Vector3Float frameRotation = frame.rotation();
+        compiled.read(base.tick(), positions, rotations);
+        compiled.readScales(base.tick(), scales);
 
-        Vector3Float defaultPosition = bone.position();
-        Vector3Float defaultRotation = bone.rotation();
+        // bones are computed again when leaving the compiled path
+        Arrays.fill(localFrames, Float.NaN);
+        for (int i = 0, size = hierarchy.size(); i < size; i++) {
+            changed[i] = true;
+            dirty[i] = isDirty(i);
+            scaleDirty[i] = isScaleDirty(i);
+        }
+    }
 
-        Vector3Float localPosition = defaultPosition.add(framePosition);
-        Vector3Float localRotation = defaultRotation.add(frameRotation);
+    private void computeBone(int index) {
+        Bone bone = hierarchy.bone(index);
+        float[] frame = this.frame;
 
-        Quaternion globalRotation = parentRotation.multiply(Quaternion.fromEulerDegrees(localRotation));
-        Vector3Float globalPosition = Vectors.rotateDegrees(
-                localPosition,
-                parentRotation.toEulerDegrees()
-        ).add(parentPosition);
+        // base layer frame, the last frame or the
+        // initial frame if it does not animate this bone
+        if (!base.sample(index, frame, 0)) {
+            hierarchy.initialFrame(index, frame, 0);
+        }
 
-        boneView.update(globalPosition, globalRotation);
+        // blend the other layers over the base frame
+        for (AnimationLayer layer : layers) {
+            float weight = layer.weight();
+            if (weight <= 0F || !layer.sample(index, frame, AnimationLayer.FRAME_SIZE)) {
+                continue;
+            }
+            AnimationLayer.blend(frame, 0, frame, AnimationLayer.FRAME_SIZE, weight, frame, 0, mathMode);
+        }
 
-        for (Bone child : bone.children()) {
-            tickBone(
-                    yaw,
-                    child,
-                    globalRotation,
-                    globalPosition
+        int parent = hierarchy.parent(index);
+        int localOffset = index * AnimationLayer.FRAME_SIZE;
+        if ((parent == Transforms.NO_PARENT || !changed[parent])
+                && Arrays.equals(frame, 0, AnimationLayer.FRAME_SIZE, localFrames, localOffset, localOffset + AnimationLayer.FRAME_SIZE)) {
+            // nothing changed, the previous transform is kept
+            changed[index] = false;
+            dirty[index] = isDirty(index);
+            scaleDirty[index] = isScaleDirty(index);
+            return;
+        }
+        System.arraycopy(frame, 0, localFrames, localOffset, AnimationLayer.FRAME_SIZE);
+        changed[index] = true;
+
+        Vector3Float defaultPosition = bone.position();
+        if (isUnscaled(frame, AnimationLayer.SCALE_OFFSET)
+                && (parent == Transforms.NO_PARENT || isUnscaled(scales, parent * 3))) {
+            // neither this bone nor its parent are scaled
+            Transforms.computeGlobal(
+                    positions,
+                    rotations,
+                    index,
+                    parent,
+                    defaultPosition.x() + frame[0],
+                    defaultPosition.y() + frame[1],
+                    defaultPosition.z() + frame[2],
+                    frame,
+                    AnimationLayer.ROTATION_OFFSET
+            );
+            int s = index * 3;
+            scales[s] = scales[s + 1] = scales[s + 2] = 1F;
+        } else {
+            Transforms.computeGlobal(
+                    positions,
+                    rotations,
+                    scales,
+                    index,
+                    parent,
+                    defaultPosition.x() + frame[0],
+                    defaultPosition.y() + frame[1],
+                    defaultPosition.z() + frame[2],
+                    frame,
+                    AnimationLayer.ROTATION_OFFSET,
+                    frame,
+                    AnimationLayer.SCALE_OFFSET
             );
         }
+        dirty[index] = isDirty(index);
+        scaleDirty[index] = isScaleDirty(index);
     }
 
-    @Override
-    public void clearQueue() {
-        queue.clear();
-        current = null;
+    private static boolean isUnscaled(float[] scales, int offset) {
+        return scales[offset] == 1F && scales[offset + 1] == 1F && scales[offset + 2] == 1F;
     }
 
-    @Override
-    public synchronized void tick(double yaw) {
-        Quaternion bodyRotation = /*Quaternion.fromEulerDegrees(new Vector3Float(0,  (float) (360 - yaw), 0))*/ Quaternion.IDENTITY;
-        for (Bone bone : view.model().bones()) {
-            tickBone(
-                    yaw,
-                    bone,
-                    bodyRotation,
-                    Vector3Float.ZERO
-            );
+    /**
+     * Determines whether the computed transform of the bone at the
+     * given {@code index} differs from the applied one, by more than
+     * {@link NormalAnimationController#UPDATE_EPSILON}
+     */
+    private boolean isDirty(int index) {
+        int p = index * 3;
+        for (int i = p; i < p + 3; i++) {
+            // also true if the applied position is NaN
+            if (!(Math.abs(positions[i] - appliedPositions[i]) <= UPDATE_EPSILON)) {
+                return true;
+            }
         }
+        int r = index * 4;
+        for (int i = r; i < r + 4; i++) {
+            if (Math.abs(rotations[i] - appliedRotations[i]) > UPDATE_EPSILON) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void nextAnimation() {
-        if ((current = queue.pollLast()) != null) {
-            createIterators(current);
+    /**
+     * Determines whether the computed scale of the bone at the
+     * given {@code index} differs from the applied one, by more
+     * than {@link NormalAnimationController#UPDATE_EPSILON}
+     */
+    private boolean isScaleDirty(int index) {
+        int s = index * 3;
+        for (int i = s; i < s + 3; i++) {
+            if (Math.abs(scales[i] - appliedScales[i]) > UPDATE_EPSILON) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void createIterators(Animation animation) {
-        iterators.clear();
-        animation.timelines().forEach((name, list) ->
-                iterators.put(name, list.iterator()));
+    private void nextAnimation(int fadeTicks) {
+        Animation animation = queue.pollLast();
+        base.play(animation, fadeTicks, true);
+        compiled = null;
+
+        if (animation != null) {
+            CompiledAnimation compiled = view.model().compiledAnimation(animation);
+            if (compiled != null && matches(compiled)) {
+                this.compiled = compiled;
+            }
+        }
     }
 
-    private KeyFrame nextFrame(String boneName) {
+    private boolean matches(CompiledAnimation compiled) {
+        if (compiled.boneCount() != hierarchy.size()) {
+            return false;
+        }
+        for (int i = 0; i < hierarchy.size(); i++) {
+            if (!compiled.boneName(i).equals(hierarchy.bone(i).name())) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (current == null) {
-            // if no animation currently being played,
-            // try poll one from the animation queue
-            nextAnimation();
-            if (current == null) {
-                // if queue was empty, the last frame or
-                // the initial keyframe is returned
-                return fallback(boneName);
-            }
-        }
-
-        Iterator<KeyFrame> iterator = iterators.get(boneName);
-
-        if (iterator != null && iterator.hasNext()) {
-            // if there are more key frames for current
-            // bone name
-            KeyFrame frame = iterator.next();
-            lastFrames.put(boneName, frame);
-
-            if (iterator.hasNext()) {
-                // if current bone animation iterator did not
-                // finish, use the current frame
-                return frame;
-            } else if (++noNext >= iterators.size()) {
-                // all iterators fully consumed, this means
-                // the animation finished
-                noNext = 0;
-                switch (current.loopMode()) {
-                    case ONCE:
-                        nextAnimation();
-                        // animation ended, lastFrames are removed
-                        // so that next calls will return INITIAL
-                        lastFrames.remove(boneName);
-                        return frame;
-                    case LOOP:
-                        createIterators(current);
-                        return frame;
-                    case HOLD:
-                        nextAnimation();
-                        return frame;
-                }
+    private @Nullable AnimationLayer layer(int index) {
+        for (AnimationLayer layer : layers) {
+            if (layer.index() == index) {
+                return layer;
             }
         }
+        return null;
+    }
 
-        return fallback(boneName);
+    private void addLayer(AnimationLayer layer) {
+        int position = 0;
+        while (position < layers.length && layers[position].index() < layer.index()) {
+            position++;
+        }
+        AnimationLayer[] newLayers = new AnimationLayer[layers.length + 1];
+        System.arraycopy(layers, 0, newLayers, 0, position);
+        newLayers[position] = layer;
+        System.arraycopy(layers, position, newLayers, position + 1, layers.length - position);
+        layers = newLayers;
     }
 
-    private KeyFrame fallback(String boneName) {
-        return lastFrames.getOrDefault(boneName, KeyFrame.INITIAL);
+    private void removeStoppedLayers() {
+        int count = 0;
+        for (AnimationLayer layer : layers) {
+            if (!layer.stopped()) {
+                count++;
+            }
+        }
+        if (count == layers.length) {
+            return;
+        }
+        AnimationLayer[] newLayers = new AnimationLayer[count];
+        int i = 0;
+        for (AnimationLayer layer : layers) {
+            if (!layer.stopped()) {
+                newLayers[i++] = layer;
+            }
+        }
+        layers = newLayers;
     }
 
-}
\ No newline at end of file
+}
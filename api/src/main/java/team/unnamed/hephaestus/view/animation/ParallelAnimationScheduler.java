@@ -0,0 +1,197 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import team.unnamed.hephaestus.view.BaseModelView;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+final class ParallelAnimationScheduler implements AnimationScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(AnimationScheduler.class.getName());
+
+    // maximum amount of views computed by a single task
+    private static final int BATCH_SIZE = 32;
+
+    private final ForkJoinPool pool;
+    private final Map<BaseModelView<?>, DoubleSupplier> views = new ConcurrentHashMap<>();
+
+    // snapshot of the registered views, only re-created
+    // when a view is registered or unregistered
+    private volatile boolean dirty;
+    private BaseModelView<?>[] snapshot = new BaseModelView<?>[0];
+    private DoubleSupplier[] yawSuppliers = new DoubleSupplier[0];
+    private double[] yaws = new double[0];
+    private int[] intervals = new int[0];
+    // views whose state could not be read this tick
+    private boolean[] failed = new boolean[0];
+
+    ParallelAnimationScheduler(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    @Override
+    public void register(BaseModelView<?> view, DoubleSupplier yaw) {
+        Objects.requireNonNull(view, "view");
+        Objects.requireNonNull(yaw, "yaw");
+        views.put(view, yaw);
+        dirty = true;
+    }
+
+    @Override
+    public boolean unregister(BaseModelView<?> view) {
+        boolean removed = views.remove(view) != null;
+        if (removed) {
+            dirty = true;
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized void tick() {
+        if (dirty) {
+            dirty = false;
+            int size = views.size();
+            BaseModelView<?>[] snapshot = new BaseModelView<?>[size];
+            DoubleSupplier[] yawSuppliers = new DoubleSupplier[size];
+            int count = 0;
+            for (Map.Entry<BaseModelView<?>, DoubleSupplier> entry : views.entrySet()) {
+                if (count == size) {
+                    // registered while copying, picked up the next tick
+                    dirty = true;
+                    break;
+                }
+                snapshot[count] = entry.getKey();
+                yawSuppliers[count] = entry.getValue();
+                count++;
+            }
+            this.snapshot = Arrays.copyOf(snapshot, count);
+            this.yawSuppliers = Arrays.copyOf(yawSuppliers, count);
+            this.yaws = new double[count];
+            this.intervals = new int[count];
+            this.failed = new boolean[count];
+        }
+
+        // the view state is only read in the current thread,
+        // the compute phase only uses the read values
+        int count = snapshot.length;
+        for (int i = 0; i < count; i++) {
+            try {
+                yaws[i] = yawSuppliers[i].getAsDouble();
+                AnimationController controller = snapshot[i].animationController();
+                if (controller instanceof NormalAnimationController) {
+                    intervals[i] = ((NormalAnimationController) controller).lodInterval();
+                }
+                failed[i] = false;
+            } catch (RuntimeException e) {
+                // the view is skipped this tick
+                failed[i] = true;
+                LOGGER.log(Level.WARNING, "Failed to read the state of view " + snapshot[i], e);
+            }
+        }
+
+        // compute phase, in parallel, failures are
+        // logged per view, so they do not escape here
+        if (count > 0) {
+            pool.invoke(new ComputeTask(snapshot, yaws, intervals, failed, 0, count));
+        }
+
+        // apply phase, in the current thread
+        for (int i = 0; i < count; i++) {
+            if (failed[i]) {
+                continue;
+            }
+            try {
+                AnimationController controller = snapshot[i].animationController();
+                if (controller instanceof NormalAnimationController) {
+                    ((NormalAnimationController) controller).apply();
+                } else {
+                    // unknown controller, can't be split in phases
+                    controller.tick(yaws[i]);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to apply the animations of view " + snapshot[i], e);
+            }
+        }
+    }
+
+    private static final class ComputeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BaseModelView<?>[] views;
+        private final double[] yaws;
+        private final int[] intervals;
+        private final boolean[] failed;
+        private final int from;
+        private final int to;
+
+        ComputeTask(BaseModelView<?>[] views, double[] yaws, int[] intervals, boolean[] failed, int from, int to) {
+            this.views = views;
+            this.yaws = yaws;
+            this.intervals = intervals;
+            this.failed = failed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    if (failed[i]) {
+                        continue;
+                    }
+                    try {
+                        AnimationController controller = views[i].animationController();
+                        if (controller instanceof NormalAnimationController) {
+                            ((NormalAnimationController) controller).compute(yaws[i], intervals[i]);
+                        }
+                    } catch (RuntimeException e) {
+                        // one view must not stop the others, its
+                        // frames are not applied this tick
+                        failed[i] = true;
+                        LOGGER.log(Level.WARNING, "Failed to compute the animations of view " + views[i], e);
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ComputeTask(views, yaws, intervals, failed, from, middle),
+                        new ComputeTask(views, yaws, intervals, failed, middle, to)
+                );
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.writer;
+
+import team.unnamed.creative.ResourcePack;
+import team.unnamed.hephaestus.Model;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * {@link ModelWriter} that keeps track of the models it already
+ * wrote to a {@link ResourcePack}, so that models can be added,
+ * replaced or removed without writing all the other models again
+ *
+ * <p>Instances must always be used with the same resource pack</p>
+ *
+ * @see ModelWriter#incremental(String)
+ * @since 1.0.0
+ */
+public interface IncrementalModelWriter extends ModelWriter<ResourcePack> {
+
+    /**
+     * Writes the given {@code models} to the given {@code target},
+     * models with the same name as previously written models replace
+     * them, other previously written models are kept
+     *
+     * <p>If any of the models can not be written, the resource
+     * pack and the written models are left as they were</p>
+     *
+     * @param target The resource pack
+     * @param models The models to add or replace
+     * @since 1.0.0
+     */
+    @Override
+    void write(ResourcePack target, Collection<Model> models);
+
+    /**
+     * Writes the given {@code model} to the given {@code target},
+     * replacing the previously written model with the same name,
+     * if any
+     *
+     * @param target The resource pack
+     * @param model The model to add or replace
+     * @since 1.0.0
+     */
+    default void write(ResourcePack target, Model model) {
+        write(target, Collections.singletonList(model));
+    }
+
+    /**
+     * Removes the previously written model with the given
+     * {@code name} from the given {@code target}
+     *
+     * @param target The resource pack
+     * @param name The model name
+     * @return True if the model was removed, false if
+     * there was no model with the given name
+     * @since 1.0.0
+     */
+    boolean remove(ResourcePack target, String name);
+
+}
@@ -0,0 +1,271 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.writer;
+
+import net.kyori.adventure.key.Key;
+import team.unnamed.creative.ResourcePack;
+import team.unnamed.creative.atlas.AtlasSource;
+import team.unnamed.creative.model.ItemOverride;
+import team.unnamed.creative.texture.Texture;
+import team.unnamed.hephaestus.Model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementation of {@link IncrementalModelWriter} that writes
+ * {@link Model} instances to a {@link ResourcePack}, same as
+ * {@link ResourceModelWriter}, keeping the written state
+ *
+ * <p>Only the files of the added, replaced or removed models are
+ * written or removed. The shared item model and the blocks atlas
+ * are always written again, but their overrides and sources are
+ * kept sorted, so new overrides are merged instead of sorting all
+ * of them</p>
+ *
+ * @since 1.0.0
+ */
+final class IncrementalResourceModelWriter implements IncrementalModelWriter {
+
+    private final ResourceModelWriter delegate;
+
+    // written models by name
+    private final Map<String, WrittenModel> written = new HashMap<>();
+
+    // overrides of all the written models, sorted by custom model data
+    private final List<ItemOverride> overrides = new ArrayList<>();
+
+    // atlas sources by model name, in the order they were added
+    private final Map<String, AtlasSource> sources = new LinkedHashMap<>();
+
+    IncrementalResourceModelWriter(ResourceModelWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void write(ResourcePack resourcePack, Collection<Model> models) {
+        Objects.requireNonNull(resourcePack, "resourcePack");
+        Objects.requireNonNull(models, "models");
+
+        List<Model> batch = new ArrayList<>(models);
+        for (Model model : batch) {
+            if (model.asset() == null) {
+                // fail before writing anything, so the written state is kept
+                throw new IllegalArgumentException("Model '"
+                        + model.name() + "' does not have a model asset," +
+                        " resource pack data already discarded?");
+            }
+        }
+
+        // the files of the replaced models, restored if writing fails
+        Map<Key, Texture> previousTextures = new HashMap<>();
+        Map<Key, team.unnamed.creative.model.Model> previousModels = new HashMap<>();
+
+        // all the models are written before changing the written
+        // state, so that a failure does not leave it half updated
+        List<WrittenModel> pending = new ArrayList<>(batch.size());
+        try {
+            for (Model model : batch) {
+                WrittenModel previous = written.get(model.name());
+                if (previous != null) {
+                    for (Key texture : previous.textures) {
+                        previousTextures.putIfAbsent(texture, resourcePack.texture(texture));
+                    }
+                    for (Key boneModel : previous.boneModels()) {
+                        previousModels.putIfAbsent(boneModel, resourcePack.model(boneModel));
+                    }
+                }
+
+                Set<Key> textures = new HashSet<>();
+                for (String texture : model.asset().textures().keySet()) {
+                    textures.add(delegate.textureKey(model, texture));
+                }
+                WrittenModel writing = new WrittenModel(textures, new ArrayList<>());
+                pending.add(writing);
+                delegate.writeModel(resourcePack, model, writing.overrides);
+            }
+        } catch (RuntimeException e) {
+            // remove what was written and restore the replaced files,
+            // the written state and the shared files were not changed
+            for (WrittenModel writing : pending) {
+                removeFiles(resourcePack, writing);
+            }
+            for (Texture texture : previousTextures.values()) {
+                if (texture != null) {
+                    resourcePack.texture(texture);
+                }
+            }
+            for (team.unnamed.creative.model.Model boneModel : previousModels.values()) {
+                if (boneModel != null) {
+                    resourcePack.model(boneModel);
+                }
+            }
+            throw e;
+        }
+
+        Set<ItemOverride> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ItemOverride> added = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            Model model = batch.get(i);
+            WrittenModel writing = pending.get(i);
+            WrittenModel previous = written.put(model.name(), writing);
+            if (previous != null) {
+                // remove the files the new version does not overwrite
+                Set<Key> boneModels = writing.boneModels();
+                for (Key texture : previous.textures) {
+                    if (!writing.textures.contains(texture)) {
+                        resourcePack.removeTexture(texture);
+                    }
+                }
+                for (Key boneModel : previous.boneModels()) {
+                    if (!boneModels.contains(boneModel)) {
+                        resourcePack.removeModel(boneModel);
+                    }
+                }
+                replaced.addAll(previous.overrides);
+            }
+
+            added.addAll(writing.overrides);
+            sources.putIfAbsent(model.name(), ResourceModelWriter.atlasSource(model));
+        }
+
+        if (!replaced.isEmpty()) {
+            overrides.removeIf(replaced::contains);
+            // a model may be replaced by another one in the same call
+            added.removeIf(replaced::contains);
+        }
+        merge(added);
+
+        writeShared(resourcePack);
+    }
+
+    @Override
+    public synchronized boolean remove(ResourcePack resourcePack, String name) {
+        Objects.requireNonNull(resourcePack, "resourcePack");
+        Objects.requireNonNull(name, "name");
+
+        WrittenModel previous = written.remove(name);
+        if (previous == null) {
+            return false;
+        }
+
+        removeFiles(resourcePack, previous);
+
+        Set<ItemOverride> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(previous.overrides);
+        overrides.removeIf(removed::contains);
+        sources.remove(name);
+
+        writeShared(resourcePack);
+        return true;
+    }
+
+    /**
+     * Merges the given {@code added} overrides into the sorted
+     * overrides list, only the added overrides are sorted
+     */
+    private void merge(List<ItemOverride> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        added.sort(ResourceModelWriter.OVERRIDE_ORDER);
+
+        int last = overrides.size() - 1;
+        if (last == -1 || ResourceModelWriter.OVERRIDE_ORDER.compare(overrides.get(last), added.get(0)) <= 0) {
+            // the usual case, new models use greater custom model data
+            overrides.addAll(added);
+            return;
+        }
+
+        List<ItemOverride> merged = new ArrayList<>(overrides.size() + added.size());
+        int i = 0;
+        int j = 0;
+        while (i < overrides.size() && j < added.size()) {
+            if (ResourceModelWriter.OVERRIDE_ORDER.compare(overrides.get(i), added.get(j)) <= 0) {
+                merged.add(overrides.get(i++));
+            } else {
+                merged.add(added.get(j++));
+            }
+        }
+        merged.addAll(overrides.subList(i, overrides.size()));
+        merged.addAll(added.subList(j, added.size()));
+
+        overrides.clear();
+        overrides.addAll(merged);
+    }
+
+    private static void removeFiles(ResourcePack resourcePack, WrittenModel model) {
+        for (Key texture : model.textures) {
+            resourcePack.removeTexture(texture);
+        }
+        for (ItemOverride override : model.overrides) {
+            resourcePack.removeModel(override.model());
+        }
+    }
+
+    private void writeShared(ResourcePack resourcePack) {
+        // copied, the written models must not see later changes
+        ResourceModelWriter.writeOverrides(resourcePack, new ArrayList<>(overrides));
+        ResourceModelWriter.writeAtlas(resourcePack, new ArrayList<>(sources.values()));
+    }
+
+    /**
+     * The keys and overrides written for a single model, used
+     * to remove them when the model is replaced or removed
+     */
+    private static final class WrittenModel {
+
+        private final Set<Key> textures;
+        private final List<ItemOverride> overrides;
+
+        WrittenModel(Set<Key> textures, List<ItemOverride> overrides) {
+            this.textures = textures;
+            this.overrides = overrides;
+        }
+
+        /**
+         * Returns the keys of the bone models, every
+         * bone model has its own override
+         */
+        Set<Key> boneModels() {
+            Set<Key> boneModels = new HashSet<>();
+            for (ItemOverride override : overrides) {
+                boneModels.add(override.model());
+            }
+            return boneModels;
+        }
+
+    }
+
+}
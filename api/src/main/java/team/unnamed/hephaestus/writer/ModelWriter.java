@@ -72,4 +72,33 @@ public interface ModelWriter<T> {
         return new ResourceModelWriter();
     }
 
+    /**
+     * Creates a new {@link IncrementalModelWriter} instance that
+     * writes {@link Model} instances to a final resource pack
+     * represented by {@link ResourcePack}, keeping track of the
+     * written models, so they can be added, replaced or removed
+     * later without writing all the models again
+     *
+     * @param namespace The models namespace
+     * @return The created {@link IncrementalModelWriter} instance
+     * @since 1.0.0
+     */
+    static IncrementalModelWriter incremental(String namespace) {
+        return new IncrementalResourceModelWriter(new ResourceModelWriter(namespace));
+    }
+
+    /**
+     * Creates a new {@link IncrementalModelWriter} instance that
+     * writes {@link Model} instances to a final resource pack
+     * represented by {@link ResourcePack}, keeping track of the
+     * written models
+     *
+     * @return The created {@link IncrementalModelWriter} instance
+     * @see #incremental(String)
+     * @since 1.0.0
+     */
+    static IncrementalModelWriter incremental() {
+        return new IncrementalResourceModelWriter(new ResourceModelWriter());
+    }
+
 }
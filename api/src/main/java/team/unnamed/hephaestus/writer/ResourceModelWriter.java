@@ -70,6 +70,10 @@ final class ResourceModelWriter implements ModelWriter<ResourcePack> {
 
     public static final float DISPLAY_TRANSLATION_Y = -6.4f;
 
+    // overrides are sorted comparing by customModelData
+    static final Comparator<ItemOverride> OVERRIDE_ORDER
+            = Comparator.comparingInt(ResourceModelWriter::customModelData);
+
     @Subst(DEFAULT_NAMESPACE) private final String namespace;
 
     ResourceModelWriter(@Subst(DEFAULT_NAMESPACE) String namespace) {
@@ -115,37 +119,63 @@ final class ResourceModelWriter implements ModelWriter<ResourcePack> {
         List<AtlasSource> sources = new ArrayList<>();
 
         for (Model model : models) {
-            ModelAsset asset = model.asset();
-
-            if (asset == null) {
-                throw new IllegalArgumentException("Model '"
-                        + model.name() + "' does not have a model asset," +
-                        " resource pack data already discarded?");
-            }
-
-            // write textures from this model
-            for (Map.Entry<String, Writable> texture : asset.textures().entrySet()) {
-                @Subst("model/texture") String path = model.name() + '/' + texture.getKey();
-
-                // write the texture
-                resourcePack.texture(Texture.builder()
-                        .key(Key.key(namespace, path))
-                        .data(texture.getValue())
-                        .build()
-                );
-            }
-
-            // write all the model bones
-            writeBones(resourcePack, asset, overrides, asset.bones());
-            sources.add(AtlasSource.directory(model.name(), model.name() + "/"));
+            writeModel(resourcePack, model, overrides);
+            sources.add(atlasSource(model));
         }
 
-        // sort overrides comparing by customModelData
-        overrides.sort(Comparator.comparing(override -> {
-            ItemPredicate predicate = override.predicate().get(0);
-            return (Integer) predicate.value();
-        }));
+        overrides.sort(OVERRIDE_ORDER);
+
+        writeOverrides(resourcePack, overrides);
+        writeAtlas(resourcePack, sources);
+    }
+
+    /**
+     * Writes the textures and the bone models of the given
+     * {@code model}, and adds the overrides for its bones to
+     * the given {@code overrides} collection
+     */
+    void writeModel(ResourcePack resourcePack, Model model, Collection<ItemOverride> overrides) {
+        ModelAsset asset = model.asset();
 
+        if (asset == null) {
+            throw new IllegalArgumentException("Model '"
+                    + model.name() + "' does not have a model asset," +
+                    " resource pack data already discarded?");
+        }
+
+        // write textures from this model
+        for (Map.Entry<String, Writable> texture : asset.textures().entrySet()) {
+            // write the texture
+            resourcePack.texture(Texture.builder()
+                    .key(textureKey(model, texture.getKey()))
+                    .data(texture.getValue())
+                    .build()
+            );
+        }
+
+        // write all the model bones
+        writeBones(resourcePack, asset, overrides, asset.bones());
+    }
+
+    Key textureKey(Model model, String textureName) {
+        @Subst("model/texture") String path = model.name() + '/' + textureName;
+        return Key.key(namespace, path);
+    }
+
+    static AtlasSource atlasSource(Model model) {
+        return AtlasSource.directory(model.name(), model.name() + "/");
+    }
+
+    static int customModelData(ItemOverride override) {
+        ItemPredicate predicate = override.predicate().get(0);
+        return (Integer) predicate.value();
+    }
+
+    /**
+     * Writes the item model holding the given {@code overrides},
+     * which must be sorted by {@link #OVERRIDE_ORDER}
+     */
+    static void writeOverrides(ResourcePack resourcePack, List<ItemOverride> overrides) {
         resourcePack.model(team.unnamed.creative.model.Model.builder()
                 .key(LEATHER_HORSE_ARMOR_KEY)
                 .parent(team.unnamed.creative.model.Model.ITEM_HANDHELD)
@@ -157,7 +187,9 @@ final class ResourceModelWriter implements ModelWriter<ResourcePack> {
                 .overrides(overrides)
                 .build()
         );
+    }
 
+    static void writeAtlas(ResourcePack resourcePack, List<AtlasSource> sources) {
         resourcePack.atlas(Atlas.builder()
                 .key(Atlas.BLOCKS)
                 .sources(sources)
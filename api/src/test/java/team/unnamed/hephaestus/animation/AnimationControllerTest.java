@@ -30,13 +30,20 @@ import team.unnamed.creative.base.Vector2Float;
 import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.Bone;
 import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.util.Quaternion;
+import team.unnamed.hephaestus.util.Vectors;
 import team.unnamed.hephaestus.view.BaseBoneView;
 import team.unnamed.hephaestus.view.MockBoneView;
 import team.unnamed.hephaestus.view.MockModelView;
 import team.unnamed.hephaestus.view.animation.AnimationController;
+import team.unnamed.hephaestus.view.animation.AnimationEventListener;
+import team.unnamed.hephaestus.view.animation.AnimationLodPolicy;
+import team.unnamed.hephaestus.view.animation.LayeredAnimationController;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class AnimationControllerTest {
@@ -48,7 +55,7 @@ public class AnimationControllerTest {
 
     private static final String BONE_NAME = "bone";
 
-    private AnimationController controller;
+    private LayeredAnimationController controller;
     private MockBoneView bone;
 
     @BeforeEach
@@ -68,38 +75,38 @@ public class AnimationControllerTest {
         bones.put(baseBone.name(), baseBone);
         views.put(baseBone.name(), bone);
 
-        controller = AnimationController.nonDelayed(new MockModelView(
+        controller = LayeredAnimationController.layered(new MockModelView(
                 new Model("test", bones, Vector2Float.ZERO, null, Collections.emptyMap()),
                 controller,
                 views
         ));
     }
 
-//    @Test
-//    public void test_loop_loop_mode() {
-//        queue(Animation.LoopMode.LOOP);
-//
-//        // consumes all
-//        consumeAll();
-//        check(END);
-//
-//        // starts again
-//        consume();
-//        check(START);
-//    }
-
-//    @Test
-//    public void test_once_loop_mode() {
-//        queue(Animation.LoopMode.ONCE);
-//
-//        // finishes
-//        consumeAll();
-//        check(END);
-//
-//        // extra
-//        consume();
-//        check(bone.bone().position());
-//    }
+    @Test
+    public void test_loop_loop_mode() {
+        queue(Animation.LoopMode.LOOP);
+
+        // consumes all
+        consumeAll();
+        check(END);
+
+        // starts again
+        consume();
+        check(START);
+    }
+
+    @Test
+    public void test_once_loop_mode() {
+        queue(Animation.LoopMode.ONCE);
+
+        // finishes
+        consumeAll();
+        check(END);
+
+        // extra
+        consume();
+        check(bone.bone().position());
+    }
 
     @Test
     public void test_hold_loop_mode() {
@@ -114,6 +121,328 @@ public class AnimationControllerTest {
         check(END);
     }
 
+    @Test
+    public void test_unchanged_bones_are_not_updated() {
+        queue(Animation.LoopMode.HOLD);
+        consumeAll();
+        check(END);
+
+        int updateCount = bone.updateCount();
+        consume();
+        consume();
+        check(END);
+        Assertions.assertEquals(updateCount, bone.updateCount());
+    }
+
+    @Test
+    public void test_lod_policy() {
+        queue(Animation.LoopMode.LOOP);
+        controller.lodPolicy(view -> 2);
+
+        consume();
+        Assertions.assertNull(bone.position());
+        consume();
+        check(START);
+        consume();
+        check(START);
+        consume();
+        check(new Vector3Float(0.02F, 0.02F, 0.02F));
+
+        // frozen, the animation does not advance
+        controller.lodPolicy(view -> AnimationLodPolicy.FROZEN);
+        consume();
+        consume();
+        check(new Vector3Float(0.02F, 0.02F, 0.02F));
+
+        controller.lodPolicy(AnimationLodPolicy.fullRate());
+        consume();
+        check(new Vector3Float(0.04F, 0.04F, 0.04F));
+    }
+
+    @Test
+    public void test_transition_cross_fade() {
+        queue(Animation.LoopMode.HOLD);
+        consumeAll();
+        check(END);
+
+        controller.queue(constant(START), 4);
+        for (int tick = 0; tick < 4; tick++) {
+            consume();
+            float expected = 1F - tick / 4F;
+            check(new Vector3Float(expected, expected, expected));
+        }
+        consume();
+        check(START);
+    }
+
+    @Test
+    public void test_layer_blending() {
+        queue(Animation.LoopMode.HOLD);
+        consumeAll();
+        check(END);
+
+        Vector3Float layerPosition = new Vector3Float(4, 0, 0);
+        controller.play(1, constant(layerPosition), 0.5F, null, 0);
+        consume();
+        check(new Vector3Float(2.5F, 0.5F, 0.5F));
+
+        // masked out
+        controller.play(1, constant(layerPosition), 0.5F, Collections.singleton("other"), 0);
+        consume();
+        check(END);
+
+        // full weight, fades in
+        controller.play(2, constant(layerPosition), 1F, null, 2);
+        consume();
+        check(END);
+        consume();
+        check(new Vector3Float(2.5F, 0.5F, 0.5F));
+        consume();
+        check(layerPosition);
+
+        // fades out
+        controller.stop(2, 2);
+        consume();
+        check(layerPosition);
+        consume();
+        check(new Vector3Float(2.5F, 0.5F, 0.5F));
+        consume();
+        check(END);
+    }
+
+    @Test
+    public void test_bone_hierarchy() {
+        Bone grandchild = new Bone("grandchild", new Vector3Float(0, 1, 0), new Vector3Float(0, 0, 30), Collections.emptyMap(), false, 0);
+        Bone child = new Bone("child", new Vector3Float(0, 0, 2), new Vector3Float(45, 0, 0), Map.of("grandchild", grandchild), false, 0);
+        Bone root = new Bone("root", new Vector3Float(1, 0, 0), new Vector3Float(0, 90, 0), Map.of("child", child), false, 0);
+
+        Map<String, BaseBoneView> views = new HashMap<>();
+        for (Bone bone : new Bone[] { root, child, grandchild }) {
+            views.put(bone.name(), new MockBoneView(bone));
+        }
+
+        MockModelView view = new MockModelView(
+                new Model("test", Map.of("root", root), Vector2Float.ZERO, null, Collections.emptyMap()),
+                views
+        );
+        view.tickAnimations();
+
+        checkHierarchy(views, root, Quaternion.IDENTITY, Vector3Float.ZERO);
+    }
+
+    @Test
+    public void test_compiled_animation() {
+        Bone child = new Bone("child", new Vector3Float(0, 0, 2), new Vector3Float(45, 0, 0), Collections.emptyMap(), false, 0);
+        Bone root = new Bone("root", new Vector3Float(1, 0, 0), Vector3Float.ZERO, Map.of("child", child), false, 0);
+
+        Timeline rootTimeline = Timeline.dynamic(LENGTH);
+        rootTimeline.put(0, Timeline.Channel.ROTATION, Vector3Float.ZERO);
+        rootTimeline.put(LENGTH, Timeline.Channel.ROTATION, new Vector3Float(0, 180, 0));
+        Timeline childTimeline = Timeline.dynamic(LENGTH);
+        childTimeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        childTimeline.put(LENGTH, Timeline.Channel.POSITION, new Vector3Float(0, 4, 0));
+
+        Animation animation = new Animation("compiled", LENGTH, Animation.LoopMode.ONCE,
+                Map.of("root", rootTimeline, "child", childTimeline));
+
+        Model compiledModel = new Model("compiled", Map.of("root", root), Vector2Float.ZERO, null, Map.of("compiled", animation));
+        Model liveModel = new Model("live", Map.of("root", root), Vector2Float.ZERO, null, Map.of("compiled", animation));
+        compiledModel.compileAnimations();
+        Assertions.assertNotNull(compiledModel.compiledAnimation(animation));
+        Assertions.assertNull(liveModel.compiledAnimation(animation));
+
+        Map<String, BaseBoneView> compiledViews = new HashMap<>();
+        Map<String, BaseBoneView> liveViews = new HashMap<>();
+        for (Bone bone : new Bone[] { root, child }) {
+            compiledViews.put(bone.name(), new MockBoneView(bone));
+            liveViews.put(bone.name(), new MockBoneView(bone));
+        }
+
+        MockModelView compiledView = new MockModelView(compiledModel, compiledViews);
+        MockModelView liveView = new MockModelView(liveModel, liveViews);
+        compiledView.animationController().queue(animation);
+        liveView.animationController().queue(animation);
+
+        for (int tick = 0; tick <= LENGTH; tick++) {
+            compiledView.tickAnimations();
+            liveView.tickAnimations();
+            for (String name : compiledViews.keySet()) {
+                MockBoneView expected = (MockBoneView) liveViews.get(name);
+                MockBoneView actual = (MockBoneView) compiledViews.get(name);
+                Assertions.assertTrue(Vectors.equals(expected.position(), actual.position(), 1E-5), name + " at " + tick);
+                Assertions.assertTrue(expected.rotation().equals(actual.rotation(), 1E-6), name + " at " + tick);
+            }
+        }
+    }
+
+    @Test
+    public void test_scale_hierarchy() {
+        Bone child = new Bone("child", new Vector3Float(0, 0, 2), Vector3Float.ZERO, Collections.emptyMap(), false, 0);
+        Bone root = new Bone("root", Vector3Float.ZERO, Vector3Float.ZERO, Map.of("child", child), false, 0);
+
+        Timeline rootTimeline = Timeline.dynamic(LENGTH);
+        rootTimeline.put(0, Timeline.Channel.SCALE, Vector3Float.ONE);
+        rootTimeline.put(LENGTH, Timeline.Channel.SCALE, new Vector3Float(3, 3, 3));
+        Timeline childTimeline = Timeline.dynamic(LENGTH);
+        childTimeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        childTimeline.put(LENGTH, Timeline.Channel.POSITION, new Vector3Float(0, 4, 0));
+
+        Animation animation = new Animation("scale", LENGTH, Animation.LoopMode.HOLD,
+                Map.of("root", rootTimeline, "child", childTimeline));
+        Model model = new Model("scale", Map.of("root", root), Vector2Float.ZERO, null, Map.of("scale", animation));
+
+        Map<String, BaseBoneView> views = new HashMap<>();
+        MockBoneView rootView = new MockBoneView(root);
+        MockBoneView childView = new MockBoneView(child);
+        views.put("root", rootView);
+        views.put("child", childView);
+
+        MockModelView view = new MockModelView(model, views);
+        view.animationController().queue(animation);
+
+        // first tick, nothing is scaled
+        view.tickAnimations();
+        Assertions.assertEquals(0, rootView.scaleUpdateCount());
+        Assertions.assertEquals(0, childView.scaleUpdateCount());
+
+        for (int tick = 1; tick <= LENGTH / 2; tick++) {
+            view.tickAnimations();
+        }
+
+        // the child inherits the root scale, and its position is scaled
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(2, 2, 2), rootView.scale(), 1E-5), "root scale");
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(2, 2, 2), childView.scale(), 1E-5), "child scale");
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(0, 4, 4), childView.position(), 1E-5), "child position");
+    }
+
+    @Test
+    public void test_root_motion() {
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(LENGTH, Timeline.Channel.POSITION, new Vector3Float(5, 1, 10));
+        Animation animation = new Animation("walk", LENGTH, Animation.LoopMode.LOOP, Map.of(BONE_NAME, timeline))
+                .withRootMotion(BONE_NAME);
+        Assertions.assertNotNull(animation.rootMotion());
+
+        Bone baseBone = new Bone(BONE_NAME, Vector3Float.ZERO, Vector3Float.ZERO, Collections.emptyMap(), false, 0);
+        MockBoneView boneView = new MockBoneView(baseBone);
+        MockModelView view = new MockModelView(
+                new Model("walk", Map.of(BONE_NAME, baseBone), Vector2Float.ZERO, null, Map.of("walk", animation)),
+                Map.of(BONE_NAME, boneView)
+        );
+        view.animationController().queue(animation);
+
+        for (int tick = 0; tick <= LENGTH / 2; tick++) {
+            view.tickAnimations();
+        }
+
+        // the horizontal translation moves the view, not the bone
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(2.5F, 0, 5), view.rootMotion(), 1E-4), "root motion");
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(0, 0.5F, 0), boneView.position(), 1E-5), "bone position");
+
+        // a whole loop moves the view by the whole translation
+        for (int tick = LENGTH / 2 + 1; tick <= LENGTH * 2 + 1; tick++) {
+            view.tickAnimations();
+        }
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(10, 0, 20), view.rootMotion(), 1E-4), "looped root motion");
+    }
+
+    @Test
+    public void test_root_motion_start_offset() {
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, new Vector3Float(3, 0, 4));
+        timeline.put(LENGTH, Timeline.Channel.POSITION, new Vector3Float(8, 1, 14));
+        Animation animation = new Animation("walk", LENGTH, Animation.LoopMode.LOOP, Map.of(BONE_NAME, timeline))
+                .withRootMotion(BONE_NAME);
+
+        Bone baseBone = new Bone(BONE_NAME, Vector3Float.ZERO, Vector3Float.ZERO, Collections.emptyMap(), false, 0);
+        MockBoneView boneView = new MockBoneView(baseBone);
+        MockModelView view = new MockModelView(
+                new Model("walk", Map.of(BONE_NAME, baseBone), Vector2Float.ZERO, null, Map.of("walk", animation)),
+                Map.of(BONE_NAME, boneView)
+        );
+        view.animationController().queue(animation);
+
+        for (int tick = 0; tick <= LENGTH / 2; tick++) {
+            view.tickAnimations();
+        }
+
+        // the first tick offset stays on the bone, only the
+        // translation from the first tick moves the view
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(2.5F, 0, 5), view.rootMotion(), 1E-4), "root motion");
+        Assertions.assertTrue(Vectors.equals(new Vector3Float(3, 0.5F, 4), boneView.position(), 1E-5), "bone position");
+    }
+
+    @Test
+    public void test_animation_events() {
+        AnimationEvent step = AnimationEvent.of(10, AnimationEvent.Type.SOUND, "entity.step");
+        AnimationEvent hit = AnimationEvent.of(50, AnimationEvent.Type.TIMELINE, "hit");
+        AnimationEvent swing = AnimationEvent.of(50, AnimationEvent.Type.PARTICLE, "swing");
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, START);
+        Animation animation = new Animation("events", LENGTH, Animation.LoopMode.LOOP,
+                Map.of(BONE_NAME, timeline), EventTimeline.of(List.of(swing, step, hit)));
+
+        Assertions.assertTrue(animation.events().has(50));
+        Assertions.assertFalse(animation.events().has(11));
+        Assertions.assertEquals(List.of(step, swing, hit), animation.events().events());
+
+        List<AnimationEvent> fired = new ArrayList<>();
+        controller.addEventListener((played, event) -> {
+            Assertions.assertSame(animation, played);
+            fired.add(event);
+        });
+        controller.queue(animation);
+
+        // ticks 0 to 10
+        for (int i = 0; i <= 10; i++) {
+            consume();
+        }
+        Assertions.assertEquals(List.of(step), fired);
+
+        // skipped ticks still fire their events
+        controller.lodPolicy(view -> 4);
+        for (int i = 11; i <= LENGTH; i++) {
+            consume();
+        }
+        Assertions.assertEquals(List.of(step, swing, hit), fired);
+
+        fired.clear();
+        controller.lodPolicy(AnimationLodPolicy.fullRate());
+        for (int i = 0; i <= LENGTH + 4; i++) {
+            consume();
+        }
+        Assertions.assertEquals(List.of(step, swing, hit), fired);
+    }
+
+    @Test
+    public void test_default_methods() {
+        AnimationController minimal = new MinimalAnimationController();
+        AnimationEventListener listener = (played, event) -> {};
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> minimal.addEventListener(listener));
+        Assertions.assertDoesNotThrow(() -> minimal.removeEventListener(listener));
+        Assertions.assertDoesNotThrow(() -> minimal.lodPolicy(AnimationLodPolicy.fullRate()));
+    }
+
+    private void checkHierarchy(
+            Map<String, BaseBoneView> views,
+            Bone bone,
+            Quaternion parentRotation,
+            Vector3Float parentPosition
+    ) {
+        Quaternion rotation = parentRotation.multiply(Quaternion.fromEulerDegrees(bone.rotation()));
+        Vector3Float position = Vectors.rotateDegrees(bone.position(), parentRotation.toEulerDegrees())
+                .add(parentPosition);
+
+        MockBoneView boneView = (MockBoneView) views.get(bone.name());
+        Assertions.assertTrue(Vectors.equals(position, boneView.position(), 1E-5), bone.name());
+        Assertions.assertTrue(rotation.equals(boneView.rotation(), 1E-6), bone.name());
+
+        for (Bone child : bone.children()) {
+            checkHierarchy(views, child, rotation, position);
+        }
+    }
+
     private void queue(Animation.LoopMode loopMode) {
         Timeline timeline = Timeline.dynamic(LENGTH);
         timeline.put(0, Timeline.Channel.POSITION, START);
@@ -124,6 +453,12 @@ public class AnimationControllerTest {
         controller.queue(new Animation("test", LENGTH, loopMode, timelines));
     }
 
+    private static Animation constant(Vector3Float position) {
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, position);
+        return new Animation("constant", LENGTH, Animation.LoopMode.LOOP, Map.of(BONE_NAME, timeline));
+    }
+
     private void consume() {
         controller.tick(0);
     }
@@ -138,4 +473,21 @@ public class AnimationControllerTest {
         Assertions.assertEquals(expectedPosition, bone.position());
     }
 
+    // implements only the abstract methods
+    private static class MinimalAnimationController implements AnimationController {
+
+        @Override
+        public void queue(Animation animation, int transitionTicks) {
+        }
+
+        @Override
+        public void clearQueue() {
+        }
+
+        @Override
+        public void tick(double yaw) {
+        }
+
+    }
+
 }
@@ -23,11 +23,18 @@
  */
 package team.unnamed.hephaestus.animation;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.util.Quaternion;
+import team.unnamed.hephaestus.util.Vectors;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 public class TimelineTest {
@@ -54,4 +61,365 @@ public class TimelineTest {
         }
     }
 
+    @Test
+    @DisplayName("Test that random-access sampling matches iteration")
+    public void test_sampling() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+
+        timeline.put(DEPTH / 4, Timeline.Channel.ROTATION, new Vector3Float(0, 45, 0));
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(90, 0, 0));
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ONE);
+        timeline.put(DEPTH / 2, Timeline.Channel.POSITION, Vector3Float.ZERO);
+
+        for (Timeline tested : new Timeline[] { timeline, timeline.bake() }) {
+            Iterator<KeyFrame> iterator = tested.iterator();
+            for (int tick = 0; tick <= DEPTH; tick++) {
+                Assertions.assertEquals(iterator.next(), tested.sample(tick), "tick " + tick);
+            }
+
+            // out of range ticks are clamped
+            Assertions.assertEquals(tested.sample(0), tested.sample(-5));
+            Assertions.assertEquals(tested.sample(DEPTH), tested.sample(DEPTH * 2));
+
+            float[] buffer = new float[4];
+            tested.sample(DEPTH / 2, Timeline.Channel.POSITION, buffer, 1);
+            Assertions.assertArrayEquals(new float[] { 0, 0, 0, 0 }, buffer);
+        }
+    }
+
+    @Test
+    @DisplayName("Test that baked timelines produce the same keyframes as their source")
+    public void test_baked_timeline() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(DEPTH / 2, Timeline.Channel.ROTATION, new Vector3Float(0, 90, 0));
+        timeline.put(DEPTH, Timeline.Channel.POSITION, Vector3Float.ONE);
+
+        Timeline baked = timeline.bake();
+        Assertions.assertSame(baked, baked.bake());
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> baked.put(0, Timeline.Channel.SCALE, Vector3Float.ONE));
+
+        Iterator<KeyFrame> expected = timeline.iterator();
+        Iterator<KeyFrame> actual = baked.iterator();
+
+        while (expected.hasNext()) {
+            Assertions.assertTrue(actual.hasNext());
+            Assertions.assertEquals(expected.next(), actual.next());
+        }
+        Assertions.assertFalse(actual.hasNext());
+    }
+
+    @Test
+    @DisplayName("Test that the frame count matches the iterated keyframes")
+    public void test_frame_count() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+        Assertions.assertEquals(1, timeline.frameCount());
+
+        timeline.put(DEPTH / 2, Timeline.Channel.POSITION, Vector3Float.ONE);
+        timeline.put(DEPTH * 2, Timeline.Channel.ROTATION, Vector3Float.ONE);
+
+        Timeline[] timelines = { timeline, timeline.bake(), timeline.compress(1E-3F, false), new RootMotionTimeline(timeline) };
+        for (Timeline tested : timelines) {
+            int count = 0;
+            for (KeyFrame ignored : tested) {
+                count++;
+            }
+            Assertions.assertEquals(DEPTH + 1, tested.frameCount());
+            Assertions.assertEquals(count, tested.frameCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that rotations are spherically interpolated through the shortest path")
+    public void test_rotation_sampling() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+
+        timeline.put(0, Timeline.Channel.ROTATION, new Vector3Float(0, 170, 0));
+        timeline.put(DEPTH / 2, Timeline.Channel.ROTATION, new Vector3Float(0, 190, 0));
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(90, 0, 0));
+
+        for (Timeline tested : new Timeline[] { timeline, timeline.bake() }) {
+            assertRotation(tested, 0, Quaternion.fromEulerDegrees(new Vector3Float(0, 170, 0)));
+            assertRotation(tested, DEPTH / 4, Quaternion.fromEulerDegrees(new Vector3Float(0, 180, 0)));
+            assertRotation(tested, DEPTH / 2, Quaternion.fromEulerDegrees(new Vector3Float(0, -170, 0)));
+            assertRotation(tested, DEPTH * 2, Quaternion.fromEulerDegrees(new Vector3Float(90, 0, 0)));
+        }
+
+        float[] buffer = new float[4];
+        Timeline.dynamic(DEPTH).sampleRotation(0, buffer, 0);
+        Assertions.assertArrayEquals(new float[] { 0, 0, 0, 1 }, buffer);
+    }
+
+    @Test
+    @DisplayName("Test that rotations of half a turn or more are not collapsed into the shortest path")
+    public void test_full_turn_sampling() {
+        Timeline spin = Timeline.dynamic(DEPTH);
+        spin.put(0, Timeline.Channel.ROTATION, Vector3Float.ZERO);
+        spin.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(0, 360, 0));
+
+        Timeline turn = Timeline.dynamic(DEPTH);
+        turn.put(90, Timeline.Channel.ROTATION, new Vector3Float(0, 270, 0));
+
+        for (Timeline tested : new Timeline[] { spin, spin.bake(), spin.compress(1E-3F, false) }) {
+            assertRotation(tested, DEPTH / 4, Quaternion.fromEulerDegrees(new Vector3Float(0, 90, 0)));
+            assertRotation(tested, DEPTH / 2, Quaternion.fromEulerDegrees(new Vector3Float(0, 180, 0)));
+            assertRotation(tested, DEPTH * 3 / 4, Quaternion.fromEulerDegrees(new Vector3Float(0, 270, 0)));
+            assertRotation(tested, DEPTH, Quaternion.IDENTITY);
+        }
+
+        for (Timeline tested : new Timeline[] { turn, turn.bake() }) {
+            // interpolated from the identity, without reversing
+            assertRotation(tested, 30, Quaternion.fromEulerDegrees(new Vector3Float(0, 90, 0)));
+            assertRotation(tested, 60, Quaternion.fromEulerDegrees(new Vector3Float(0, 180, 0)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that bone rotations are added to the animation euler angles")
+    public void test_base_rotation_sampling() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(90, 0, 0));
+
+        Vector3Float base = new Vector3Float(0, 90, 45);
+        float[] buffer = new float[4];
+        for (Timeline tested : new Timeline[] { timeline, timeline.bake() }) {
+            tested.sampleRotation(DEPTH / 2, base, buffer, 0);
+            Quaternion actual = new Quaternion(buffer[0], buffer[1], buffer[2], buffer[3]);
+            Quaternion expected = Quaternion.fromEulerDegrees(new Vector3Float(45, 90, 45));
+            Assertions.assertTrue(expected.isEquivalentTo(actual, 1E-5), actual.toString());
+
+            // without a bone rotation, it is the animation rotation
+            tested.sampleRotation(DEPTH / 2, Vector3Float.ZERO, buffer, 0);
+            actual = new Quaternion(buffer[0], buffer[1], buffer[2], buffer[3]);
+            expected = Quaternion.fromEulerDegrees(new Vector3Float(45, 0, 0));
+            Assertions.assertTrue(expected.isEquivalentTo(actual, 1E-5), actual.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that precomputed bone rotations match the sampled ones")
+    public void test_precomputed_base_rotation() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+        timeline.put(0, Timeline.Channel.ROTATION, Vector3Float.ZERO);
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(90, 180, 0));
+
+        Vector3Float base = new Vector3Float(0, 90, 45);
+        Vector3Float other = new Vector3Float(30, 0, 0);
+        Assertions.assertSame(timeline, timeline.withBaseRotation(base));
+
+        float[] expected = new float[4];
+        float[] actual = new float[4];
+        for (Timeline source : new Timeline[] { timeline.bake(), timeline.compress(1E-4F, false), timeline.compress(1E-4F, true) }) {
+            Timeline tested = source.withBaseRotation(base);
+            Assertions.assertNotSame(source, tested);
+            Assertions.assertSame(tested, tested.withBaseRotation(base));
+
+            for (int tick = 0; tick <= DEPTH; tick++) {
+                timeline.sampleRotation(tick, base, expected, 0);
+                tested.sampleRotation(tick, base, actual, 0);
+                Quaternion expectedQuaternion = new Quaternion(expected[0], expected[1], expected[2], expected[3]);
+                Quaternion actualQuaternion = new Quaternion(actual[0], actual[1], actual[2], actual[3]);
+                Assertions.assertTrue(expectedQuaternion.isEquivalentTo(actualQuaternion, 1E-3), "tick " + tick);
+
+                // other rotations are still converted every tick
+                timeline.sampleRotation(tick, other, expected, 0);
+                tested.sampleRotation(tick, other, actual, 0);
+                expectedQuaternion = new Quaternion(expected[0], expected[1], expected[2], expected[3]);
+                actualQuaternion = new Quaternion(actual[0], actual[1], actual[2], actual[3]);
+                Assertions.assertTrue(expectedQuaternion.isEquivalentTo(actualQuaternion, 1E-3), "tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test that timelines can be sampled at fractional ticks")
+    public void test_fractional_sampling() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(DEPTH, Timeline.Channel.POSITION, new Vector3Float(DEPTH, DEPTH, DEPTH));
+        timeline.put(0, Timeline.Channel.ROTATION, Vector3Float.ZERO);
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(0, DEPTH, 0));
+
+        // the last one uses the default fractional sampling
+        for (Timeline tested : new Timeline[] { timeline, timeline.bake(), new SampledTimeline(timeline) }) {
+            float[] buffer = new float[4];
+            tested.sample(10.25F, Timeline.Channel.POSITION, buffer, 0);
+            Assertions.assertArrayEquals(new float[] { 10.25F, 10.25F, 10.25F, 0 }, buffer, 1E-4F);
+
+            // integral ticks are sampled exactly
+            tested.sample(10F, Timeline.Channel.POSITION, buffer, 1);
+            Assertions.assertArrayEquals(new float[] { 10.25F, 10F, 10F, 10F }, buffer);
+
+            // clamped
+            tested.sample(DEPTH + 0.5F, Timeline.Channel.POSITION, buffer, 0);
+            Assertions.assertEquals(DEPTH, buffer[0]);
+
+            tested.sampleRotation(20.5F, buffer, 0);
+            Quaternion actual = new Quaternion(buffer[0], buffer[1], buffer[2], buffer[3]);
+            Assertions.assertTrue(Quaternion.fromEulerDegrees(new Vector3Float(0, 20.5F, 0)).equals(actual, 1E-5), actual.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that compressed timelines drop redundant keys and stay within tolerance")
+    public void test_compressed_timeline() {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(DEPTH / 2, Timeline.Channel.POSITION, Vector3Float.ONE);
+        timeline.put(DEPTH, Timeline.Channel.POSITION, Vector3Float.ZERO, Interpolation.CATMULLROM);
+        timeline.put(0, Timeline.Channel.ROTATION, Vector3Float.ZERO);
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(0, 90, 45));
+
+        float tolerance = 1E-3F;
+        for (boolean quantize : new boolean[] { false, true }) {
+            CompressedTimeline compressed = (CompressedTimeline) timeline.compress(tolerance, quantize);
+
+            Assertions.assertThrows(UnsupportedOperationException.class,
+                    () -> compressed.put(0, Timeline.Channel.SCALE, Vector3Float.ONE));
+
+            // the first linear segment only needs its ends, the
+            // rotation is a single slerp and the scale is constant
+            Assertions.assertTrue(compressed.keyCount(Timeline.Channel.POSITION) < DEPTH / 4);
+            Assertions.assertEquals(2, compressed.keyCount(Timeline.Channel.ROTATION));
+            Assertions.assertEquals(1, compressed.keyCount(Timeline.Channel.SCALE));
+
+            Iterator<KeyFrame> expected = timeline.iterator();
+            Iterator<KeyFrame> actual = compressed.iterator();
+            float[] expectedRotation = new float[4];
+            float[] actualRotation = new float[4];
+            for (int tick = 0; expected.hasNext(); tick++) {
+                Assertions.assertTrue(actual.hasNext());
+                KeyFrame expectedFrame = expected.next();
+                KeyFrame actualFrame = actual.next();
+                Assertions.assertTrue(Vectors.equals(expectedFrame.position(), actualFrame.position(), tolerance * 2), "tick " + tick);
+                Assertions.assertTrue(Vectors.equals(expectedFrame.rotation(), actualFrame.rotation(), tolerance * 2), "tick " + tick);
+                Assertions.assertEquals(Vector3Float.ONE, actualFrame.scale());
+
+                timeline.sampleRotation(tick, expectedRotation, 0);
+                compressed.sampleRotation(tick, actualRotation, 0);
+                Assertions.assertArrayEquals(expectedRotation, actualRotation, tolerance * 2, "tick " + tick);
+            }
+            Assertions.assertFalse(actual.hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that serialized timelines keep their kind and their samples")
+    public void test_serialization() throws IOException {
+        Timeline timeline = Timeline.dynamic(DEPTH);
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(DEPTH / 2, Timeline.Channel.POSITION, Vector3Float.ONE, Interpolation.CATMULLROM);
+        timeline.put(DEPTH, Timeline.Channel.ROTATION, new Vector3Float(0, 360, 45));
+
+        Timeline[] timelines = {
+                timeline.bake(),
+                timeline.compress(1E-3F, false),
+                timeline.compress(1E-3F, true)
+        };
+        for (Timeline tested : timelines) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            TimelineSerializer.write(new DataOutputStream(bytes), tested);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            Timeline read = TimelineSerializer.read(buffer);
+
+            Assertions.assertFalse(buffer.hasRemaining());
+            Assertions.assertSame(tested.getClass(), read.getClass());
+
+            float[] expected = new float[4];
+            float[] actual = new float[4];
+            for (int tick = 0; tick <= DEPTH; tick++) {
+                Assertions.assertEquals(tested.sample(tick), read.sample(tick), "tick " + tick);
+                tested.sampleRotation(tick, expected, 0);
+                read.sampleRotation(tick, actual, 0);
+                Assertions.assertArrayEquals(expected, actual, "tick " + tick);
+            }
+        }
+    }
+
+    private static void assertRotation(Timeline timeline, int tick, Quaternion expected) {
+        float[] buffer = new float[5];
+        timeline.sampleRotation(tick, buffer, 1);
+        Quaternion actual = new Quaternion(buffer[1], buffer[2], buffer[3], buffer[4]);
+        Assertions.assertTrue(expected.isEquivalentTo(actual, 1E-5), "tick " + tick + ": " + actual);
+    }
+
+    @Test
+    @DisplayName("Test step, catmull-rom and bezier interpolations and their baked tables")
+    public void test_interpolation_modes() {
+        Timeline step = Timeline.dynamic(DEPTH);
+        step.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO, Interpolation.STEP);
+        step.put(DEPTH, Timeline.Channel.POSITION, Vector3Float.ONE);
+        assertPosition(step, DEPTH - 1, 0);
+        assertPosition(step, DEPTH, 1);
+
+        Timeline catmullRom = Timeline.dynamic(DEPTH);
+        catmullRom.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO, Interpolation.CATMULLROM);
+        catmullRom.put(DEPTH / 2, Timeline.Channel.POSITION, Vector3Float.ONE, Interpolation.CATMULLROM);
+        catmullRom.put(DEPTH, Timeline.Channel.POSITION, Vector3Float.ZERO, Interpolation.CATMULLROM);
+        // passes through the keyframes, the tangent at the middle
+        // keyframe is horizontal, so the curve is above the line
+        assertPosition(catmullRom, DEPTH / 2, 1);
+        assertPosition(catmullRom, DEPTH / 4, 0.5625F);
+
+        // bezier with handles at a third of the segment
+        // and no value offset, an ease-in-out curve
+        float third = DEPTH / 3F;
+        Timeline bezier = Timeline.dynamic(DEPTH);
+        bezier.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO, Interpolation.bezier(
+                Vector3Float.ZERO, Vector3Float.ZERO,
+                new Vector3Float(third, third, third), Vector3Float.ZERO
+        ));
+        bezier.put(DEPTH, Timeline.Channel.POSITION, Vector3Float.ONE, Interpolation.bezier(
+                new Vector3Float(-third, -third, -third), Vector3Float.ZERO,
+                Vector3Float.ZERO, Vector3Float.ZERO
+        ));
+        assertPosition(bezier, DEPTH / 2, 0.5F);
+        assertPosition(bezier, DEPTH / 2 + DEPTH / 4, 0.8437F);
+
+        for (Timeline timeline : new Timeline[] { step, catmullRom, bezier }) {
+            Timeline baked = timeline.bake();
+            for (int tick = 0; tick <= DEPTH; tick++) {
+                Assertions.assertEquals(timeline.sample(tick), baked.sample(tick), "tick " + tick);
+            }
+        }
+    }
+
+    private static void assertPosition(Timeline timeline, int tick, float expected) {
+        float[] buffer = new float[3];
+        timeline.sample(tick, Timeline.Channel.POSITION, buffer, 0);
+        for (float value : buffer) {
+            Assertions.assertEquals(expected, value, 1E-3, "tick " + tick);
+        }
+    }
+
+    // only implements the abstract methods
+    private static class SampledTimeline implements Timeline {
+
+        private final Timeline delegate;
+
+        SampledTimeline(Timeline delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+            delegate.put(position, channel, value, interpolation);
+        }
+
+        @Override
+        public @NotNull Iterator<KeyFrame> iterator() {
+            return delegate.iterator();
+        }
+
+        @Override
+        public void sample(int tick, Channel channel, float[] dest, int offset) {
+            delegate.sample(tick, channel, dest, offset);
+        }
+
+    }
+
 }
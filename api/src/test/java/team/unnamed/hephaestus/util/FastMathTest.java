@@ -0,0 +1,108 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import team.unnamed.creative.base.Vector3Float;
+
+public class FastMathTest {
+
+    @Test
+    @DisplayName("Test that the fast sine and cosine are within the error bound")
+    public void test_trigonometry_error() {
+        for (double angle = -100D; angle <= 100D; angle += 0.0013D) {
+            assertWithin(Math.sin(angle), FastMath.fastSin(angle), FastMath.TRIGONOMETRY_ERROR, "sin(" + angle + ")");
+            assertWithin(Math.cos(angle), FastMath.fastCos(angle), FastMath.TRIGONOMETRY_ERROR, "cos(" + angle + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Test that the fast inverse square root is within the error bound")
+    public void test_inverse_sqrt_error() {
+        for (double value = 1E-6D; value < 1E6D; value *= 1.37D) {
+            double expected = 1.0D / Math.sqrt(value);
+            double actual = FastMath.fastInverseSqrt(value);
+            Assertions.assertTrue(
+                    Math.abs(actual - expected) / expected < FastMath.INVERSE_SQRT_ERROR,
+                    "1/sqrt(" + value + ") expected: " + expected + " got: " + actual
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Test that the mode-dependent functions are within the error bounds in the current mode")
+    public void test_current_mode() {
+        Assertions.assertEquals(Boolean.getBoolean("hephaestus.fast-math"), FastMath.fast());
+        Assertions.assertEquals(FastMath.fast() ? MathMode.FAST : MathMode.PRECISE, MathMode.defaultMode());
+        for (double angle = -10D; angle <= 10D; angle += 0.0071D) {
+            assertWithin(Math.sin(angle), FastMath.sin(angle), FastMath.TRIGONOMETRY_ERROR, "sin(" + angle + ")");
+            assertWithin(Math.cos(angle), FastMath.cos(angle), FastMath.TRIGONOMETRY_ERROR, "cos(" + angle + ")");
+        }
+        for (double value = 1E-3D; value < 1E3D; value *= 1.37D) {
+            double expected = 1.0D / Math.sqrt(value);
+            assertWithin(1D, FastMath.inverseSqrt(value) / expected, FastMath.INVERSE_SQRT_ERROR, "1/sqrt(" + value + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Test that the transforms computed in every mode are within the error bounds")
+    public void test_modes() {
+        float[] actual = new float[4];
+        float[] from = new float[4];
+        float[] to = new float[4];
+        for (MathMode mode : MathMode.values()) {
+            for (float angle = -360F; angle <= 360F; angle += 7.3F) {
+                Quaternion quaternion = Quaternion.fromEulerDegrees(new Vector3Float(angle, angle * 0.5F, -angle));
+                Transforms.fromEulerDegrees(angle, angle * 0.5F, -angle, actual, 0, mode);
+                assertQuaternionWithin(quaternion.x(), quaternion.y(), quaternion.z(), quaternion.w(), actual, mode);
+
+                // blend from the converted rotation, compared to a precise blend
+                Transforms.fromEulerDegrees(angle, angle * 0.5F, -angle, from, 0, MathMode.PRECISE);
+                Transforms.fromEulerDegrees(0F, angle, 0F, to, 0, MathMode.PRECISE);
+                Transforms.nlerp(actual, 0, to, 0, 0.3F, actual, 0, mode);
+                Transforms.nlerp(from, 0, to, 0, 0.3F, from, 0, MathMode.PRECISE);
+                assertQuaternionWithin(from[0], from[1], from[2], from[3], actual, mode);
+            }
+        }
+    }
+
+    private static void assertQuaternionWithin(double x, double y, double z, double w, float[] actual, MathMode mode) {
+        // components are stored as floats
+        double error = 1E-6D;
+        assertWithin(x, actual[0], error, mode + " x");
+        assertWithin(y, actual[1], error, mode + " y");
+        assertWithin(z, actual[2], error, mode + " z");
+        assertWithin(w, actual[3], error, mode + " w");
+    }
+
+    private static void assertWithin(double expected, double actual, double error, String operation) {
+        Assertions.assertTrue(
+                Math.abs(actual - expected) < error,
+                operation + " expected: " + expected + " got: " + actual
+        );
+    }
+
+}
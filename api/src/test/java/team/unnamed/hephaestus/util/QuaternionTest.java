@@ -86,4 +86,76 @@ public class QuaternionTest {
         );
     }
 
+    @Test
+    @DisplayName("Test that Quaternion transform matches Euler Angle rotation")
+    public void test_quaternion_transform() {
+        Vector3Float[] rotations = {
+                Vector3Float.ZERO,
+                new Vector3Float(0.0F, 90.0F, 0.0F),
+                new Vector3Float(0.0F, 90.0F, 45.0F),
+                new Vector3Float(45.0F, 45.0F, 0.0F),
+                new Vector3Float(22.5F, 50.0F, 180.0F),
+                new Vector3Float(0.5F, 10.0F, 8.0F),
+                new Vector3Float(-120.0F, 33.0F, 71.0F)
+        };
+        Vector3Float vector = new Vector3Float(1.5F, -2.0F, 0.25F);
+
+        for (Vector3Float rotation : rotations) {
+            Vector3Float expected = Vectors.rotateDegrees(vector, rotation);
+            Vector3Float got = Quaternion.fromEulerDegrees(rotation).transform(vector);
+            Assertions.assertTrue(
+                    Vectors.equals(expected, got, 0.0001D),
+                    "Rotating by " + rotation + ": expected " + expected + ", got " + got
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Test Quaternion spherical interpolation")
+    public void test_quaternion_slerp() {
+        Quaternion from = Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 20.0F, 0.0F));
+        Quaternion to = Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 100.0F, 0.0F));
+
+        Assertions.assertTrue(from.slerp(to, 0).equals(from, THRESHOLD));
+        Assertions.assertTrue(from.slerp(to, 1).equals(to, THRESHOLD));
+        Assertions.assertTrue(from.slerp(to, 0.25).equals(Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 40.0F, 0.0F)), THRESHOLD));
+
+        // shortest path, from 170 to 190 degrees instead of
+        // going backwards through zero
+        Quaternion big = Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 170.0F, 0.0F));
+        Quaternion negative = Quaternion.fromEulerDegrees(new Vector3Float(0.0F, -170.0F, 0.0F));
+        Assertions.assertTrue(big.slerp(negative, 0.5).isEquivalentTo(
+                Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 180.0F, 0.0F)),
+                THRESHOLD
+        ));
+
+        // close rotations
+        Quaternion close = Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 20.01F, 0.0F));
+        Assertions.assertTrue(from.slerp(close, 0.5).equals(Quaternion.fromEulerDegrees(new Vector3Float(0.0F, 20.005F, 0.0F)), THRESHOLD));
+    }
+
+    @Test
+    @DisplayName("Test that mutable quaternions and vectors match the immutable operations")
+    public void test_mutable_operations() {
+        Quaternion a = Quaternion.fromEulerDegrees(new Vector3Float(22.5F, 50.0F, 180.0F));
+        Quaternion b = Quaternion.fromEulerDegrees(new Vector3Float(-120.0F, 33.0F, 71.0F));
+        Vector3Float vector = new Vector3Float(1.5F, -2.0F, 0.25F);
+
+        MutableQuaternion mutable = new MutableQuaternion().setEulerDegrees(22.5F, 50.0F, 180.0F);
+        Assertions.assertTrue(a.equals(mutable.toImmutable(), THRESHOLD));
+
+        Assertions.assertTrue(a.multiply(b).equals(mutable.mul(b).toImmutable(), THRESHOLD));
+        Assertions.assertTrue(a.multiply(b).equals(a.multiply(b, new MutableQuaternion()).toImmutable(), THRESHOLD));
+
+        MutableQuaternion target = new MutableQuaternion().set(b);
+        Assertions.assertTrue(a.slerp(b, 0.3).equals(mutable.set(a).slerp(target, 0.3).toImmutable(), THRESHOLD));
+
+        MutableVec3 dest = new MutableVec3();
+        Assertions.assertEquals(a.transform(vector), a.transform(vector, dest).toImmutable());
+        Assertions.assertEquals(a.transform(vector), dest.set(vector).rotate(mutable.set(a)).toImmutable());
+        Assertions.assertEquals(a.toEulerDegrees(), a.toEulerDegrees(dest).toImmutable());
+        Assertions.assertEquals(Vectors.rotateDegrees(vector, b.toEulerDegrees()), Vectors.rotateDegrees(vector, b.toEulerDegrees(), dest).toImmutable());
+        Assertions.assertEquals(Vectors.lerp(vector, Vector3Float.ONE, 0.25F), Vectors.lerp(vector, Vector3Float.ONE, 0.25F, dest).toImmutable());
+    }
+
 }
\ No newline at end of file
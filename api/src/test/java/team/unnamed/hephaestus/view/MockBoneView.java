@@ -35,7 +35,10 @@ public class MockBoneView implements BaseBoneView {
     private final Bone bone;
     private int color = BaseBoneView.DEFAULT_COLOR;
     private Vector3Float position;
-    private Vector3Float rotation;
+    private Quaternion rotation;
+    private Vector3Float scale = Vector3Float.ONE;
+    private int updateCount;
+    private int scaleUpdateCount;
     private Component customName;
     private boolean customNameVisible;
 
@@ -63,26 +66,37 @@ public class MockBoneView implements BaseBoneView {
     }
 
     @Override
-    public void position(Vector3Float position) {
+    public void update(Vector3Float position, Quaternion rotation) {
         this.position = position;
+        this.rotation = rotation;
+        this.updateCount++;
+    }
+
+    @Override
+    public void update(Vector3Float position, Quaternion rotation, Vector3Float scale) {
+        update(position, rotation);
+        this.scale = scale;
+        this.scaleUpdateCount++;
+    }
+
+    public int updateCount() {
+        return updateCount;
     }
 
     public Vector3Float position() {
         return position;
     }
 
-    @Override
-    public void rotation(Vector3Float rotation) {
-        this.rotation = rotation;
+    public Quaternion rotation() {
+        return rotation;
     }
 
-    @Override
-    public void rotation(Quaternion rotation) {
-        throw new UnsupportedOperationException();
+    public Vector3Float scale() {
+        return scale;
     }
 
-    public Vector3Float rotation() {
-        return rotation;
+    public int scaleUpdateCount() {
+        return scaleUpdateCount;
     }
 
     @Override
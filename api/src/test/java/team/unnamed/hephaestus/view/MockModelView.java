@@ -24,6 +24,7 @@
 package team.unnamed.hephaestus.view;
 
 import org.jetbrains.annotations.Nullable;
+import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.Model;
 import team.unnamed.hephaestus.view.animation.AnimationController;
 
@@ -38,6 +39,7 @@ public class MockModelView implements BaseModelView<Object> {
     private final AnimationController animationController;
     private final Map<String, BaseBoneView> bones;
     private final Set<Object> viewers = new HashSet<>();
+    private final float[] rootMotion = new float[3];
 
     public MockModelView(
             Model model,
@@ -49,6 +51,12 @@ public class MockModelView implements BaseModelView<Object> {
         this.bones = bones;
     }
 
+    public MockModelView(Model model, Map<String, BaseBoneView> bones) {
+        this.model = model;
+        this.animationController = AnimationController.nonDelayed(this);
+        this.bones = bones;
+    }
+
     @Override
     public Model model() {
         return model;
@@ -89,4 +97,15 @@ public class MockModelView implements BaseModelView<Object> {
         animationController.tick(0);
     }
 
+    @Override
+    public void applyRootMotion(float x, float y, float z) {
+        rootMotion[0] += x;
+        rootMotion[1] += y;
+        rootMotion[2] += z;
+    }
+
+    public Vector3Float rootMotion() {
+        return new Vector3Float(rootMotion[0], rootMotion[1], rootMotion[2]);
+    }
+
 }
@@ -0,0 +1,174 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.creative.base.Vector2Float;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.EventTimeline;
+import team.unnamed.hephaestus.animation.Interpolation;
+import team.unnamed.hephaestus.animation.KeyFrame;
+import team.unnamed.hephaestus.animation.Timeline;
+import team.unnamed.hephaestus.view.BaseBoneView;
+import team.unnamed.hephaestus.view.MockBoneView;
+import team.unnamed.hephaestus.view.MockModelView;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+public class AnimationFrameCacheTest {
+
+    private static final int LENGTH = 40;
+
+    @Test
+    public void test_frames_are_reused() {
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(LENGTH, Timeline.Channel.POSITION, Vector3Float.ONE);
+        timeline.put(LENGTH, Timeline.Channel.ROTATION, new Vector3Float(0, 90, 0));
+
+        AnimationFrameCache cache = new AnimationFrameCache();
+        float[] frames = cache.frames(timeline, Vector3Float.ZERO, LENGTH);
+        Assertions.assertEquals((LENGTH + 1) * AnimationLayer.FRAME_SIZE, frames.length);
+
+        float[] expected = new float[AnimationLayer.FRAME_SIZE];
+        float[] actual = new float[AnimationLayer.FRAME_SIZE];
+        for (int tick = 0; tick <= LENGTH; tick++) {
+            AnimationLayer.sample(timeline, tick, Vector3Float.ZERO, expected, 0);
+            System.arraycopy(frames, tick * AnimationLayer.FRAME_SIZE, actual, 0, AnimationLayer.FRAME_SIZE);
+            Assertions.assertArrayEquals(expected, actual);
+        }
+
+        // a second view playing the same animation gets the same frames
+        Assertions.assertSame(frames, cache.frames(timeline, Vector3Float.ZERO, LENGTH));
+
+        cache.clear();
+        Assertions.assertNotSame(frames, cache.frames(timeline, Vector3Float.ZERO, LENGTH));
+    }
+
+    @Test
+    public void test_frames_include_bone_rotation() {
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.ROTATION, Vector3Float.ZERO);
+        timeline.put(LENGTH, Timeline.Channel.ROTATION, new Vector3Float(0, 90, 0));
+
+        Vector3Float base = new Vector3Float(30, 0, 45);
+        AnimationFrameCache cache = new AnimationFrameCache();
+        float[] frames = cache.frames(timeline, base, LENGTH);
+
+        float[] expected = new float[AnimationLayer.FRAME_SIZE];
+        float[] actual = new float[AnimationLayer.FRAME_SIZE];
+        for (int tick = 0; tick <= LENGTH; tick++) {
+            AnimationLayer.sample(timeline, tick, base, expected, 0);
+            System.arraycopy(frames, tick * AnimationLayer.FRAME_SIZE, actual, 0, AnimationLayer.FRAME_SIZE);
+            Assertions.assertArrayEquals(expected, actual);
+        }
+
+        Assertions.assertSame(frames, cache.frames(timeline, base, LENGTH));
+        // another rotation recomputes the frames
+        Assertions.assertNotSame(frames, cache.frames(timeline, Vector3Float.ZERO, LENGTH));
+    }
+
+    @Test
+    public void test_controllers_share_frames() {
+        Timeline delegate = Timeline.dynamic(LENGTH);
+        delegate.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        delegate.put(LENGTH, Timeline.Channel.POSITION, Vector3Float.ONE);
+        CountingTimeline timeline = new CountingTimeline(delegate);
+
+        Bone bone = new Bone("bone", Vector3Float.ZERO, Vector3Float.ZERO, Collections.emptyMap(), false, 0);
+        Model model = new Model(
+                "test",
+                Collections.singletonMap(bone.name(), bone),
+                Vector2Float.ZERO,
+                null,
+                Collections.emptyMap()
+        );
+        Animation animation = new Animation(
+                "test",
+                LENGTH,
+                Animation.LoopMode.HOLD,
+                Collections.singletonMap(bone.name(), timeline),
+                EventTimeline.empty()
+        );
+
+        AnimationFrameCache cache = new AnimationFrameCache();
+        AnimationController[] controllers = new AnimationController[2];
+        for (int i = 0; i < controllers.length; i++) {
+            Map<String, BaseBoneView> views = Collections.singletonMap(bone.name(), new MockBoneView(bone));
+            controllers[i] = LayeredAnimationController.layered(new MockModelView(model, null, views), cache);
+            controllers[i].queue(animation);
+        }
+
+        for (int tick = 0; tick <= LENGTH; tick++) {
+            for (AnimationController controller : controllers) {
+                controller.tick(0);
+            }
+        }
+
+        // every tick was sampled once, for both controllers
+        for (int tick = 0; tick <= LENGTH; tick++) {
+            Assertions.assertEquals(1, timeline.samples[tick], "Samples at tick " + tick);
+        }
+    }
+
+    /**
+     * Timeline that counts the position samples of every tick
+     */
+    private static final class CountingTimeline implements Timeline {
+
+        private final Timeline delegate;
+        private final int[] samples = new int[LENGTH + 1];
+
+        CountingTimeline(Timeline delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+            delegate.put(position, channel, value, interpolation);
+        }
+
+        @Override
+        public @NotNull Iterator<KeyFrame> iterator() {
+            return delegate.iterator();
+        }
+
+        @Override
+        public void sample(int tick, Channel channel, float[] dest, int offset) {
+            if (channel == Channel.POSITION) {
+                samples[tick]++;
+            }
+            delegate.sample(tick, channel, dest, offset);
+        }
+
+    }
+
+}
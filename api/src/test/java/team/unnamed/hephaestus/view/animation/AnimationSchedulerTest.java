@@ -0,0 +1,161 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.view.animation;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import team.unnamed.creative.base.Vector2Float;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.Interpolation;
+import team.unnamed.hephaestus.animation.KeyFrame;
+import team.unnamed.hephaestus.animation.Timeline;
+import team.unnamed.hephaestus.view.BaseBoneView;
+import team.unnamed.hephaestus.view.MockBoneView;
+import team.unnamed.hephaestus.view.MockModelView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class AnimationSchedulerTest {
+
+    private static final int LENGTH = 10;
+    private static final int VIEW_COUNT = 100;
+
+    @Test
+    public void test_scheduled_views_are_animated() {
+        Bone bone = new Bone(
+                "bone",
+                Vector3Float.ZERO,
+                Vector3Float.ZERO,
+                Collections.emptyMap(),
+                false, 0
+        );
+        Model model = new Model("test", Map.of("bone", bone), Vector2Float.ZERO, null, Collections.emptyMap());
+
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(LENGTH, Timeline.Channel.POSITION, new Vector3Float(LENGTH, 0, 0));
+        Animation animation = new Animation("test", LENGTH, Animation.LoopMode.HOLD, Map.of("bone", timeline));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AnimationScheduler scheduler = AnimationScheduler.parallel(pool);
+        List<MockBoneView> bones = new ArrayList<>();
+
+        for (int i = 0; i < VIEW_COUNT; i++) {
+            MockBoneView boneView = new MockBoneView(bone);
+            Map<String, BaseBoneView> boneViews = Map.of("bone", boneView);
+            MockModelView view = new MockModelView(model, boneViews);
+            view.animationController().queue(animation);
+            scheduler.register(view, () -> 0);
+            bones.add(boneView);
+        }
+
+        for (int tick = 0; tick <= LENGTH / 2; tick++) {
+            scheduler.tick();
+        }
+
+        for (MockBoneView boneView : bones) {
+            Assertions.assertEquals(new Vector3Float(LENGTH / 2F, 0, 0), boneView.position());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void test_failing_views_do_not_stop_others() {
+        Bone bone = new Bone(
+                "bone",
+                Vector3Float.ZERO,
+                Vector3Float.ZERO,
+                Collections.emptyMap(),
+                false, 0
+        );
+        Model model = new Model("test", Map.of("bone", bone), Vector2Float.ZERO, null, Collections.emptyMap());
+
+        Timeline timeline = Timeline.dynamic(LENGTH);
+        timeline.put(0, Timeline.Channel.POSITION, Vector3Float.ZERO);
+        timeline.put(LENGTH, Timeline.Channel.POSITION, new Vector3Float(LENGTH, 0, 0));
+        Animation animation = new Animation("test", LENGTH, Animation.LoopMode.HOLD, Map.of("bone", timeline));
+        Animation failing = new Animation("failing", LENGTH, Animation.LoopMode.HOLD, Map.of("bone", new FailingTimeline()));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AnimationScheduler scheduler = AnimationScheduler.parallel(pool);
+        List<MockBoneView> bones = new ArrayList<>();
+
+        for (int i = 0; i < VIEW_COUNT; i++) {
+            MockBoneView boneView = new MockBoneView(bone);
+            MockModelView view = new MockModelView(model, Map.of("bone", boneView));
+            if (i % 10 == 0) {
+                // fails while computing its frames
+                view.animationController().queue(failing);
+                scheduler.register(view, () -> 0);
+            } else if (i % 10 == 1) {
+                // fails while reading its state
+                view.animationController().queue(animation);
+                scheduler.register(view, () -> {
+                    throw new IllegalStateException("yaw");
+                });
+            } else {
+                view.animationController().queue(animation);
+                scheduler.register(view, () -> 0);
+                bones.add(boneView);
+            }
+        }
+
+        for (int tick = 0; tick <= LENGTH / 2; tick++) {
+            Assertions.assertDoesNotThrow(scheduler::tick);
+        }
+
+        for (MockBoneView boneView : bones) {
+            Assertions.assertEquals(new Vector3Float(LENGTH / 2F, 0, 0), boneView.position());
+        }
+        pool.shutdown();
+    }
+
+    private static class FailingTimeline implements Timeline {
+
+        @Override
+        public void put(int position, Channel channel, Vector3Float value, Interpolation interpolation) {
+        }
+
+        @Override
+        public @NotNull Iterator<KeyFrame> iterator() {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public void sample(int tick, Channel channel, float[] dest, int offset) {
+            throw new IllegalStateException("sample");
+        }
+
+    }
+
+}
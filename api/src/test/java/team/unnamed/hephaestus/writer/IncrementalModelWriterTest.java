@@ -0,0 +1,213 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.writer;
+
+import net.kyori.adventure.key.Key;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import team.unnamed.creative.ResourcePack;
+import team.unnamed.creative.atlas.Atlas;
+import team.unnamed.creative.base.Vector2Float;
+import team.unnamed.creative.base.Vector3Float;
+import team.unnamed.creative.base.Writable;
+import team.unnamed.creative.model.ItemOverride;
+import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.partial.BoneAsset;
+import team.unnamed.hephaestus.partial.ModelAsset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalModelWriterTest {
+
+    private static final String NAMESPACE = "test";
+    private static final Key ITEM_MODEL = Key.key("item/leather_horse_armor");
+
+    @Test
+    @DisplayName("Test that added models are written next to the previously written ones")
+    public void test_add() {
+        ResourcePack resourcePack = ResourcePack.create();
+        IncrementalModelWriter writer = ModelWriter.incremental(NAMESPACE);
+
+        writer.write(resourcePack, model("first", "skin.png", "root:1", "arm:2"));
+        writer.write(resourcePack, model("second", "skin.png", "root:3"));
+
+        Assertions.assertNotNull(resourcePack.texture(Key.key(NAMESPACE, "first/skin.png")));
+        Assertions.assertNotNull(resourcePack.texture(Key.key(NAMESPACE, "second/skin.png")));
+        Assertions.assertNotNull(resourcePack.model(Key.key(NAMESPACE, "first/root")));
+        Assertions.assertNotNull(resourcePack.model(Key.key(NAMESPACE, "first/arm")));
+        Assertions.assertNotNull(resourcePack.model(Key.key(NAMESPACE, "second/root")));
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), customModelData(resourcePack));
+        Assertions.assertEquals(2, atlasSourceCount(resourcePack));
+    }
+
+    @Test
+    @DisplayName("Test that replaced models remove the files their new version does not write")
+    public void test_replace() {
+        ResourcePack resourcePack = ResourcePack.create();
+        IncrementalModelWriter writer = ModelWriter.incremental(NAMESPACE);
+
+        writer.write(resourcePack, model("first", "skin.png", "root:1", "arm:2"));
+        writer.write(resourcePack, model("second", "skin.png", "root:3"));
+        writer.write(resourcePack, model("first", "other.png", "root:4"));
+
+        Assertions.assertNull(resourcePack.texture(Key.key(NAMESPACE, "first/skin.png")));
+        Assertions.assertNotNull(resourcePack.texture(Key.key(NAMESPACE, "first/other.png")));
+        Assertions.assertNotNull(resourcePack.model(Key.key(NAMESPACE, "first/root")));
+        Assertions.assertNull(resourcePack.model(Key.key(NAMESPACE, "first/arm")));
+        Assertions.assertNotNull(resourcePack.model(Key.key(NAMESPACE, "second/root")));
+        Assertions.assertEquals(Arrays.asList(3, 4), customModelData(resourcePack));
+        Assertions.assertEquals(2, atlasSourceCount(resourcePack));
+    }
+
+    @Test
+    @DisplayName("Test that removed models remove their files and overrides")
+    public void test_remove() {
+        ResourcePack resourcePack = ResourcePack.create();
+        IncrementalModelWriter writer = ModelWriter.incremental(NAMESPACE);
+
+        writer.write(resourcePack, Arrays.asList(
+                model("first", "skin.png", "root:1", "arm:2"),
+                model("second", "skin.png", "root:3")
+        ));
+
+        Assertions.assertTrue(writer.remove(resourcePack, "first"));
+        Assertions.assertFalse(writer.remove(resourcePack, "first"));
+
+        Assertions.assertNull(resourcePack.texture(Key.key(NAMESPACE, "first/skin.png")));
+        Assertions.assertNull(resourcePack.model(Key.key(NAMESPACE, "first/root")));
+        Assertions.assertNull(resourcePack.model(Key.key(NAMESPACE, "first/arm")));
+        Assertions.assertNotNull(resourcePack.texture(Key.key(NAMESPACE, "second/skin.png")));
+        Assertions.assertEquals(Collections.singletonList(3), customModelData(resourcePack));
+        Assertions.assertEquals(1, atlasSourceCount(resourcePack));
+    }
+
+    @Test
+    @DisplayName("Test that overrides stay sorted when models are written out of order")
+    public void test_out_of_order_merge() {
+        ResourcePack resourcePack = ResourcePack.create();
+        IncrementalModelWriter writer = ModelWriter.incremental(NAMESPACE);
+
+        writer.write(resourcePack, model("fifth", "skin.png", "root:5", "arm:9"));
+        writer.write(resourcePack, model("first", "skin.png", "root:1"));
+        writer.write(resourcePack, Arrays.asList(
+                model("fourth", "skin.png", "root:4"),
+                model("second", "skin.png", "root:2", "arm:7")
+        ));
+        writer.write(resourcePack, model("third", "skin.png", "root:3"));
+
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 7, 9), customModelData(resourcePack));
+    }
+
+    @Test
+    @DisplayName("Test that a failed write leaves the resource pack and the written models as they were")
+    public void test_failed_write() {
+        ResourcePack resourcePack = ResourcePack.create();
+        IncrementalModelWriter writer = ModelWriter.incremental(NAMESPACE);
+
+        writer.write(resourcePack, model("first", "skin.png", "root:1", "arm:2"));
+
+        // bone names are part of the model keys, so this one fails
+        // after the replacement of the first model was written
+        Assertions.assertThrows(RuntimeException.class, () -> writer.write(resourcePack, Arrays.asList(
+                model("first", "other.png", "root:3"),
+                model("second", "skin.png", "root:4", "Invalid Bone:5")
+        )));
+
+        Assertions.assertNotNull(resourcePack.texture(Key.key(NAMESPACE, "first/skin.png")));
+        Assertions.assertNull(resourcePack.texture(Key.key(NAMESPACE, "first/other.png")));
+        Assertions.assertNotNull(resourcePack.model(Key.key(NAMESPACE, "first/arm")));
+        Assertions.assertNull(resourcePack.texture(Key.key(NAMESPACE, "second/skin.png")));
+        Assertions.assertNull(resourcePack.model(Key.key(NAMESPACE, "second/root")));
+        Assertions.assertEquals(Arrays.asList(1, 2), customModelData(resourcePack));
+        Assertions.assertEquals(1, atlasSourceCount(resourcePack));
+
+        // the written state was kept, so the first model is still replaced
+        writer.write(resourcePack, model("first", "other.png", "root:3"));
+        Assertions.assertNull(resourcePack.texture(Key.key(NAMESPACE, "first/skin.png")));
+        Assertions.assertNull(resourcePack.model(Key.key(NAMESPACE, "first/arm")));
+        Assertions.assertEquals(Collections.singletonList(3), customModelData(resourcePack));
+    }
+
+    private static List<Integer> customModelData(ResourcePack resourcePack) {
+        team.unnamed.creative.model.Model itemModel = resourcePack.model(ITEM_MODEL);
+        Assertions.assertNotNull(itemModel);
+        List<Integer> customModelData = new ArrayList<>();
+        for (ItemOverride override : itemModel.overrides()) {
+            customModelData.add((Integer) override.predicate().get(0).value());
+        }
+        return customModelData;
+    }
+
+    private static int atlasSourceCount(ResourcePack resourcePack) {
+        Atlas atlas = resourcePack.atlas(Atlas.BLOCKS);
+        Assertions.assertNotNull(atlas);
+        return atlas.sources().size();
+    }
+
+    /**
+     * Creates a model with a single texture and the given root
+     * bones, in "name:customModelData" format
+     */
+    private static Model model(String name, String texture, String... bones) {
+        Map<String, Bone> boneMap = new LinkedHashMap<>();
+        Map<String, BoneAsset> boneAssets = new LinkedHashMap<>();
+        for (String bone : bones) {
+            String[] parts = bone.split(":");
+            int customModelData = Integer.parseInt(parts[1]);
+            boneMap.put(parts[0], new Bone(
+                    parts[0],
+                    Vector3Float.ZERO,
+                    Vector3Float.ZERO,
+                    Collections.emptyMap(),
+                    false,
+                    customModelData
+            ));
+            boneAssets.put(parts[0], new BoneAsset(
+                    parts[0],
+                    Vector3Float.ZERO,
+                    customModelData,
+                    Vector3Float.ZERO,
+                    Collections.emptyList(),
+                    false,
+                    Collections.emptyMap()
+            ));
+        }
+
+        ModelAsset asset = new ModelAsset(
+                name,
+                Collections.singletonMap(texture, Writable.bytes(new byte[] { 1, 2, 3 })),
+                Collections.singletonMap(0, texture),
+                boneAssets
+        );
+        return new Model(name, boneMap, new Vector2Float(1, 1), asset, Collections.emptyMap());
+    }
+
+}
@@ -23,93 +23,254 @@
  */
 package team.unnamed.hephaestus.reader.blockbench;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.AnimationEvent;
+import team.unnamed.hephaestus.animation.EventTimeline;
+import team.unnamed.hephaestus.animation.Interpolation;
 import team.unnamed.hephaestus.animation.Timeline;
 import team.unnamed.hephaestus.process.ElementScale;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.logging.Logger;
 
 final class AnimationReader {
 
+    private static final Logger LOGGER = Logger.getLogger(BBModelReader.class.getName());
+
     private static final int TICKS_PER_SECOND = Integer.getInteger("hephaestus.tps", 20);
 
+    // maximum error of compressed timelines, timelines are
+    // baked instead if it is negative (the default)
+    private static final float KEYFRAME_TOLERANCE = Float.parseFloat(
+            System.getProperty("hephaestus.keyframe-tolerance", "-1")
+    );
+    private static final boolean QUANTIZE_KEYFRAMES = Boolean.getBoolean("hephaestus.quantize-keyframes");
+
+    // name of the bone whose horizontal translation is extracted
+    // as root motion, if present, none by default
+    private static final String ROOT_MOTION_BONE = System.getProperty("hephaestus.root-motion-bone");
+
+    /**
+     * Returns the settings animations are read with, they
+     * change the read timelines, see {@link BBModelReaderImpl#cacheKey()}
+     */
+    static String settings() {
+        return "tps=" + TICKS_PER_SECOND
+                + ";keyframe-tolerance=" + KEYFRAME_TOLERANCE
+                + ";quantize-keyframes=" + QUANTIZE_KEYFRAMES
+                + ";root-motion-bone=" + ROOT_MOTION_BONE;
+    }
+
     /**
-     * Reads {@link Animation} from the given {@code json}
-     * object and puts them into the specified {@code animations}
-     * map
+     * Reads {@link Animation} from the "animations" array the given
+     * {@code reader} is positioned at, one animation at a time, and
+     * puts them into the specified {@code animations} map
      */
     static void readAnimations(
-            JsonObject json,
+            JsonReader reader,
             Map<String, Animation> animations
     ) throws IOException {
-
-        if (!json.has("animations")) {
+        if (reader.peek() == JsonToken.NULL) {
             // Model doesn't have animations
+            reader.nextNull();
+            return;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            readAnimation(GsonUtil.readElement(reader).getAsJsonObject(), animations);
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads an {@link Animation} from the given {@code animationJson}
+     * object and puts it into the specified {@code animations} map
+     */
+    private static void readAnimation(
+            JsonObject animationJson,
+            Map<String, Animation> animations
+    ) throws IOException {
+
+        String name = animationJson.get("name").getAsString();
+        Animation.LoopMode loopMode = getLoopMode(animationJson);
+        int length = Math.round(GsonUtil.parseLenientFloat(animationJson.get("length")) * TICKS_PER_SECOND);
+
+        if (GsonUtil.isNullOrAbsent(animationJson, "animators")) {
+            // empty animation, no keyframes of any kind
+            animations.put(name, new Animation(name, length, loopMode, Collections.emptyMap()));
             return;
         }
 
-        for (JsonElement animationElement : json.get("animations").getAsJsonArray()) {
+        Map<String, Timeline> animators = new HashMap<>();
+        List<AnimationEvent> events = new ArrayList<>();
 
-            JsonObject animationJson = animationElement.getAsJsonObject();
+        for (Map.Entry<String, JsonElement> animatorEntry : animationJson.get("animators")
+                .getAsJsonObject()
+                .entrySet()) {
 
-            String name = animationJson.get("name").getAsString();
-            Animation.LoopMode loopMode = getLoopMode(animationJson);
-            int length = Math.round(GsonUtil.parseLenientFloat(animationJson.get("length")) * TICKS_PER_SECOND);
+            JsonObject animatorJson = animatorEntry.getValue().getAsJsonObject();
 
-            if (GsonUtil.isNullOrAbsent(animationJson, "animators")) {
-                // empty animation, no keyframes of any kind
-                animations.put(name, new Animation(name, length, loopMode, Collections.emptyMap()));
+            if (isEffectAnimator(animatorEntry.getKey(), animatorJson)) {
+                // sound, particle and timeline keyframes
+                readEvents(animatorJson, events);
                 continue;
             }
 
-            Map<String, Timeline> animators = new HashMap<>();
+            String boneName = animatorJson.get("name").getAsString();
 
-            for (Map.Entry<String, JsonElement> animatorEntry : animationJson.get("animators")
-                    .getAsJsonObject()
-                    .entrySet()) {
+            Timeline frames = Timeline.dynamic(length);
 
-                JsonObject animatorJson = animatorEntry.getValue().getAsJsonObject();
-                String boneName = animatorJson.get("name").getAsString();
+            for (JsonElement keyFrameElement : animatorJson.get("keyframes").getAsJsonArray()) {
 
-                Timeline frames = Timeline.dynamic(length);
+                JsonObject keyframeJson = keyFrameElement.getAsJsonObject();
+                JsonObject dataPoint = keyframeJson.get("data_points").getAsJsonArray().get(0).getAsJsonObject();
 
-                for (JsonElement keyFrameElement : animatorJson.get("keyframes").getAsJsonArray()) {
+                float x = GsonUtil.parseLenientFloat(dataPoint.get("x"));
+                float y = GsonUtil.parseLenientFloat(dataPoint.get("y"));
+                float z = GsonUtil.parseLenientFloat(dataPoint.get("z"));
 
-                    JsonObject keyframeJson = keyFrameElement.getAsJsonObject();
-                    JsonObject dataPoint = keyframeJson.get("data_points").getAsJsonArray().get(0).getAsJsonObject();
+                Vector3Float value = new Vector3Float(x, y, z);
 
-                    float x = GsonUtil.parseLenientFloat(dataPoint.get("x"));
-                    float y = GsonUtil.parseLenientFloat(dataPoint.get("y"));
-                    float z = GsonUtil.parseLenientFloat(dataPoint.get("z"));
+                String channel = keyframeJson.get("channel").getAsString();
+                int time = Math.round(GsonUtil.parseLenientFloat(keyframeJson.get("time")) * TICKS_PER_SECOND);
 
-                    Vector3Float value = new Vector3Float(x, y, z);
+                frames.put(
+                        time,
+                        Timeline.Channel.valueOf(channel.toUpperCase()),
+                        convertValue(channel, value),
+                        getInterpolation(keyframeJson, channel)
+                );
+            }
 
-                    String channel = keyframeJson.get("channel").getAsString();
-                    int time = Math.round(GsonUtil.parseLenientFloat(keyframeJson.get("time")) * TICKS_PER_SECOND);
+            animators.put(boneName, KEYFRAME_TOLERANCE < 0
+                    ? frames.bake()
+                    : frames.compress(KEYFRAME_TOLERANCE, QUANTIZE_KEYFRAMES));
+        }
 
-                    if (channel.equals("position")) {
-                        value = value.divide(ElementScale.BLOCK_SIZE, ElementScale.BLOCK_SIZE, -ElementScale.BLOCK_SIZE);
-                    }
+        Animation animation = new Animation(name, length, loopMode, animators, EventTimeline.of(events));
+        if (ROOT_MOTION_BONE != null) {
+            animation = animation.withRootMotion(ROOT_MOTION_BONE);
+        }
+        animations.put(name, animation);
+    }
 
-                    if (channel.equals("rotation")) {
-                        value = value.multiply(1, -1, -1);
-                    }
+    private static boolean isEffectAnimator(String key, JsonObject animatorJson) {
+        if (!GsonUtil.isNullOrAbsent(animatorJson, "type")) {
+            return animatorJson.get("type").getAsString().equals("effect");
+        }
+        return key.equals("effects");
+    }
 
-                    frames.put(time, Timeline.Channel.valueOf(channel.toUpperCase()), value);
-                }
+    /**
+     * Reads the {@link AnimationEvent} instances from the given
+     * effect animator, one per keyframe data point
+     */
+    private static void readEvents(JsonObject animatorJson, List<AnimationEvent> events) {
+        if (GsonUtil.isNullOrAbsent(animatorJson, "keyframes")) {
+            return;
+        }
 
-                animators.put(boneName, frames);
+        for (JsonElement keyFrameElement : animatorJson.get("keyframes").getAsJsonArray()) {
+            JsonObject keyframeJson = keyFrameElement.getAsJsonObject();
+            String channel = keyframeJson.get("channel").getAsString();
+            AnimationEvent.Type type = eventType(channel);
+            if (type == null) {
+                LOGGER.warning("Unknown effect channel '" + channel + "', its keyframes will be ignored");
+                continue;
             }
+            int time = Math.round(GsonUtil.parseLenientFloat(keyframeJson.get("time")) * TICKS_PER_SECOND);
+            // timeline keyframes hold a script, sound
+            // and particle keyframes an effect identifier
+            String property = type == AnimationEvent.Type.TIMELINE ? "script" : "effect";
+
+            for (JsonElement dataPointElement : keyframeJson.get("data_points").getAsJsonArray()) {
+                JsonObject dataPoint = dataPointElement.getAsJsonObject();
+                String value = GsonUtil.isNullOrAbsent(dataPoint, property)
+                        ? ""
+                        : dataPoint.get(property).getAsString();
+                events.add(AnimationEvent.of(Math.max(time, 0), type, value));
+            }
+        }
+    }
 
-            animations.put(name, new Animation(name, length, loopMode, animators));
+    /**
+     * Finds the {@link AnimationEvent.Type} for the given
+     * effect {@code channel}, or null if it is unknown
+     */
+    private static @Nullable AnimationEvent.Type eventType(String channel) {
+        String name = channel.toUpperCase(Locale.ROOT);
+        for (AnimationEvent.Type type : AnimationEvent.Type.values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
         }
+        return null;
+    }
+
+    /**
+     * Converts the given keyframe {@code value} from the Blockbench
+     * coordinate system to the one used by the engine
+     */
+    private static Vector3Float convertValue(String channel, Vector3Float value) {
+        if (channel.equals("position")) {
+            value = value.divide(ElementScale.BLOCK_SIZE, ElementScale.BLOCK_SIZE, -ElementScale.BLOCK_SIZE);
+        }
+
+        if (channel.equals("rotation")) {
+            value = value.multiply(1, -1, -1);
+        }
+
+        return value;
+    }
+
+    private static Interpolation getInterpolation(JsonObject keyframeJson, String channel) {
+        if (GsonUtil.isNullOrAbsent(keyframeJson, "interpolation")) {
+            return Interpolation.LINEAR;
+        }
+
+        switch (keyframeJson.get("interpolation").getAsString().toLowerCase(Locale.ROOT)) {
+            case "catmullrom":
+                return Interpolation.CATMULLROM;
+            case "step":
+                return Interpolation.STEP;
+            case "bezier":
+                // handle times are in seconds, handle values are
+                // converted as the keyframe values
+                return Interpolation.bezier(
+                        getHandle(keyframeJson, "bezier_left_time", -0.1F).multiply(TICKS_PER_SECOND),
+                        convertValue(channel, getHandle(keyframeJson, "bezier_left_value", 0F)),
+                        getHandle(keyframeJson, "bezier_right_time", 0.1F).multiply(TICKS_PER_SECOND),
+                        convertValue(channel, getHandle(keyframeJson, "bezier_right_value", 0F))
+                );
+            default:
+                return Interpolation.LINEAR;
+        }
+    }
+
+    private static Vector3Float getHandle(JsonObject keyframeJson, String property, float defaultValue) {
+        if (GsonUtil.isNullOrAbsent(keyframeJson, property)) {
+            return new Vector3Float(defaultValue, defaultValue, defaultValue);
+        }
+        JsonArray handle = keyframeJson.get(property).getAsJsonArray();
+        return new Vector3Float(
+                GsonUtil.parseLenientFloat(handle.get(0)),
+                GsonUtil.parseLenientFloat(handle.get(1)),
+                GsonUtil.parseLenientFloat(handle.get(2))
+        );
     }
 
     private static Animation.LoopMode getLoopMode(JsonObject animationJson) {
@@ -26,7 +26,8 @@ package team.unnamed.hephaestus.reader.blockbench;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Axis3D;
 import team.unnamed.creative.base.CubeFace;
 import team.unnamed.creative.base.Vector2Float;
@@ -44,48 +45,84 @@ import team.unnamed.hephaestus.partial.ElementAsset;
 import team.unnamed.hephaestus.partial.ModelAsset;
 import team.unnamed.hephaestus.process.ElementScale;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 
 final class BBModelReaderImpl implements BBModelReader {
 
     private static final Logger LOGGER = Logger.getLogger(BBModelReader.class.getName());
-    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    // must be incremented when the same data is read into
+    // different models, so that cached models are read again
+    private static final int VERSION = 1;
 
     private final ModelDataCursor cursor;
+    private final boolean lazyTextures;
 
     BBModelReaderImpl(ModelDataCursor cursor) {
+        this(cursor, TextureReader.LAZY_TEXTURES);
+    }
+
+    BBModelReaderImpl(ModelDataCursor cursor, boolean lazyTextures) {
         this.cursor = Objects.requireNonNull(cursor, "cursor");
+        this.lazyTextures = lazyTextures;
+    }
+
+    @Override
+    public List<Model> readAll(Collection<Path> paths, Executor executor) throws IOException {
+        // models are parsed with a throwaway cursor, the custom model
+        // data is then assigned from this reader cursor in order
+        return new BBModelReaderImpl(new ModelDataCursor(0), lazyTextures).readAll(paths, executor, cursor);
+    }
+
+    @Override
+    public String cacheKey() {
+        return BBModelReader.class.getName() + '/' + VERSION + ';' + AnimationReader.settings();
     }
 
     @Override
     public Model read(InputStream input) throws IOException {
-        Reader reader = new InputStreamReader(input);
-        JsonObject json = JSON_PARSER.parse(reader).getAsJsonObject();
-        JsonObject meta = json.get("meta").getAsJsonObject();
+        return read(input, null);
+    }
 
-        // TODO: we can take the "meta.creation_time" date for generating resource pack
-        String modelName = json.get("name").getAsString();
+    @Override
+    public Model read(File file) throws IOException {
+        return read(file.toPath());
+    }
 
-        // check for box uv
-        if (!GsonUtil.isNullOrAbsent(meta, "box_uv") && meta.get("box_uv").getAsBoolean()) {
-            throw new IOException("Box UV not supported, please turn it off");
+    @Override
+    public Model read(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            // the path is kept to decode textures on demand
+            return read(input, lazyTextures ? path : null);
         }
+    }
 
-        JsonObject resolution = json.getAsJsonObject("resolution");
-        int textureWidth = resolution.get("width").getAsInt();
-        int textureHeight = resolution.get("height").getAsInt();
+    private Model read(InputStream input, @Nullable Path lazyTextureFile) throws IOException {
+        // the model is read as a stream, properties are processed as
+        // they are found, and only the small sections are read as trees
+        JsonReader reader = new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        reader.setLenient(true);
+
+        String modelName = null;
+        int textureWidth = -1;
+        int textureHeight = -1;
 
         Map<String, Bone> bones = new LinkedHashMap<>();
         Map<String, BoneAsset> boneAssets = new LinkedHashMap<>();
@@ -93,12 +130,79 @@ final class BBModelReaderImpl implements BBModelReader {
         Map<String, Writable> textures = new HashMap<>();
         Map<Integer, String> textureMapping = new HashMap<>();
 
+        // Local map holding relations of cube identifier to
+        // cube data, used to get bone cubes in constant time
+        // when reading them
+        Map<String, ElementAsset> cubeIdMap = new HashMap<>();
+
+        // cubes found before the texture resolution and the outliner,
+        // processed when the whole model has been read
+        List<JsonObject> pendingCubes = new ArrayList<>();
+        JsonArray outliner = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "meta": {
+                    JsonObject meta = GsonUtil.readElement(reader).getAsJsonObject();
+                    // check for box uv
+                    if (!GsonUtil.isNullOrAbsent(meta, "box_uv") && meta.get("box_uv").getAsBoolean()) {
+                        throw new IOException("Box UV not supported, please turn it off");
+                    }
+                    // TODO: we can take the "meta.creation_time" date for generating resource pack
+                    break;
+                }
+                case "name":
+                    modelName = reader.nextString();
+                    break;
+                case "resolution": {
+                    JsonObject resolution = GsonUtil.readElement(reader).getAsJsonObject();
+                    textureWidth = resolution.get("width").getAsInt();
+                    textureHeight = resolution.get("height").getAsInt();
+                    break;
+                }
+                case "elements":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonObject cubeJson = GsonUtil.readElement(reader).getAsJsonObject();
+                        if (textureWidth < 0) {
+                            pendingCubes.add(cubeJson);
+                        } else {
+                            readElement(cubeJson, cubeIdMap, textureWidth, textureHeight);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                case "outliner":
+                    outliner = GsonUtil.readElement(reader).getAsJsonArray();
+                    break;
+                case "textures":
+                    TextureReader.readTextures(reader, lazyTextureFile, textures, textureMapping);
+                    break;
+                case "animations":
+                    AnimationReader.readAnimations(reader, animations);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (modelName == null || textureWidth < 0 || outliner == null) {
+            throw new IOException("Model doesn't contain a name, a resolution or an outliner");
+        }
+
+        for (JsonObject cubeJson : pendingCubes) {
+            readElement(cubeJson, cubeIdMap, textureWidth, textureHeight);
+        }
+
         BBModelData modelData = new BBModelData();
         modelData.boundingBox = new Vector2Float(1, 1); // initial
+        readOutliner(modelData, outliner, cubeIdMap, bones, boneAssets);
 
-        TextureReader.readTextures(json, textures, textureMapping);
-        readElements(modelData, json, bones, boneAssets, textureWidth, textureHeight);
-        AnimationReader.readAnimations(json, animations);
+        // precompute the local rotations of rotated bones
+        animations.replaceAll((name, animation) -> animation.withBoneRotations(bones.values()));
 
         return new Model(
                 modelName,
@@ -115,106 +219,105 @@ final class BBModelReaderImpl implements BBModelReader {
     }
 
     /**
-     * Locally reads cubes from the "elements" property from
-     * the given {@code json} object and then reads {@link Bone}
-     * and {@link BoneAsset} from the "outliner" property
+     * Reads a cube from the given {@code cubeJson} object, an
+     * element of the "elements" property, and puts it into the
+     * given {@code cubeIdMap}
      */
-    private void readElements(
-            BBModelData modelData,
-            JsonObject json,
-            Map<String, Bone> bones,
-            Map<String, BoneAsset> boneAssets,
+    private void readElement(
+            JsonObject cubeJson,
+            Map<String, ElementAsset> cubeIdMap,
             int textureWidth,
             int textureHeight
-    ) throws IOException {
-
-        // Local map holding relations of cube identifier to
-        // cube data, used to get bone cubes in constant time
-        // when reading them
-        Map<String, ElementAsset> cubeIdMap = new HashMap<>();
-
-        for (JsonElement cubeElement : json.getAsJsonArray("elements")) {
-
-            JsonObject cubeJson = cubeElement.getAsJsonObject();
-
-            Vector3Float pivot = GsonUtil.getVector3FloatFromJson(cubeJson.get("origin"))
-                    .multiply(-1, 1, 1);
-            Vector3Float to = GsonUtil.getVector3FloatFromJson(cubeJson.get("to"));
-            Vector3Float from = GsonUtil.getVector3FloatFromJson(cubeJson.get("from"));
-
-            Vector3Float origin = new Vector3Float(-to.x(), from.y(), from.z());
-            to = origin.add(to.subtract(from));
-
-            Vector3Float rotation = GsonUtil.isNullOrAbsent(cubeJson, "rotation")
-                    ? Vector3Float.ZERO
-                    : GsonUtil.getVector3FloatFromJson(cubeJson.get("rotation"));
-
-            float x = rotation.x();
-            float y = rotation.y();
-            float z = rotation.z();
+    ) {
+        Vector3Float pivot = GsonUtil.getVector3FloatFromJson(cubeJson.get("origin"))
+                .multiply(-1, 1, 1);
+        Vector3Float to = GsonUtil.getVector3FloatFromJson(cubeJson.get("to"));
+        Vector3Float from = GsonUtil.getVector3FloatFromJson(cubeJson.get("from"));
 
-            // determine axis and check that it is rotated to a single direction
-            Axis3D axis;
-            float angle;
+        Vector3Float origin = new Vector3Float(-to.x(), from.y(), from.z());
+        to = origin.add(to.subtract(from));
 
-            if ((((x != 0) ? 1 : 0) ^ ((y != 0) ? 1 : 0) ^ ((z != 0) ? 1 : 0)) == 0 && (x != 0 || y != 0)) {
-                throw new UnsupportedOperationException("Cube can't be rotated in multiple axis");
-            } else if (x != 0) {
-                axis = Axis3D.X;
-                angle = x;
-            } else if (y != 0) {
-                axis = Axis3D.Y;
-                angle = y;
-            } else {
-                axis = Axis3D.Z;
-                angle = z;
-            }
+        Vector3Float rotation = GsonUtil.isNullOrAbsent(cubeJson, "rotation")
+                ? Vector3Float.ZERO
+                : GsonUtil.getVector3FloatFromJson(cubeJson.get("rotation"));
+
+        float x = rotation.x();
+        float y = rotation.y();
+        float z = rotation.z();
+
+        // determine axis and check that it is rotated to a single direction
+        Axis3D axis;
+        float angle;
+
+        if ((((x != 0) ? 1 : 0) ^ ((y != 0) ? 1 : 0) ^ ((z != 0) ? 1 : 0)) == 0 && (x != 0 || y != 0)) {
+            throw new UnsupportedOperationException("Cube can't be rotated in multiple axis");
+        } else if (x != 0) {
+            axis = Axis3D.X;
+            angle = x;
+        } else if (y != 0) {
+            axis = Axis3D.Y;
+            angle = y;
+        } else {
+            axis = Axis3D.Z;
+            angle = z;
+        }
 
-            Map<CubeFace, ElementFace> faces = new HashMap<>();
+        Map<CubeFace, ElementFace> faces = new HashMap<>();
 
-            for (Map.Entry<String, JsonElement> faceEntry
-                    : cubeJson.getAsJsonObject("faces").entrySet()) {
+        for (Map.Entry<String, JsonElement> faceEntry
+                : cubeJson.getAsJsonObject("faces").entrySet()) {
 
-                CubeFace face = CubeFace.valueOf(faceEntry.getKey().toUpperCase(Locale.ROOT));
-                JsonObject faceJson = faceEntry.getValue().getAsJsonObject();
+            CubeFace face = CubeFace.valueOf(faceEntry.getKey().toUpperCase(Locale.ROOT));
+            JsonObject faceJson = faceEntry.getValue().getAsJsonObject();
 
-                int textureId = GsonUtil.isNullOrAbsent(faceJson, "texture")
-                        ? -1
-                        : faceJson.get("texture").getAsInt();
+            int textureId = GsonUtil.isNullOrAbsent(faceJson, "texture")
+                    ? -1
+                    : faceJson.get("texture").getAsInt();
 
-                JsonArray uvJson = faceJson.get("uv").getAsJsonArray();
-                Vector4Float uv = new Vector4Float(
-                        uvJson.get(0).getAsFloat() / textureWidth,
-                        uvJson.get(1).getAsFloat() / textureHeight,
-                        uvJson.get(2).getAsFloat() / textureWidth,
-                        uvJson.get(3).getAsFloat() / textureHeight
-                );
+            JsonArray uvJson = faceJson.get("uv").getAsJsonArray();
+            Vector4Float uv = new Vector4Float(
+                    uvJson.get(0).getAsFloat() / textureWidth,
+                    uvJson.get(1).getAsFloat() / textureHeight,
+                    uvJson.get(2).getAsFloat() / textureWidth,
+                    uvJson.get(3).getAsFloat() / textureHeight
+            );
 
-                int faceRotation = faceJson.has("rotation") ? faceJson.get("rotation").getAsInt() : ElementFace.DEFAULT_ROTATION;
+            int faceRotation = faceJson.has("rotation") ? faceJson.get("rotation").getAsInt() : ElementFace.DEFAULT_ROTATION;
 
-                if (!uv.equals(Vector4Float.ZERO)) {
-                    faces.put(face, ElementFace.builder()
-                            .uv(uv)
-                            .rotation(faceRotation)
-                            .texture("#" + textureId)
-                            .tintIndex(0)
-                            .build());
-                }
+            if (!uv.equals(Vector4Float.ZERO)) {
+                faces.put(face, ElementFace.builder()
+                        .uv(uv)
+                        .rotation(faceRotation)
+                        .texture("#" + textureId)
+                        .tintIndex(0)
+                        .build());
             }
-
-            String uuid = cubeJson.get("uuid").getAsString();
-            ElementAsset cube = new ElementAsset(
-                    origin,
-                    to,
-                    ElementRotation.of(pivot, axis, angle, ElementRotation.DEFAULT_RESCALE),
-                    faces
-            );
-            cubeIdMap.put(uuid, cube);
         }
 
+        String uuid = cubeJson.get("uuid").getAsString();
+        ElementAsset cube = new ElementAsset(
+                origin,
+                to,
+                ElementRotation.of(pivot, axis, angle, ElementRotation.DEFAULT_RESCALE),
+                faces
+        );
+        cubeIdMap.put(uuid, cube);
+    }
+
+    /**
+     * Reads {@link Bone} and {@link BoneAsset} from the
+     * given "outliner" array, using the already read cubes
+     */
+    private void readOutliner(
+            BBModelData modelData,
+            JsonArray outliner,
+            Map<String, ElementAsset> cubeIdMap,
+            Map<String, Bone> bones,
+            Map<String, BoneAsset> boneAssets
+    ) throws IOException {
         // "outliner" field contains the root elements, like
         // bones and cubes, root cubes aren't supported yet
-        for (JsonElement element : json.get("outliner").getAsJsonArray()) {
+        for (JsonElement element : outliner) {
             if (element.isJsonObject()) {
                 // if it's an object, then it represents a bone
                 createBone(
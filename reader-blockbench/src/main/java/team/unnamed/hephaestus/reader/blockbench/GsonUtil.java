@@ -25,9 +25,15 @@ package team.unnamed.hephaestus.reader.blockbench;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
 import team.unnamed.creative.base.Vector3Float;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+
 final class GsonUtil {
 
     /**
@@ -39,6 +45,46 @@ final class GsonUtil {
         return !object.has(name) || object.get(name).isJsonNull();
     }
 
+    /**
+     * Reads the next value from the given {@code reader} as a
+     * {@link JsonElement}, so that only parts of a document are
+     * held as a tree, instead of the deprecated
+     * {@link com.google.gson.JsonParser} instance methods
+     */
+    static JsonElement readElement(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT: {
+                JsonObject object = new JsonObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    object.add(reader.nextName(), readElement(reader));
+                }
+                reader.endObject();
+                return object;
+            }
+            case BEGIN_ARRAY: {
+                JsonArray array = new JsonArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.add(readElement(reader));
+                }
+                reader.endArray();
+                return array;
+            }
+            case STRING:
+                return new JsonPrimitive(reader.nextString());
+            case NUMBER:
+                return new JsonPrimitive(new BigDecimal(reader.nextString()));
+            case BOOLEAN:
+                return new JsonPrimitive(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return JsonNull.INSTANCE;
+            default:
+                throw new IllegalStateException("Unexpected token " + reader.peek() + " at " + reader.getPath());
+        }
+    }
+
     /**
      * Checks if the given {@code element} is a
      * string, if yes, it replaces the commas (,)
@@ -23,11 +23,17 @@
  */
 package team.unnamed.hephaestus.reader.blockbench;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Writable;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Base64;
 import java.util.Map;
 
@@ -35,36 +41,181 @@ final class TextureReader {
 
     private static final String BASE_64_PREFIX = "data:image/png;base64,";
 
+    // whether textures of models read from files are decoded
+    // from the file when written instead of being held in memory
+    static final boolean LAZY_TEXTURES = Boolean.getBoolean("hephaestus.lazy-textures");
+
     /**
-     * Reads the textures from the given {@code json} object
-     * and puts the data into the given {@code textures} and
-     * their mappings to the given {@code textureMappings}
+     * Reads the textures from the "textures" array the given
+     * {@code reader} is positioned at and puts the data into the
+     * given {@code textures} and their mappings to the given
+     * {@code textureMappings}
+     *
+     * <p>Textures are read one at a time and their sources are
+     * decoded as soon as they are read, so that only one encoded
+     * texture is held in memory at once</p>
+     *
+     * <p>If a {@code lazyFile} is given, the model must be read
+     * from it, sources are skipped instead and textures are decoded
+     * from the file when they are written, so they are not held in
+     * memory</p>
      */
     static void readTextures(
-            JsonObject json,
+            JsonReader reader,
+            @Nullable Path lazyFile,
             Map<String, Writable> textures,
             Map<Integer, String> textureMappings
     ) throws IOException {
+        LazyTextures lazy = lazyFile == null ? null : new LazyTextures(lazyFile);
 
-        JsonArray texturesJson = json.get("textures").getAsJsonArray();
-
-        for (int index = 0; index < texturesJson.size(); index++) {
+        reader.beginArray();
+        int index = 0;
+        for (; reader.hasNext(); index++) {
 
-            JsonObject textureJson = texturesJson.get(index).getAsJsonObject();
-            String name = textureJson.get("name").getAsString();
-            String source = textureJson.get("source").getAsString();
+            String name = null;
+            Writable data = null;
 
-            if (!(source.startsWith(BASE_64_PREFIX))) {
-                throw new IOException("Model doesn't contains a valid" +
-                        " texture source. Not Base64");
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        name = reader.nextString();
+                        break;
+                    case "source":
+                        if (lazy != null) {
+                            reader.skipValue();
+                            int textureIndex = index;
+                            data = output -> output.write(lazy.texture(textureIndex));
+                        } else {
+                            data = Writable.bytes(decodeSource(reader.nextString()));
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
             }
+            reader.endObject();
 
-            String base64Source = source.substring(BASE_64_PREFIX.length());
+            if (name == null || data == null) {
+                throw new IOException("Texture at index " + index + " doesn't" +
+                        " have a name or a source");
+            }
 
             // map to index
             textureMappings.put(index, name);
-            textures.put(name, Writable.bytes(Base64.getDecoder().decode(base64Source)));
+            textures.put(name, data);
+        }
+        reader.endArray();
+
+        if (lazy != null) {
+            lazy.textureCount = index;
+        }
+    }
+
+    /**
+     * The textures of a model file, decoded from the file when
+     * they are written. All the textures are decoded in a single
+     * pass over the file and held until every one of them has
+     * been written, i.e. once per resource pack write
+     */
+    private static final class LazyTextures {
+
+        private final Path file;
+        private final long size;
+        private final FileTime lastModified;
+        private int textureCount;
+
+        // textures decoded by the last pass that were not
+        // written yet, null if there are none
+        private byte @Nullable [][] pending;
+        private int pendingCount;
+
+        LazyTextures(Path file) throws IOException {
+            this.file = file;
+            this.size = Files.size(file);
+            this.lastModified = Files.getLastModifiedTime(file);
+        }
+
+        synchronized byte[] texture(int index) throws IOException {
+            if (pending == null || pending[index] == null) {
+                // first texture of a write, or a texture written
+                // twice in the same write, decode them all again
+                pending = decodeAll();
+                pendingCount = pending.length;
+            }
+            byte[] data = pending[index];
+            pending[index] = null;
+            if (--pendingCount == 0) {
+                pending = null;
+            }
+            return data;
+        }
+
+        private byte[][] decodeAll() throws IOException {
+            if (Files.size(file) != size || !Files.getLastModifiedTime(file).equals(lastModified)) {
+                throw new IOException("Model file " + file + " was modified after it was read");
+            }
+
+            byte[][] decoded = new byte[textureCount][];
+            try (JsonReader reader = new JsonReader(new InputStreamReader(
+                    Files.newInputStream(file),
+                    StandardCharsets.UTF_8
+            ))) {
+                reader.setLenient(true);
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (!reader.nextName().equals("textures")) {
+                        reader.skipValue();
+                        continue;
+                    }
+
+                    reader.beginArray();
+                    for (int index = 0; index < textureCount && reader.hasNext(); index++) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("source")) {
+                                decoded[index] = decodeSource(reader.nextString());
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    break;
+                }
+            }
+
+            for (int index = 0; index < textureCount; index++) {
+                if (decoded[index] == null) {
+                    throw new IOException("Texture at index " + index + " not found in " + file);
+                }
+            }
+            return decoded;
+        }
+
+    }
+
+    private static byte[] decodeSource(String source) throws IOException {
+        if (!(source.startsWith(BASE_64_PREFIX))) {
+            throw new IOException("Model doesn't contains a valid" +
+                    " texture source. Not Base64");
+        }
+
+        // decode the base64 characters after the prefix,
+        // without copying them to a new string first
+        byte[] encoded = source.getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer decoded = Base64.getDecoder().decode(ByteBuffer.wrap(
+                encoded,
+                BASE_64_PREFIX.length(),
+                encoded.length - BASE_64_PREFIX.length()
+        ));
+        byte[] data = decoded.array();
+        if (decoded.arrayOffset() != 0 || decoded.remaining() != data.length) {
+            data = new byte[decoded.remaining()];
+            decoded.get(data);
         }
+        return data;
     }
 
 }
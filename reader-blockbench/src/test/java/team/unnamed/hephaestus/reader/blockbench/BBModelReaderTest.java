@@ -25,6 +25,7 @@ package team.unnamed.hephaestus.reader.blockbench;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import team.unnamed.creative.base.CubeFace;
 import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.creative.base.Vector4Float;
@@ -32,6 +33,10 @@ import team.unnamed.creative.base.Writable;
 import team.unnamed.creative.model.ElementFace;
 import team.unnamed.creative.model.ElementRotation;
 import team.unnamed.hephaestus.Model;
+import team.unnamed.hephaestus.ModelDataCursor;
+import team.unnamed.hephaestus.animation.Animation;
+import team.unnamed.hephaestus.animation.AnimationEvent;
+import team.unnamed.hephaestus.animation.Timeline;
 import team.unnamed.hephaestus.partial.BoneAsset;
 import team.unnamed.hephaestus.partial.ElementAsset;
 import team.unnamed.hephaestus.partial.ModelAsset;
@@ -39,10 +44,20 @@ import team.unnamed.hephaestus.reader.ModelReader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BBModelReaderTest {
 
@@ -116,4 +131,186 @@ public class BBModelReaderTest {
         }
     }
 
+    @Test
+    @DisplayName("Test that a model is read regardless of the order of its properties")
+    public void test_animated() throws IOException {
+
+        ModelReader reader = BBModelReader.blockbench();
+
+        try (InputStream resource = getClass().getClassLoader().getResourceAsStream("cube_animated.bbmodel")) {
+            Model model = reader.read(resource);
+
+            assertEquals("cube_animated", model.name());
+            assertEquals(1, model.bones().size());
+
+            ModelAsset asset = model.asset();
+            assertNotNull(asset);
+            assertNotNull(asset.textures().get("cube_default.png"));
+
+            // the cube is read before the resolution
+            ElementAsset element = asset.boneMap().get("root").cubes().get(0);
+            assertEquals(new Vector4Float(0.25F, 0F, 0.5F, 0.25F), element.faces().get(CubeFace.SOUTH).uv());
+
+            Animation animation = model.animations().get("spin");
+            assertNotNull(animation);
+            assertEquals(20, animation.length());
+            assertEquals(Animation.LoopMode.LOOP, animation.loopMode());
+            assertEquals(1, animation.timelines().size());
+            assertNotNull(animation.timelines().get("root"));
+            // keyframes of unknown effect channels are skipped
+            assertEquals(
+                    List.of(AnimationEvent.of(10, AnimationEvent.Type.SOUND, "entity.cube.spin")),
+                    animation.events().events()
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Test that bulk reading assigns the same custom model data regardless of the order")
+    public void test_read_all() throws IOException, URISyntaxException {
+        Path cube = resourcePath("cube.bbmodel");
+        Path multitexture = resourcePath("cube_multitexture.bbmodel");
+        Path animated = resourcePath("cube_animated.bbmodel");
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Model> models = BBModelReader.blockbench().readAll(List.of(multitexture, cube, animated), executor);
+            List<Model> reversed = BBModelReader.blockbench().readAll(List.of(animated, cube, multitexture), executor);
+
+            assertEquals(3, models.size());
+            assertEquals("cube", models.get(0).name());
+            assertEquals("cube_animated", models.get(1).name());
+            assertEquals("cube_multitexture", models.get(2).name());
+
+            for (int i = 0; i < models.size(); i++) {
+                Model model = models.get(i);
+                int customModelData = i + 1;
+                assertEquals(model.name(), reversed.get(i).name());
+                assertEquals(customModelData, model.boneMap().get("root").customModelData());
+                assertEquals(customModelData, reversed.get(i).boneMap().get("root").customModelData());
+
+                ModelAsset asset = model.asset();
+                assertNotNull(asset);
+                assertEquals(customModelData, asset.boneMap().get("root").customModelData());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test that cached models are loaded without parsing them again")
+    public void test_cached(@TempDir Path directory) throws IOException, URISyntaxException {
+        AtomicInteger parsed = new AtomicInteger();
+        ModelReader blockbench = BBModelReader.blockbench();
+        ModelReader counting = input -> {
+            parsed.incrementAndGet();
+            return blockbench.read(input);
+        };
+
+        Path path = resourcePath("cube_animated.bbmodel");
+        Model model = ModelReader.cached(counting, directory, new ModelDataCursor(1)).read(path.toFile());
+        Model cached = ModelReader.cached(counting, directory, new ModelDataCursor(1)).read(path.toFile());
+
+        assertEquals(1, parsed.get());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+
+        assertEquals(model.name(), cached.name());
+        assertEquals(model.boundingBox(), cached.boundingBox());
+        assertEquals(1, cached.boneMap().get("root").customModelData());
+
+        ModelAsset asset = model.asset();
+        ModelAsset cachedAsset = cached.asset();
+        assertNotNull(asset);
+        assertNotNull(cachedAsset);
+        assertEquals(asset.textureMapping(), cachedAsset.textureMapping());
+        assertArrayEquals(
+                asset.textures().get("cube_default.png").toByteArray(),
+                cachedAsset.textures().get("cube_default.png").toByteArray()
+        );
+        ElementAsset element = asset.boneMap().get("root").cubes().get(0);
+        ElementAsset cachedElement = cachedAsset.boneMap().get("root").cubes().get(0);
+        assertEquals(element.from(), cachedElement.from());
+        assertEquals(element.to(), cachedElement.to());
+        assertEquals(
+                element.faces().get(CubeFace.SOUTH).uv(),
+                cachedElement.faces().get(CubeFace.SOUTH).uv()
+        );
+
+        Animation animation = model.animations().get("spin");
+        Animation cachedAnimation = cached.animations().get("spin");
+        assertEquals(animation.length(), cachedAnimation.length());
+        assertEquals(animation.loopMode(), cachedAnimation.loopMode());
+        assertEquals(animation.events(), cachedAnimation.events());
+
+        Timeline timeline = animation.timelines().get("root");
+        Timeline cachedTimeline = cachedAnimation.timelines().get("root");
+        float[] expected = new float[4];
+        float[] actual = new float[4];
+        for (int tick = 0; tick <= animation.length(); tick++) {
+            assertEquals(timeline.sample(tick), cachedTimeline.sample(tick));
+            timeline.sampleRotation(tick, expected, 0);
+            cachedTimeline.sampleRotation(tick, actual, 0);
+            assertArrayEquals(expected, actual);
+        }
+
+        // readers with other settings do not share cache entries
+        ModelReader reconfigured = new ModelReader() {
+            @Override
+            public Model read(InputStream input) throws IOException {
+                return counting.read(input);
+            }
+
+            @Override
+            public String cacheKey() {
+                return counting.cacheKey() + ";tps=10";
+            }
+        };
+        ModelReader.cached(reconfigured, directory, new ModelDataCursor(1)).read(path.toFile());
+        assertEquals(2, parsed.get());
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that textures of models read from files are decoded on demand")
+    public void test_lazy_textures(@TempDir Path directory) throws IOException, URISyntaxException {
+        Path file = directory.resolve("cube_multitexture.bbmodel");
+        Files.copy(resourcePath("cube_multitexture.bbmodel"), file);
+
+        ModelReader reader = BBModelReader.blockbench();
+        Model lazy = new BBModelReaderImpl(new ModelDataCursor(1), true).read(file);
+        Model model = reader.read(file);
+
+        ModelAsset asset = model.asset();
+        ModelAsset lazyAsset = lazy.asset();
+        assertNotNull(asset);
+        assertNotNull(lazyAsset);
+        assertEquals(asset.textureMapping(), lazyAsset.textureMapping());
+        assertTrue(lazyAsset.textures().size() > 1);
+
+        for (int write = 0; write < 2; write++) {
+            Path moved = directory.resolve("moved.bbmodel");
+            boolean first = true;
+            for (Map.Entry<String, Writable> texture : asset.textures().entrySet()) {
+                byte[] data = lazyAsset.textures().get(texture.getKey()).toByteArray();
+                if (first) {
+                    // the first texture decodes all of them, the
+                    // others do not need to read the file again
+                    Files.move(file, moved);
+                    first = false;
+                }
+                assertArrayEquals(texture.getValue().toByteArray(), data);
+            }
+            Files.move(moved, file);
+        }
+    }
+
+    private Path resourcePath(String name) throws URISyntaxException {
+        return Paths.get(getClass().getClassLoader().getResource(name).toURI());
+    }
+
 }
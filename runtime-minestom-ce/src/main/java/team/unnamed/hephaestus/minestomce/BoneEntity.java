@@ -25,7 +25,7 @@ package team.unnamed.hephaestus.minestomce;
 
 import net.kyori.adventure.text.Component;
 import net.minestom.server.color.Color;
-import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Point;
 import net.minestom.server.coordinate.Vec;
 import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.metadata.display.ItemDisplayMeta;
@@ -37,6 +37,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.Bone;
+import team.unnamed.hephaestus.util.MutableQuaternion;
+import team.unnamed.hephaestus.util.MutableVec3;
 import team.unnamed.hephaestus.util.Quaternion;
 
 import java.util.concurrent.CompletableFuture;
@@ -51,6 +53,9 @@ import java.util.concurrent.CompletableFuture;
  */
 public final class BoneEntity extends GenericBoneEntity {
 
+    // interpolation duration used when animations are ticked every tick
+    private static final int INTERPOLATION_DURATION = 3;
+
     private static final ItemStack BASE_HELMET = ItemStack.builder(Material.LEATHER_HORSE_ARMOR)
                     .meta(new LeatherArmorMeta.Builder()
                             .color(new Color(0xFFFFFF))
@@ -60,6 +65,16 @@ public final class BoneEntity extends GenericBoneEntity {
 
     private final ModelEntity view;
     private final Bone bone;
+    private final float modelScale;
+
+    // rotation buffers reused by the mutable updates, they are
+    // alternated so that the meta never gets the array it holds
+    private final float[][] rotationBuffers = new float[2][4];
+    private int rotationBuffer;
+
+    // the last scale sent, so that it is only sent
+    // (and allocated) again if it changes
+    private @Nullable Vec lastScale;
 
     public BoneEntity(
             ModelEntity view,
@@ -70,14 +85,16 @@ public final class BoneEntity extends GenericBoneEntity {
         super(EntityType.ITEM_DISPLAY);
         this.view = view;
         this.bone = bone;
+        this.modelScale = scale;
         initialize(initialPosition, scale);
     }
 
     private void initialize(Vector3Float initialPosition, float scale) {
         ItemDisplayMeta meta = (ItemDisplayMeta) getEntityMeta();
-        meta.setScale(new Vec(scale, scale, scale));
+        lastScale = new Vec(scale, scale, scale);
+        meta.setScale(lastScale);
         meta.setDisplayContext(ItemDisplayMeta.DisplayContext.THIRD_PERSON_LEFT_HAND);
-        meta.setInterpolationDuration(3);
+        meta.setInterpolationDuration(INTERPOLATION_DURATION);
         meta.setViewRange(1000);
         meta.setHasNoGravity(true);
 
@@ -145,13 +162,76 @@ public final class BoneEntity extends GenericBoneEntity {
 
     @Override
     public void update(Vector3Float position, Quaternion rotation) {
+        update(position.x(), position.y(), position.z(), rotation.toFloatArray(), null);
+    }
+
+    @Override
+    public void update(MutableVec3 position, MutableQuaternion rotation) {
+        update(position.x(), position.y(), position.z(), rotationBuffer(rotation), null);
+    }
+
+    @Override
+    public void update(Vector3Float position, Quaternion rotation, Vector3Float scale) {
+        update(
+                position.x(), position.y(), position.z(),
+                rotation.toFloatArray(),
+                changedScale(scale.x(), scale.y(), scale.z())
+        );
+    }
+
+    @Override
+    public void update(MutableVec3 position, MutableQuaternion rotation, MutableVec3 scale) {
+        update(
+                position.x(), position.y(), position.z(),
+                rotationBuffer(rotation),
+                changedScale(scale.x(), scale.y(), scale.z())
+        );
+    }
+
+    private float[] rotationBuffer(MutableQuaternion rotation) {
+        rotationBuffer ^= 1;
+        return rotation.toFloatArray(rotationBuffers[rotationBuffer], 0);
+    }
+
+    /**
+     * Returns the given bone scale multiplied by the model
+     * scale, or null if it is the last scale sent
+     */
+    private @Nullable Vec changedScale(float x, float y, float z) {
+        double scaleX = x * modelScale;
+        double scaleY = y * modelScale;
+        double scaleZ = z * modelScale;
+        Vec last = lastScale;
+        if (last != null && last.x() == scaleX && last.y() == scaleY && last.z() == scaleZ) {
+            return null;
+        }
+        return lastScale = new Vec(scaleX, scaleY, scaleZ);
+    }
+
+    private void update(float x, float y, float z, float[] rotation, @Nullable Point scale) {
         ItemDisplayMeta meta = (ItemDisplayMeta) getEntityMeta();
         meta.setNotifyAboutChanges(false);
         meta.setInterpolationStartDelta(0);
 
-        meta.setTranslation(new Pos(position.x(), position.y(), position.z()).mul(2.40).mul(meta.getScale()));
-        meta.setRightRotation(rotation.toFloatArray());
+        // positions are already scaled by the parent bones,
+        // so the translation only uses the model scale
+        meta.setTranslation(new Vec(
+                x * 2.40 * modelScale,
+                y * 2.40 * modelScale,
+                z * 2.40 * modelScale
+        ));
+        meta.setRightRotation(rotation);
+        if (scale != null) {
+            // sent in the same metadata packet
+            meta.setScale(scale);
+        }
 
         meta.setNotifyAboutChanges(true);
     }
+
+    @Override
+    public void interpolationDuration(int ticks) {
+        ItemDisplayMeta meta = (ItemDisplayMeta) getEntityMeta();
+        meta.setInterpolationDuration(Math.max(INTERPOLATION_DURATION, ticks));
+    }
 }
@@ -27,16 +27,25 @@ import net.minestom.server.coordinate.Pos;
 import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.Player;
 import net.minestom.server.instance.Instance;
+import org.jetbrains.annotations.Nullable;
 import team.unnamed.hephaestus.Model;
 import team.unnamed.hephaestus.ModelEngine;
 import team.unnamed.hephaestus.view.BaseModelView;
+import team.unnamed.hephaestus.view.animation.AnimationScheduler;
 import team.unnamed.hephaestus.view.track.ModelViewTracker;
 
+import java.util.Objects;
+
 public class MinestomModelEngine implements ModelEngine<Player, MinestomLocation>  {
 
+    private final @Nullable AnimationScheduler animationScheduler;
+
+    private MinestomModelEngine(@Nullable AnimationScheduler animationScheduler) {
+        this.animationScheduler = animationScheduler;
+    }
 
     public ModelEntity createView(EntityType entityType, Model model, Instance world, Pos position, float scale) {
-        ModelEntity modelEntity = new ModelEntity(entityType, model, scale);
+        ModelEntity modelEntity = new ModelEntity(entityType, model, scale, animationScheduler);
         modelEntity.setInstance(world, position);
         return modelEntity;
     }
@@ -71,7 +80,22 @@ public class MinestomModelEngine implements ModelEngine<Player, MinestomLocation
     }
 
     public static MinestomModelEngine minestom() {
-        return new MinestomModelEngine();
+        return new MinestomModelEngine(null);
+    }
+
+    /**
+     * Creates a new model engine whose created views are animated
+     * by the given {@code animationScheduler} instead of ticking
+     * their animations in their own entity tick
+     *
+     * <p>Note that the scheduler must be ticked every server tick,
+     * e.g. using a repeating task from the scheduler manager</p>
+     *
+     * @param animationScheduler The animation scheduler
+     * @return The created model engine
+     */
+    public static MinestomModelEngine minestom(AnimationScheduler animationScheduler) {
+        return new MinestomModelEngine(Objects.requireNonNull(animationScheduler, "animationScheduler"));
     }
 
 }
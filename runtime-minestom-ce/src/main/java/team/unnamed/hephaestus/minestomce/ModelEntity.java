@@ -25,6 +25,7 @@ package team.unnamed.hephaestus.minestomce;
 
 import net.minestom.server.color.Color;
 import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.EntityCreature;
 import net.minestom.server.entity.EntityType;
@@ -38,7 +39,9 @@ import team.unnamed.creative.base.Vector3Float;
 import team.unnamed.hephaestus.Bone;
 import team.unnamed.hephaestus.Model;
 import team.unnamed.hephaestus.view.BaseModelView;
-import team.unnamed.hephaestus.view.animation.AnimationController;
+import team.unnamed.hephaestus.view.animation.AnimationFrameCache;
+import team.unnamed.hephaestus.view.animation.AnimationScheduler;
+import team.unnamed.hephaestus.view.animation.LayeredAnimationController;
 
 import java.util.Collection;
 import java.util.List;
@@ -56,13 +59,20 @@ public class ModelEntity extends EntityCreature implements BaseModelView<Player>
 
     private final Entity modelHolder;
     private final Map<String, GenericBoneEntity> bones = new ConcurrentHashMap<>();
-    private final AnimationController animationController;
+    private final LayeredAnimationController animationController;
+    private final @Nullable AnimationScheduler animationScheduler;
 
     public ModelEntity(EntityType type, Model model, float scale) {
+        this(type, model, scale, null);
+    }
+
+    public ModelEntity(EntityType type, Model model, float scale, @Nullable AnimationScheduler animationScheduler) {
         super(type);
         this.model = model;
         this.scale = scale;
-        this.animationController = AnimationController.nonDelayed(this);
+        // entities playing the same animation share its frames
+        this.animationController = LayeredAnimationController.layered(this, AnimationFrameCache.shared());
+        this.animationScheduler = animationScheduler;
 
         this.modelHolder = new Entity(EntityType.ARMOR_STAND) {
             @Override
@@ -148,19 +158,58 @@ public class ModelEntity extends EntityCreature implements BaseModelView<Player>
     }
 
     @Override
-    public AnimationController animationController() {
+    public LayeredAnimationController animationController() {
         return animationController;
     }
 
+    /**
+     * Computes the distance from this model entity to its
+     * nearest viewer, can be used by distance-based animation
+     * level-of-detail policies
+     *
+     * @return The distance to the nearest viewer, or
+     * {@link Double#POSITIVE_INFINITY} if there are no viewers
+     * @see team.unnamed.hephaestus.view.animation.AnimationLodPolicy#distance
+     */
+    public double nearestViewerDistance() {
+        Pos position = getPosition();
+        double distanceSquared = Double.POSITIVE_INFINITY;
+        for (Player viewer : viewers()) {
+            distanceSquared = Math.min(distanceSquared, viewer.getPosition().distanceSquared(position));
+        }
+        return Math.sqrt(distanceSquared);
+    }
+
     @Override
     public void tickAnimations() {
         animationController.tick(getPosition().yaw());
     }
 
+    @Override
+    public void applyRootMotion(float x, float y, float z) {
+        // model units to blocks (see BoneEntity), rotated
+        // by the entity yaw, like the bone translations
+        Pos position = getPosition();
+        Vec motion = new Vec(x, y, z)
+                .mul(2.40 * scale)
+                .rotateAroundY(-Math.toRadians(position.yaw()));
+        teleport(position.add(motion));
+    }
+
     @Override
     public void tick(long time) {
         super.tick(time);
-        this.tickAnimations();
+        if (animationScheduler == null) {
+            this.tickAnimations();
+        }
+    }
+
+    @Override
+    public void remove() {
+        super.remove();
+        if (animationScheduler != null) {
+            animationScheduler.unregister(this);
+        }
     }
 
     @Override
@@ -180,6 +229,11 @@ public class ModelEntity extends EntityCreature implements BaseModelView<Player>
                     for (GenericBoneEntity bone : bones()) {
                         bone.setInstance(instance, spawnPosition);
                     }
+                    if (animationScheduler != null) {
+                        // registered once spawned, never from the constructor, so
+                        // the scheduler threads only see fully constructed entities
+                        animationScheduler.register(this, () -> getPosition().yaw());
+                    }
                 });
     }
 
@@ -9,6 +9,7 @@ rootProject.name = "hephaestus-parent"
 
 includePrefixed("api")
 includePrefixed("reader-blockbench")
+includePrefixed("simd")
 includePrefixed("runtime-bukkit:api")
 // includePrefixed("runtime-bukkit:adapt-v1_18_R2")
 includePrefixed("runtime-minestom-ce")
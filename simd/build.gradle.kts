@@ -0,0 +1,25 @@
+plugins {
+    id("hephaestus.publishing-conventions")
+    id("me.champeau.jmh") version "0.7.1"
+}
+
+dependencies {
+    api(project(":hephaestus-api"))
+}
+
+// the vector api is still incubating, its module
+// must be explicitly added at compile and run time
+val vectorModule = "--add-modules=jdk.incubator.vector"
+
+tasks {
+    withType<JavaCompile>().configureEach {
+        options.compilerArgs.add(vectorModule)
+    }
+    withType<Test>().configureEach {
+        jvmArgs(vectorModule)
+    }
+}
+
+jmh {
+    jvmArgsAppend.add(vectorModule)
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.simd;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import team.unnamed.hephaestus.util.Transforms;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and vector kernels computing the global
+ * transforms of a small bone hierarchy for many views at once
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class TransformKernelBenchmark {
+
+    // root, body, head, two arms and two legs
+    private static final int[] PARENTS = { Transforms.NO_PARENT, 0, 1, 1, 1, 0, 0 };
+
+    @Param({ "16", "256", "4096" })
+    private int views;
+
+    private final TransformKernel scalar = TransformKernel.scalar();
+    private final TransformKernel vector = new VectorTransformKernel();
+
+    private TransformBatch[] locals;
+    private TransformBatch[] globals;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0xBEEF);
+        float[] rotation = new float[4];
+        locals = new TransformBatch[PARENTS.length];
+        globals = new TransformBatch[PARENTS.length];
+        for (int bone = 0; bone < PARENTS.length; bone++) {
+            TransformBatch batch = TransformBatch.create(views);
+            for (int i = 0; i < views; i++) {
+                batch.position(i, random.nextFloat(), random.nextFloat(), random.nextFloat());
+                Transforms.fromEulerDegrees(
+                        random.nextFloat() * 360F,
+                        random.nextFloat() * 360F,
+                        random.nextFloat() * 360F,
+                        rotation,
+                        0
+                );
+                batch.rotation(i, rotation[0], rotation[1], rotation[2], rotation[3]);
+            }
+            locals[bone] = batch;
+            globals[bone] = TransformBatch.create(views);
+        }
+    }
+
+    @Benchmark
+    public void scalar(Blackhole blackhole) {
+        scalar.computeGlobal(PARENTS, locals, globals, views);
+        blackhole.consume(globals);
+    }
+
+    @Benchmark
+    public void vector(Blackhole blackhole) {
+        vector.computeGlobal(PARENTS, locals, globals, views);
+        blackhole.consume(globals);
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.simd;
+
+/**
+ * Scalar {@link TransformKernel} implementation, processes
+ * one transform at a time
+ */
+final class ScalarTransformKernel implements TransformKernel {
+
+    static final ScalarTransformKernel INSTANCE = new ScalarTransformKernel();
+
+    private ScalarTransformKernel() {
+    }
+
+    @Override
+    public void multiply(TransformBatch left, TransformBatch right, TransformBatch dest, int count) {
+        float[] ax = left.rotationX(), ay = left.rotationY(), az = left.rotationZ(), aw = left.rotationW();
+        float[] bx = right.rotationX(), by = right.rotationY(), bz = right.rotationZ(), bw = right.rotationW();
+        float[] dx = dest.rotationX(), dy = dest.rotationY(), dz = dest.rotationZ(), dw = dest.rotationW();
+        for (int i = 0; i < count; i++) {
+            float x1 = ax[i], y1 = ay[i], z1 = az[i], w1 = aw[i];
+            float x2 = bx[i], y2 = by[i], z2 = bz[i], w2 = bw[i];
+            dx[i] = x1 * w2 + w1 * x2 + y1 * z2 - z1 * y2;
+            dy[i] = y1 * w2 + w1 * y2 + z1 * x2 - x1 * z2;
+            dz[i] = z1 * w2 + w1 * z2 + x1 * y2 - y1 * x2;
+            dw[i] = w1 * w2 - x1 * x2 - y1 * y2 - z1 * z2;
+        }
+    }
+
+    @Override
+    public void compose(TransformBatch parents, TransformBatch locals, TransformBatch dest, int count) {
+        float[] ppx = parents.positionX(), ppy = parents.positionY(), ppz = parents.positionZ();
+        float[] lpx = locals.positionX(), lpy = locals.positionY(), lpz = locals.positionZ();
+        float[] dpx = dest.positionX(), dpy = dest.positionY(), dpz = dest.positionZ();
+        float[] prx = parents.rotationX(), pry = parents.rotationY(), prz = parents.rotationZ(), prw = parents.rotationW();
+
+        for (int i = 0; i < count; i++) {
+            float px = prx[i], py = pry[i], pz = prz[i], pw = prw[i];
+            float x = lpx[i], y = lpy[i], z = lpz[i];
+
+            // global position = parent rotation * local position + parent position
+            // (see Quaternion#transform)
+            float tx = 2F * (py * z - pz * y);
+            float ty = 2F * (pz * x - px * z);
+            float tz = 2F * (px * y - py * x);
+            dpx[i] = x + pw * tx + (py * tz - pz * ty) + ppx[i];
+            dpy[i] = y + pw * ty + (pz * tx - px * tz) + ppy[i];
+            dpz[i] = z + pw * tz + (px * ty - py * tx) + ppz[i];
+        }
+
+        // global rotation = parent rotation * local rotation, local
+        // rotations are still intact, even if dest is locals
+        multiply(parents, locals, dest, count);
+    }
+
+}
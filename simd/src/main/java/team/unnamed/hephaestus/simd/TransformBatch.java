@@ -0,0 +1,160 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.simd;
+
+import java.util.Arrays;
+
+/**
+ * A batch of bone transforms stored as a structure of arrays,
+ * every component (position x, y, z and rotation x, y, z, w) is
+ * held in its own array, so that the transforms of the same bone
+ * for many views can be processed together by a {@link TransformKernel}
+ *
+ * <p>Rotations are quaternions, new batches hold the zero position
+ * and the identity rotation in every index</p>
+ *
+ * @since 1.0.0
+ */
+public final class TransformBatch {
+
+    private final int capacity;
+
+    private final float[] positionX;
+    private final float[] positionY;
+    private final float[] positionZ;
+
+    private final float[] rotationX;
+    private final float[] rotationY;
+    private final float[] rotationZ;
+    private final float[] rotationW;
+
+    private TransformBatch(int capacity) {
+        this.capacity = capacity;
+        this.positionX = new float[capacity];
+        this.positionY = new float[capacity];
+        this.positionZ = new float[capacity];
+        this.rotationX = new float[capacity];
+        this.rotationY = new float[capacity];
+        this.rotationZ = new float[capacity];
+        this.rotationW = new float[capacity];
+        Arrays.fill(rotationW, 1F);
+    }
+
+    /**
+     * Creates a new transform batch with the given capacity
+     *
+     * @param capacity The maximum amount of transforms
+     * @return The created batch
+     * @since 1.0.0
+     */
+    public static TransformBatch create(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        return new TransformBatch(capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the position of the transform at the given {@code index}
+     *
+     * @param index The transform index
+     * @param x The position x component
+     * @param y The position y component
+     * @param z The position z component
+     * @since 1.0.0
+     */
+    public void position(int index, float x, float y, float z) {
+        positionX[index] = x;
+        positionY[index] = y;
+        positionZ[index] = z;
+    }
+
+    /**
+     * Sets the rotation of the transform at the given {@code index}
+     *
+     * @param index The transform index
+     * @param x The quaternion x component
+     * @param y The quaternion y component
+     * @param z The quaternion z component
+     * @param w The quaternion w component
+     * @since 1.0.0
+     */
+    public void rotation(int index, float x, float y, float z, float w) {
+        rotationX[index] = x;
+        rotationY[index] = y;
+        rotationZ[index] = z;
+        rotationW[index] = w;
+    }
+
+    /**
+     * Copies the first {@code count} transforms of this batch
+     * to the given {@code dest} batch
+     *
+     * @param dest The destination batch
+     * @param count The amount of transforms to copy
+     * @since 1.0.0
+     */
+    public void copyTo(TransformBatch dest, int count) {
+        System.arraycopy(positionX, 0, dest.positionX, 0, count);
+        System.arraycopy(positionY, 0, dest.positionY, 0, count);
+        System.arraycopy(positionZ, 0, dest.positionZ, 0, count);
+        System.arraycopy(rotationX, 0, dest.rotationX, 0, count);
+        System.arraycopy(rotationY, 0, dest.rotationY, 0, count);
+        System.arraycopy(rotationZ, 0, dest.rotationZ, 0, count);
+        System.arraycopy(rotationW, 0, dest.rotationW, 0, count);
+    }
+
+    public float[] positionX() {
+        return positionX;
+    }
+
+    public float[] positionY() {
+        return positionY;
+    }
+
+    public float[] positionZ() {
+        return positionZ;
+    }
+
+    public float[] rotationX() {
+        return rotationX;
+    }
+
+    public float[] rotationY() {
+        return rotationY;
+    }
+
+    public float[] rotationZ() {
+        return rotationZ;
+    }
+
+    public float[] rotationW() {
+        return rotationW;
+    }
+
+}
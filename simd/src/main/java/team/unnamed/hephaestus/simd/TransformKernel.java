@@ -0,0 +1,117 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.simd;
+
+import team.unnamed.hephaestus.util.Transforms;
+
+/**
+ * Computes bone transforms in batches, every operation processes
+ * the first {@code count} transforms of the given batches, index
+ * by index, e.g. the same bone of many views of a model
+ *
+ * <p>The kernel returned by {@link TransformKernel#kernel()} uses
+ * data-parallel (SIMD) instructions if the {@code jdk.incubator.vector}
+ * module is available ({@code --add-modules jdk.incubator.vector}),
+ * otherwise it falls back to {@link TransformKernel#scalar()}. The
+ * fallback can be forced by setting the {@code hephaestus.simd}
+ * system property to {@code false}</p>
+ *
+ * @since 1.0.0
+ */
+public interface TransformKernel {
+
+    /**
+     * Multiplies the rotations of {@code left} by the rotations
+     * of {@code right} and writes them to {@code dest}, positions
+     * are not modified. {@code dest} may be one of the sources
+     *
+     * @param left The left rotations
+     * @param right The right rotations
+     * @param dest The destination batch
+     * @param count The amount of transforms
+     * @since 1.0.0
+     */
+    void multiply(TransformBatch left, TransformBatch right, TransformBatch dest, int count);
+
+    /**
+     * Composes the global transforms of the {@code parents} with
+     * the local transforms in {@code locals}, and writes the global
+     * transforms to {@code dest}, i.e. the rotation is the parent
+     * rotation multiplied by the local rotation and the position is
+     * the local position, rotated by the parent rotation, plus the
+     * parent position. {@code dest} may be {@code locals}
+     *
+     * @param parents The parent global transforms
+     * @param locals The local transforms
+     * @param dest The destination batch
+     * @param count The amount of transforms
+     * @see Transforms#computeGlobal
+     * @since 1.0.0
+     */
+    void compose(TransformBatch parents, TransformBatch locals, TransformBatch dest, int count);
+
+    /**
+     * Computes the global transforms of a bone hierarchy, where
+     * every bone holds a batch of transforms. Parents must come
+     * before their children, root bones use {@link Transforms#NO_PARENT}
+     *
+     * @param parents The parent index of every bone
+     * @param locals The local transforms of every bone
+     * @param globals The destination global transforms of every bone
+     * @param count The amount of transforms per bone
+     * @since 1.0.0
+     */
+    default void computeGlobal(int[] parents, TransformBatch[] locals, TransformBatch[] globals, int count) {
+        for (int bone = 0; bone < parents.length; bone++) {
+            int parent = parents[bone];
+            if (parent == Transforms.NO_PARENT) {
+                locals[bone].copyTo(globals[bone], count);
+            } else {
+                compose(globals[parent], locals[bone], globals[bone], count);
+            }
+        }
+    }
+
+    /**
+     * Returns the preferred transform kernel, data-parallel if
+     * available, scalar otherwise
+     *
+     * @return The preferred kernel
+     * @since 1.0.0
+     */
+    static TransformKernel kernel() {
+        return TransformKernels.PREFERRED;
+    }
+
+    /**
+     * Returns the scalar transform kernel, always available
+     *
+     * @return The scalar kernel
+     * @since 1.0.0
+     */
+    static TransformKernel scalar() {
+        return ScalarTransformKernel.INSTANCE;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.simd;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link TransformKernel} implementation using the JDK incubator
+ * Vector API, processes as many transforms at once as float lanes
+ * fit in the preferred vector shape of the platform, the last
+ * transforms are processed using masked lanes
+ *
+ * <p>Requires the {@code jdk.incubator.vector} module to be added
+ * to the runtime ({@code --add-modules jdk.incubator.vector}), it
+ * is returned by {@link TransformKernel#kernel()} when available</p>
+ *
+ * @since 1.0.0
+ */
+public final class VectorTransformKernel implements TransformKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void multiply(TransformBatch left, TransformBatch right, TransformBatch dest, int count) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            multiply(left, right, dest, i, null);
+        }
+        if (i < count) {
+            multiply(left, right, dest, i, SPECIES.indexInRange(i, count));
+        }
+    }
+
+    @Override
+    public void compose(TransformBatch parents, TransformBatch locals, TransformBatch dest, int count) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            compose(parents, locals, dest, i, null);
+        }
+        if (i < count) {
+            compose(parents, locals, dest, i, SPECIES.indexInRange(i, count));
+        }
+    }
+
+    private static void multiply(
+            TransformBatch left,
+            TransformBatch right,
+            TransformBatch dest,
+            int i,
+            @Nullable VectorMask<Float> mask
+    ) {
+        FloatVector x1 = load(left.rotationX(), i, mask);
+        FloatVector y1 = load(left.rotationY(), i, mask);
+        FloatVector z1 = load(left.rotationZ(), i, mask);
+        FloatVector w1 = load(left.rotationW(), i, mask);
+        FloatVector x2 = load(right.rotationX(), i, mask);
+        FloatVector y2 = load(right.rotationY(), i, mask);
+        FloatVector z2 = load(right.rotationZ(), i, mask);
+        FloatVector w2 = load(right.rotationW(), i, mask);
+
+        // see Quaternion#multiply
+        store(x1.mul(w2).add(w1.mul(x2)).add(y1.mul(z2)).sub(z1.mul(y2)), dest.rotationX(), i, mask);
+        store(y1.mul(w2).add(w1.mul(y2)).add(z1.mul(x2)).sub(x1.mul(z2)), dest.rotationY(), i, mask);
+        store(z1.mul(w2).add(w1.mul(z2)).add(x1.mul(y2)).sub(y1.mul(x2)), dest.rotationZ(), i, mask);
+        store(w1.mul(w2).sub(x1.mul(x2)).sub(y1.mul(y2)).sub(z1.mul(z2)), dest.rotationW(), i, mask);
+    }
+
+    private static void compose(
+            TransformBatch parents,
+            TransformBatch locals,
+            TransformBatch dest,
+            int i,
+            @Nullable VectorMask<Float> mask
+    ) {
+        FloatVector px = load(parents.rotationX(), i, mask);
+        FloatVector py = load(parents.rotationY(), i, mask);
+        FloatVector pz = load(parents.rotationZ(), i, mask);
+        FloatVector pw = load(parents.rotationW(), i, mask);
+        FloatVector x = load(locals.positionX(), i, mask);
+        FloatVector y = load(locals.positionY(), i, mask);
+        FloatVector z = load(locals.positionZ(), i, mask);
+
+        // global position = parent rotation * local position + parent position
+        // (see Quaternion#transform)
+        FloatVector tx = py.mul(z).sub(pz.mul(y)).mul(2F);
+        FloatVector ty = pz.mul(x).sub(px.mul(z)).mul(2F);
+        FloatVector tz = px.mul(y).sub(py.mul(x)).mul(2F);
+        FloatVector gx = x.add(pw.mul(tx)).add(py.mul(tz).sub(pz.mul(ty))).add(load(parents.positionX(), i, mask));
+        FloatVector gy = y.add(pw.mul(ty)).add(pz.mul(tx).sub(px.mul(tz))).add(load(parents.positionY(), i, mask));
+        FloatVector gz = z.add(pw.mul(tz)).add(px.mul(ty).sub(py.mul(tx))).add(load(parents.positionZ(), i, mask));
+        store(gx, dest.positionX(), i, mask);
+        store(gy, dest.positionY(), i, mask);
+        store(gz, dest.positionZ(), i, mask);
+
+        // global rotation = parent rotation * local rotation
+        multiply(parents, locals, dest, i, mask);
+    }
+
+    private static FloatVector load(float[] array, int i, @Nullable VectorMask<Float> mask) {
+        return mask == null
+                ? FloatVector.fromArray(SPECIES, array, i)
+                : FloatVector.fromArray(SPECIES, array, i, mask);
+    }
+
+    private static void store(FloatVector vector, float[] array, int i, @Nullable VectorMask<Float> mask) {
+        if (mask == null) {
+            vector.intoArray(array, i);
+        } else {
+            vector.intoArray(array, i, mask);
+        }
+    }
+
+}
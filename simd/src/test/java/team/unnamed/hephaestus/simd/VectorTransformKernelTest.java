@@ -0,0 +1,99 @@
+/*
+ * This file is part of hephaestus-engine, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.hephaestus.simd;
+
+import org.junit.jupiter.api.Test;
+import team.unnamed.hephaestus.util.Transforms;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class VectorTransformKernelTest {
+
+    private static final float TOLERANCE = 1.0E-5F;
+
+    // not a multiple of any vector length, so that
+    // the masked tail is also tested
+    private static final int COUNT = 67;
+
+    private static final float[] ROTATION = new float[4];
+
+    @Test
+    void test_preferred_kernel() {
+        assertInstanceOf(VectorTransformKernel.class, TransformKernel.kernel());
+    }
+
+    @Test
+    void test_matches_scalar() {
+        Random random = new Random(0xBEEF);
+        int[] parents = { Transforms.NO_PARENT, 0, 1, 0 };
+        TransformBatch[] locals = new TransformBatch[parents.length];
+        TransformBatch[] scalar = new TransformBatch[parents.length];
+        TransformBatch[] vector = new TransformBatch[parents.length];
+
+        for (int bone = 0; bone < parents.length; bone++) {
+            locals[bone] = randomBatch(random);
+            scalar[bone] = TransformBatch.create(COUNT);
+            vector[bone] = TransformBatch.create(COUNT);
+        }
+
+        TransformKernel.scalar().computeGlobal(parents, locals, scalar, COUNT);
+        new VectorTransformKernel().computeGlobal(parents, locals, vector, COUNT);
+
+        for (int bone = 0; bone < parents.length; bone++) {
+            assertBatchEquals(scalar[bone], vector[bone]);
+        }
+    }
+
+    private static TransformBatch randomBatch(Random random) {
+        TransformBatch batch = TransformBatch.create(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            batch.position(i, random.nextFloat() * 4F - 2F, random.nextFloat() * 4F - 2F, random.nextFloat() * 4F - 2F);
+            Transforms.fromEulerDegrees(
+                    random.nextFloat() * 360F,
+                    random.nextFloat() * 360F,
+                    random.nextFloat() * 360F,
+                    ROTATION,
+                    0
+            );
+            batch.rotation(i, ROTATION[0], ROTATION[1], ROTATION[2], ROTATION[3]);
+        }
+        return batch;
+    }
+
+    private static void assertBatchEquals(TransformBatch expected, TransformBatch actual) {
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(expected.positionX()[i], actual.positionX()[i], TOLERANCE);
+            assertEquals(expected.positionY()[i], actual.positionY()[i], TOLERANCE);
+            assertEquals(expected.positionZ()[i], actual.positionZ()[i], TOLERANCE);
+            assertEquals(expected.rotationX()[i], actual.rotationX()[i], TOLERANCE);
+            assertEquals(expected.rotationY()[i], actual.rotationY()[i], TOLERANCE);
+            assertEquals(expected.rotationZ()[i], actual.rotationZ()[i], TOLERANCE);
+            assertEquals(expected.rotationW()[i], actual.rotationW()[i], TOLERANCE);
+        }
+    }
+
+}